@@ -1146,6 +1146,15 @@ public class BinaryClient extends Connection {
     sendCommand(ASKING);
   }
 
+  /**
+   * Sends ASKING ahead of the next command without waiting for its reply, see
+   * {@link #skipReply()}.
+   */
+  public void askingWithNextCommand() {
+    sendCommand(ASKING);
+    skipReply();
+  }
+
   public void pfadd(final byte[] key, final byte[]... elements) {
     sendCommand(PFADD, joinParameters(key, elements));
   }
@@ -2265,6 +2265,30 @@ public class BinaryJedis implements BasicCommands, BinaryJedisCommands, MultiKey
     return pipeline;
   }
 
+  /**
+   * Starts a pipeline for bulk workloads which flushes and reads replies on its own, handing the
+   * results to the callback, see {@link BoundedPipeline}.
+   */
+  public BoundedPipeline pipelined(final PipelineCallback callback, final int maxPendingCommands,
+      final long maxPendingBytes) {
+    BoundedPipeline boundedPipeline = new BoundedPipeline(callback, maxPendingCommands,
+        maxPendingBytes);
+    boundedPipeline.setClient(client);
+    pipeline = boundedPipeline;
+    return boundedPipeline;
+  }
+
+  /**
+   * Starts a pipeline whose replies are read by a background task while commands are still being
+   * sent, handing the results to the callback, see {@link DuplexPipeline}.
+   */
+  public DuplexPipeline duplexPipelined(final PipelineCallback callback) {
+    DuplexPipeline duplexPipeline = new DuplexPipeline(callback);
+    duplexPipeline.setClient(client);
+    pipeline = duplexPipeline;
+    return duplexPipeline;
+  }
+
   @Override
   public Long zcount(final byte[] key, final double min, final double max) {
     checkIsInMultiOrPipeline();
@@ -91,10 +91,84 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
     return connectionHandler.getNodes();
   }
 
+  /**
+   * Sets where read-only commands are sent, the masters by default. Commands which write, and the
+   * commands of a {@link JedisClusterPipeline}, always go to the masters.
+   */
+  public void setReadFrom(ReadFrom readFrom) {
+    connectionHandler.setReadFrom(readFrom);
+  }
+
+  public ReadFrom getReadFrom() {
+    return connectionHandler.getReadFrom();
+  }
+
+  /**
+   * Sets how the replica serving a read is chosen when reads go to replicas, round-robin by
+   * default.
+   */
+  public void setReplicaSelection(ReplicaSelection replicaSelection) {
+    connectionHandler.setReplicaSelection(replicaSelection);
+  }
+
+  /**
+   * Sets the period at which the slot cache is refreshed in the background, 0 (the default) to only
+   * refresh it when commands are redirected or nodes cannot be reached.
+   */
+  public void setTopologyRefreshPeriod(long periodMillis) {
+    connectionHandler.getTopologyManager().setRefreshPeriodMillis(periodMillis);
+  }
+
+  /**
+   * Sets the least time between two refreshes of the slot cache requested by MOVED redirects, see
+   * {@link ClusterTopologyManager#setMinRefreshIntervalMillis(long)}.
+   */
+  public void setMinTopologyRefreshInterval(long intervalMillis) {
+    connectionHandler.getTopologyManager().setMinRefreshIntervalMillis(intervalMillis);
+  }
+
+  /**
+   * Sets the period at which masters without traffic are probed in the background, 0 (the default)
+   * to only judge nodes by the commands they serve. Keyless commands go to masters known to answer
+   * without a PING of their own.
+   */
+  public void setNodeProbePeriod(long periodMillis) {
+    connectionHandler.getTopologyManager().setProbePeriodMillis(periodMillis);
+  }
+
+  /**
+   * @return the successes and failures of the nodes, which decide whether a connection error
+   *         renews the slot cache and which nodes are avoided
+   */
+  public ClusterNodeHealth getNodeHealth() {
+    return connectionHandler.getNodeHealth();
+  }
+
+  /**
+   * Sets how commands are retried after connection errors, TRYAGAIN and CLUSTERDOWN. The retry
+   * budget of the policy is shared by all commands of this client, and of any other client given
+   * the same policy.
+   */
+  public void setRetryPolicy(ClusterRetryPolicy retryPolicy) {
+    connectionHandler.setRetryPolicy(retryPolicy);
+  }
+
+  public ClusterRetryPolicy getRetryPolicy() {
+    return connectionHandler.getRetryPolicy();
+  }
+
   public Jedis getConnectionFromSlot(int slot) {
 	  return  this.connectionHandler.getConnectionFromSlot(slot);
   }
 
+  /**
+   * Starts a pipeline which routes each command to the node owning its key and sends the commands
+   * of all nodes in parallel on sync, see {@link JedisClusterPipeline}.
+   */
+  public JedisClusterPipeline pipelined() {
+    return new JedisClusterPipeline(connectionHandler, maxAttempts);
+  }
+
   @Override
   public String set(final byte[] key, final byte[] value) {
     return new JedisClusterCommand<String>(connectionHandler, maxAttempts) {
@@ -117,7 +191,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public byte[] get(final byte[] key) {
-    return new JedisClusterCommand<byte[]>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<byte[]>(connectionHandler, maxAttempts) {
       @Override
       public byte[] execute(Jedis connection) {
         return connection.get(key);
@@ -127,7 +201,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long exists(final byte[]... keys) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.exists(keys);
@@ -137,7 +211,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Boolean exists(final byte[] key) {
-    return new JedisClusterCommand<Boolean>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Boolean>(connectionHandler, maxAttempts) {
       @Override
       public Boolean execute(Jedis connection) {
         return connection.exists(key);
@@ -157,7 +231,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public String type(final byte[] key) {
-    return new JedisClusterCommand<String>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<String>(connectionHandler, maxAttempts) {
       @Override
       public String execute(Jedis connection) {
         return connection.type(key);
@@ -167,7 +241,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public byte[] dump(final byte[] key) {
-    return new JedisClusterCommand<byte[]>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<byte[]>(connectionHandler, maxAttempts) {
       @Override
       public byte[] execute(Jedis connection) {
         return connection.dump(key);
@@ -227,7 +301,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long ttl(final byte[] key) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.ttl(key);
@@ -237,7 +311,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long pttl(final byte[] key) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.pttl(key);
@@ -287,7 +361,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Boolean getbit(final byte[] key, final long offset) {
-    return new JedisClusterCommand<Boolean>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Boolean>(connectionHandler, maxAttempts) {
       @Override
       public Boolean execute(Jedis connection) {
         return connection.getbit(key, offset);
@@ -307,7 +381,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public byte[] getrange(final byte[] key, final long startOffset, final long endOffset) {
-    return new JedisClusterCommand<byte[]>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<byte[]>(connectionHandler, maxAttempts) {
       @Override
       public byte[] execute(Jedis connection) {
         return connection.getrange(key, startOffset, endOffset);
@@ -417,7 +491,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public byte[] substr(final byte[] key, final int start, final int end) {
-    return new JedisClusterCommand<byte[]>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<byte[]>(connectionHandler, maxAttempts) {
       @Override
       public byte[] execute(Jedis connection) {
         return connection.substr(key, start, end);
@@ -447,7 +521,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public byte[] hget(final byte[] key, final byte[] field) {
-    return new JedisClusterCommand<byte[]>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<byte[]>(connectionHandler, maxAttempts) {
       @Override
       public byte[] execute(Jedis connection) {
         return connection.hget(key, field);
@@ -477,7 +551,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public List<byte[]> hmget(final byte[] key, final byte[]... fields) {
-    return new JedisClusterCommand<List<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<List<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public List<byte[]> execute(Jedis connection) {
         return connection.hmget(key, fields);
@@ -507,7 +581,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Boolean hexists(final byte[] key, final byte[] field) {
-    return new JedisClusterCommand<Boolean>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Boolean>(connectionHandler, maxAttempts) {
       @Override
       public Boolean execute(Jedis connection) {
         return connection.hexists(key, field);
@@ -527,7 +601,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long hlen(final byte[] key) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.hlen(key);
@@ -537,7 +611,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> hkeys(final byte[] key) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.hkeys(key);
@@ -547,7 +621,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Collection<byte[]> hvals(final byte[] key) {
-    return new JedisClusterCommand<Collection<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Collection<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Collection<byte[]> execute(Jedis connection) {
         return connection.hvals(key);
@@ -557,7 +631,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Map<byte[], byte[]> hgetAll(final byte[] key) {
-    return new JedisClusterCommand<Map<byte[], byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Map<byte[], byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Map<byte[], byte[]> execute(Jedis connection) {
         return connection.hgetAll(key);
@@ -587,7 +661,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long llen(final byte[] key) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.llen(key);
@@ -597,7 +671,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public List<byte[]> lrange(final byte[] key, final long start, final long stop) {
-    return new JedisClusterCommand<List<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<List<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public List<byte[]> execute(Jedis connection) {
         return connection.lrange(key, start, stop);
@@ -617,7 +691,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public byte[] lindex(final byte[] key, final long index) {
-    return new JedisClusterCommand<byte[]>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<byte[]>(connectionHandler, maxAttempts) {
       @Override
       public byte[] execute(Jedis connection) {
         return connection.lindex(key, index);
@@ -677,7 +751,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> smembers(final byte[] key) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.smembers(key);
@@ -717,7 +791,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long scard(final byte[] key) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.scard(key);
@@ -727,7 +801,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Boolean sismember(final byte[] key, final byte[] member) {
-    return new JedisClusterCommand<Boolean>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Boolean>(connectionHandler, maxAttempts) {
       @Override
       public Boolean execute(Jedis connection) {
         return connection.sismember(key, member);
@@ -737,7 +811,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public byte[] srandmember(final byte[] key) {
-    return new JedisClusterCommand<byte[]>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<byte[]>(connectionHandler, maxAttempts) {
       @Override
       public byte[] execute(Jedis connection) {
         return connection.srandmember(key);
@@ -747,7 +821,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long strlen(final byte[] key) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.strlen(key);
@@ -798,7 +872,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> zrange(final byte[] key, final long start, final long stop) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrange(key, start, stop);
@@ -839,7 +913,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long zrank(final byte[] key, final byte[] member) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.zrank(key, member);
@@ -849,7 +923,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long zrevrank(final byte[] key, final byte[] member) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.zrevrank(key, member);
@@ -859,7 +933,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> zrevrange(final byte[] key, final long start, final long stop) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrevrange(key, start, stop);
@@ -869,7 +943,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<Tuple> zrangeWithScores(final byte[] key, final long start, final long stop) {
-    return new JedisClusterCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public Set<Tuple> execute(Jedis connection) {
         return connection.zrangeWithScores(key, start, stop);
@@ -879,7 +953,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<Tuple> zrevrangeWithScores(final byte[] key, final long start, final long stop) {
-    return new JedisClusterCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public Set<Tuple> execute(Jedis connection) {
         return connection.zrevrangeWithScores(key, start, stop);
@@ -889,7 +963,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long zcard(final byte[] key) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.zcard(key);
@@ -899,7 +973,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Double zscore(final byte[] key, final byte[] member) {
-    return new JedisClusterCommand<Double>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Double>(connectionHandler, maxAttempts) {
       @Override
       public Double execute(Jedis connection) {
         return connection.zscore(key, member);
@@ -969,7 +1043,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long zcount(final byte[] key, final double min, final double max) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.zcount(key, min, max);
@@ -979,7 +1053,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long zcount(final byte[] key, final byte[] min, final byte[] max) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.zcount(key, min, max);
@@ -989,7 +1063,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> zrangeByScore(final byte[] key, final double min, final double max) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrangeByScore(key, min, max);
@@ -999,7 +1073,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> zrangeByScore(final byte[] key, final byte[] min, final byte[] max) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrangeByScore(key, min, max);
@@ -1009,7 +1083,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> zrevrangeByScore(final byte[] key, final double max, final double min) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrevrangeByScore(key, max, min);
@@ -1020,7 +1094,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public Set<byte[]> zrangeByScore(final byte[] key, final double min, final double max,
       final int offset, final int count) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrangeByScore(key, min, max, offset, count);
@@ -1030,7 +1104,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> zrevrangeByScore(final byte[] key, final byte[] max, final byte[] min) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrevrangeByScore(key, max, min);
@@ -1041,7 +1115,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public Set<byte[]> zrangeByScore(final byte[] key, final byte[] min, final byte[] max,
       final int offset, final int count) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrangeByScore(key, min, max, offset, count);
@@ -1052,7 +1126,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public Set<byte[]> zrevrangeByScore(final byte[] key, final double max, final double min,
       final int offset, final int count) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrevrangeByScore(key, max, min, offset, count);
@@ -1062,7 +1136,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<Tuple> zrangeByScoreWithScores(final byte[] key, final double min, final double max) {
-    return new JedisClusterCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public Set<Tuple> execute(Jedis connection) {
         return connection.zrangeByScoreWithScores(key, min, max);
@@ -1072,7 +1146,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<Tuple> zrevrangeByScoreWithScores(final byte[] key, final double max, final double min) {
-    return new JedisClusterCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public Set<Tuple> execute(Jedis connection) {
         return connection.zrevrangeByScoreWithScores(key, max, min);
@@ -1083,7 +1157,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public Set<Tuple> zrangeByScoreWithScores(final byte[] key, final double min, final double max,
       final int offset, final int count) {
-    return new JedisClusterCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public Set<Tuple> execute(Jedis connection) {
         return connection.zrangeByScoreWithScores(key, min, max, offset, count);
@@ -1094,7 +1168,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public Set<byte[]> zrevrangeByScore(final byte[] key, final byte[] max, final byte[] min,
       final int offset, final int count) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrevrangeByScore(key, max, min, offset, count);
@@ -1104,7 +1178,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<Tuple> zrangeByScoreWithScores(final byte[] key, final byte[] min, final byte[] max) {
-    return new JedisClusterCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public Set<Tuple> execute(Jedis connection) {
         return connection.zrangeByScoreWithScores(key, min, max);
@@ -1114,7 +1188,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<Tuple> zrevrangeByScoreWithScores(final byte[] key, final byte[] max, final byte[] min) {
-    return new JedisClusterCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public Set<Tuple> execute(Jedis connection) {
         return connection.zrevrangeByScoreWithScores(key, max, min);
@@ -1125,7 +1199,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public Set<Tuple> zrangeByScoreWithScores(final byte[] key, final byte[] min, final byte[] max,
       final int offset, final int count) {
-    return new JedisClusterCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public Set<Tuple> execute(Jedis connection) {
         return connection.zrangeByScoreWithScores(key, min, max, offset, count);
@@ -1136,7 +1210,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public Set<Tuple> zrevrangeByScoreWithScores(final byte[] key, final double max,
       final double min, final int offset, final int count) {
-    return new JedisClusterCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public Set<Tuple> execute(Jedis connection) {
         return connection.zrevrangeByScoreWithScores(key, max, min, offset, count);
@@ -1147,7 +1221,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public Set<Tuple> zrevrangeByScoreWithScores(final byte[] key, final byte[] max,
       final byte[] min, final int offset, final int count) {
-    return new JedisClusterCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public Set<Tuple> execute(Jedis connection) {
         return connection.zrevrangeByScoreWithScores(key, max, min, offset, count);
@@ -1249,7 +1323,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public byte[] echo(final byte[] arg) {
     // note that it'll be run from arbitary node
-    return new JedisClusterCommand<byte[]>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<byte[]>(connectionHandler, maxAttempts) {
       @Override
       public byte[] execute(Jedis connection) {
         return connection.echo(arg);
@@ -1259,7 +1333,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long bitcount(final byte[] key) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.bitcount(key);
@@ -1269,7 +1343,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long bitcount(final byte[] key, final long start, final long end) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.bitcount(key, start, end);
@@ -1289,7 +1363,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public long pfcount(final byte[] key) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.pfcount(key);
@@ -1299,7 +1373,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public List<byte[]> srandmember(final byte[] key, final int count) {
-    return new JedisClusterCommand<List<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<List<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public List<byte[]> execute(Jedis connection) {
         return connection.srandmember(key, count);
@@ -1309,7 +1383,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long zlexcount(final byte[] key, final byte[] min, final byte[] max) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.zlexcount(key, min, max);
@@ -1319,7 +1393,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> zrangeByLex(final byte[] key, final byte[] min, final byte[] max) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrangeByLex(key, min, max);
@@ -1330,7 +1404,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public Set<byte[]> zrangeByLex(final byte[] key, final byte[] min, final byte[] max,
       final int offset, final int count) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrangeByLex(key, min, max, offset, count);
@@ -1340,7 +1414,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> zrevrangeByLex(final byte[] key, final byte[] max, final byte[] min) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrevrangeByLex(key, max, min);
@@ -1351,7 +1425,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public Set<byte[]> zrevrangeByLex(final byte[] key, final byte[] max, final byte[] min,
       final int offset, final int count) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.zrevrangeByLex(key, max, min, offset, count);
@@ -1511,7 +1585,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public List<byte[]> mget(final byte[]... keys) {
-    return new JedisClusterCommand<List<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<List<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public List<byte[]> execute(Jedis connection) {
         return connection.mget(keys);
@@ -1551,6 +1625,55 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
     }.runBinary(keys.length, keys);
   }
 
+  /**
+   * MGET over keys of any slots: the keys are grouped by slot and the MGETs of every node are
+   * pipelined, all nodes in parallel. Redirected MGETs are retried on their own.
+   * @return the values in the order of the keys
+   */
+  public List<byte[]> mgetAcrossSlots(final byte[]... keys) {
+    return CrossSlotCommands.mget(connectionHandler, maxAttempts, keys);
+  }
+
+  /**
+   * MSET over keys of any slots, see {@link #mgetAcrossSlots(byte[]...)}. The keys of one slot are
+   * set atomically, the slots are not: if an error is thrown some keys may have been set.
+   */
+  public String msetAcrossSlots(final byte[]... keysvalues) {
+    return CrossSlotCommands.mset(connectionHandler, maxAttempts, keysvalues);
+  }
+
+  /**
+   * DEL over keys of any slots, see {@link #mgetAcrossSlots(byte[]...)}.
+   * @return the number of keys removed
+   */
+  public Long delAcrossSlots(final byte[]... keys) {
+    return CrossSlotCommands.count(connectionHandler, maxAttempts, Protocol.Command.DEL, keys);
+  }
+
+  /**
+   * UNLINK over keys of any slots, see {@link #mgetAcrossSlots(byte[]...)}.
+   * @return the number of keys unlinked
+   */
+  public Long unlinkAcrossSlots(final byte[]... keys) {
+    return CrossSlotCommands.count(connectionHandler, maxAttempts, Protocol.Command.UNLINK, keys);
+  }
+
+  /**
+   * EXISTS over keys of any slots, see {@link #mgetAcrossSlots(byte[]...)}.
+   * @return the number of keys existing, counting repeated keys as many times
+   */
+  public Long existsAcrossSlots(final byte[]... keys) {
+    return CrossSlotCommands.count(connectionHandler, maxAttempts, Protocol.Command.EXISTS, keys);
+  }
+
+  /**
+   * TOUCH over keys of any slots, see {@link #mgetAcrossSlots(byte[]...)}.
+   * @return the number of keys touched
+   */
+  public Long touchAcrossSlots(final byte[]... keys) {
+    return CrossSlotCommands.count(connectionHandler, maxAttempts, Protocol.Command.TOUCH, keys);
+  }
+
   @Override
   public String rename(final byte[] oldkey, final byte[] newkey) {
     return new JedisClusterCommand<String>(connectionHandler, maxAttempts) {
@@ -1583,7 +1706,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> sdiff(final byte[]... keys) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.sdiff(keys);
@@ -1605,7 +1728,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> sinter(final byte[]... keys) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.sinter(keys);
@@ -1657,7 +1780,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Set<byte[]> sunion(final byte[]... keys) {
-    return new JedisClusterCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Set<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public Set<byte[]> execute(Jedis connection) {
         return connection.sunion(keys);
@@ -1793,7 +1916,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long pfcount(final byte[]... keys) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.pfcount(keys);
@@ -1824,7 +1947,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Double geodist(final byte[] key, final byte[] member1, final byte[] member2) {
-    return new JedisClusterCommand<Double>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Double>(connectionHandler, maxAttempts) {
       @Override
       public Double execute(Jedis connection) {
         return connection.geodist(key, member1, member2);
@@ -1835,7 +1958,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public Double geodist(final byte[] key, final byte[] member1, final byte[] member2,
       final GeoUnit unit) {
-    return new JedisClusterCommand<Double>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Double>(connectionHandler, maxAttempts) {
       @Override
       public Double execute(Jedis connection) {
         return connection.geodist(key, member1, member2, unit);
@@ -1845,7 +1968,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public List<byte[]> geohash(final byte[] key, final byte[]... members) {
-    return new JedisClusterCommand<List<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<List<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public List<byte[]> execute(Jedis connection) {
         return connection.geohash(key, members);
@@ -1855,7 +1978,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public List<GeoCoordinate> geopos(final byte[] key, final byte[]... members) {
-    return new JedisClusterCommand<List<GeoCoordinate>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<List<GeoCoordinate>>(connectionHandler, maxAttempts) {
       @Override
       public List<GeoCoordinate> execute(Jedis connection) {
         return connection.geopos(key, members);
@@ -1877,7 +2000,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public List<GeoRadiusResponse> georadiusReadonly(final byte[] key, final double longitude,
       final double latitude, final double radius, final GeoUnit unit) {
-    return new JedisClusterCommand<List<GeoRadiusResponse>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<List<GeoRadiusResponse>>(connectionHandler, maxAttempts) {
       @Override
       public List<GeoRadiusResponse> execute(Jedis connection) {
         return connection.georadiusReadonly(key, longitude, latitude, radius, unit);
@@ -1899,7 +2022,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public List<GeoRadiusResponse> georadiusReadonly(final byte[] key, final double longitude,
       final double latitude, final double radius, final GeoUnit unit, final GeoRadiusParam param) {
-    return new JedisClusterCommand<List<GeoRadiusResponse>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<List<GeoRadiusResponse>>(connectionHandler, maxAttempts) {
       @Override
       public List<GeoRadiusResponse> execute(Jedis connection) {
         return connection.georadiusReadonly(key, longitude, latitude, radius, unit, param);
@@ -1921,7 +2044,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public List<GeoRadiusResponse> georadiusByMemberReadonly(final byte[] key, final byte[] member,
       final double radius, final GeoUnit unit) {
-    return new JedisClusterCommand<List<GeoRadiusResponse>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<List<GeoRadiusResponse>>(connectionHandler, maxAttempts) {
       @Override
       public List<GeoRadiusResponse> execute(Jedis connection) {
         return connection.georadiusByMemberReadonly(key, member, radius, unit);
@@ -1943,7 +2066,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
   @Override
   public List<GeoRadiusResponse> georadiusByMemberReadonly(final byte[] key, final byte[] member,
       final double radius, final GeoUnit unit, final GeoRadiusParam param) {
-    return new JedisClusterCommand<List<GeoRadiusResponse>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<List<GeoRadiusResponse>>(connectionHandler, maxAttempts) {
       @Override
       public List<GeoRadiusResponse> execute(Jedis connection) {
         return connection.georadiusByMemberReadonly(key, member, radius, unit, param);
@@ -2017,7 +2140,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public ScanResult<byte[]> sscan(final byte[] key, final byte[] cursor) {
-    return new JedisClusterCommand<ScanResult<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<ScanResult<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public ScanResult<byte[]> execute(Jedis connection) {
         return connection.sscan(key, cursor);
@@ -2027,7 +2150,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public ScanResult<byte[]> sscan(final byte[] key, final byte[] cursor, final ScanParams params) {
-    return new JedisClusterCommand<ScanResult<byte[]>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<ScanResult<byte[]>>(connectionHandler, maxAttempts) {
       @Override
       public ScanResult<byte[]> execute(Jedis connection) {
         return connection.sscan(key, cursor, params);
@@ -2037,7 +2160,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public ScanResult<Tuple> zscan(final byte[] key, final byte[] cursor) {
-    return new JedisClusterCommand<ScanResult<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<ScanResult<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public ScanResult<Tuple> execute(Jedis connection) {
         return connection.zscan(key, cursor);
@@ -2047,7 +2170,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public ScanResult<Tuple> zscan(final byte[] key, final byte[] cursor, final ScanParams params) {
-    return new JedisClusterCommand<ScanResult<Tuple>>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<ScanResult<Tuple>>(connectionHandler, maxAttempts) {
       @Override
       public ScanResult<Tuple> execute(Jedis connection) {
         return connection.zscan(key, cursor, params);
@@ -2067,7 +2190,7 @@ public class BinaryJedisCluster implements BinaryJedisClusterCommands,
 
   @Override
   public Long hstrlen(final byte[] key, final byte[] field) {
-    return new JedisClusterCommand<Long>(connectionHandler, maxAttempts) {
+    return new JedisClusterReadCommand<Long>(connectionHandler, maxAttempts) {
       @Override
       public Long execute(Jedis connection) {
         return connection.hstrlen(key, field);
@@ -0,0 +1,116 @@
+package redis.clients.jedis;
+
+import java.util.Collections;
+import java.util.List;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * A pipeline for bulk workloads which never lets too many commands wait for their reply.
+ * <p>
+ * When maxPendingCommands commands are waiting, the pipeline flushes and reads replies until only
+ * half of them are left waiting. When maxPendingBytes have been sent since replies were last read,
+ * it does the same until half of the waiting commands are left. So memory stays bounded, the
+ * server is never stuck writing replies nobody reads, and the socket keeps commands in flight while
+ * replies are read. Results are handed to a {@link PipelineCallback}; the Response objects returned
+ * by the commands can be ignored.
+ * <p>
+ * MULTI/EXEC is not supported.
+ */
+public class BoundedPipeline extends Pipeline {
+  public static final int DEFAULT_MAX_PENDING_COMMANDS = 1000;
+  public static final long DEFAULT_MAX_PENDING_BYTES = 1024 * 1024;
+
+  private final PipelineCallback callback;
+  private final int maxPendingCommands;
+  private final int lowWatermark;
+  private final long maxPendingBytes;
+
+  private long delivered = 0;
+  private long bytesAtLastDrain = 0;
+
+  public BoundedPipeline(final PipelineCallback callback) {
+    this(callback, DEFAULT_MAX_PENDING_COMMANDS, DEFAULT_MAX_PENDING_BYTES);
+  }
+
+  public BoundedPipeline(final PipelineCallback callback, final int maxPendingCommands,
+      final long maxPendingBytes) {
+    if (callback == null) {
+      throw new IllegalArgumentException("Callback must not be null");
+    }
+    if (maxPendingCommands < 1 || maxPendingBytes < 1) {
+      throw new IllegalArgumentException("Limits must be positive");
+    }
+    this.callback = callback;
+    this.maxPendingCommands = maxPendingCommands;
+    this.lowWatermark = maxPendingCommands / 2;
+    this.maxPendingBytes = maxPendingBytes;
+  }
+
+  @Override
+  public void setClient(Client client) {
+    super.setClient(client);
+    this.bytesAtLastDrain = client.getWrittenBytes();
+  }
+
+  @Override
+  protected <T> Response<T> getResponse(Builder<T> builder) {
+    Response<T> response = super.getResponse(builder);
+    final int pending = getPipelinedResponseLength();
+    if (pending >= maxPendingCommands) {
+      drain(lowWatermark);
+    } else if (client.getWrittenBytes() - bytesAtLastDrain >= maxPendingBytes) {
+      // large commands, their replies may be large as well
+      drain(Math.min(lowWatermark, pending / 2));
+    }
+    return response;
+  }
+
+  /**
+   * Reads the replies of all the commands sent so far and hands them to the callback.
+   */
+  @Override
+  public void sync() {
+    drain(0);
+  }
+
+  /**
+   * Same as {@link #sync()}: the results are handed to the callback only.
+   * @return an empty list
+   */
+  @Override
+  public List<Object> syncAndReturnAll() {
+    sync();
+    return Collections.emptyList();
+  }
+
+  @Override
+  public Response<String> multi() {
+    throw new JedisDataException("MULTI is not supported in a bounded pipeline");
+  }
+
+  /**
+   * @return the number of results handed to the callback so far
+   */
+  public long getDeliveredCount() {
+    return delivered;
+  }
+
+  private void drain(final int keep) {
+    if (getPipelinedResponseLength() <= keep) {
+      return;
+    }
+    client.flush();
+    bytesAtLastDrain = client.getWrittenBytes();
+    while (getPipelinedResponseLength() > keep) {
+      Response<?> response = generateResponse(client.getUnflushedOne());
+      Object result;
+      try {
+        result = response.get();
+      } catch (JedisDataException e) {
+        result = e;
+      }
+      callback.onResponse(delivered++, result);
+    }
+  }
+}
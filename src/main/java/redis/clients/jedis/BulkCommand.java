@@ -0,0 +1,57 @@
+package redis.clients.jedis;
+
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * A command for a {@link BulkLoader}: the command, its arguments, and the key by which it is routed
+ * to a node or shard.
+ */
+public class BulkCommand {
+  private final ProtocolCommand command;
+  private final byte[] key;
+  private final byte[][] args;
+
+  /**
+   * @param command the command to send
+   * @param key the key routing the command, not sent unless also part of the arguments
+   * @param args the arguments of the command
+   */
+  public BulkCommand(final ProtocolCommand command, final byte[] key, final byte[]... args) {
+    if (command == null || key == null) {
+      throw new IllegalArgumentException("Command and key must not be null");
+    }
+    this.command = command;
+    this.key = key;
+    this.args = args;
+  }
+
+  /**
+   * Creates a command routed by its first argument, e.g. {@code of(Command.SET, key, value)}.
+   */
+  public static BulkCommand of(final ProtocolCommand command, final byte[]... args) {
+    if (args.length == 0) {
+      throw new IllegalArgumentException("A keyed command needs at least one argument");
+    }
+    return new BulkCommand(command, args[0], args);
+  }
+
+  /**
+   * Creates a command routed by its first argument, e.g. {@code of(Command.SET, key, value)}.
+   */
+  public static BulkCommand of(final ProtocolCommand command, final String... args) {
+    return of(command, SafeEncoder.encodeMany(args));
+  }
+
+  public ProtocolCommand getCommand() {
+    return command;
+  }
+
+  public byte[] getKey() {
+    return key;
+  }
+
+  public byte[][] getArgs() {
+    return args;
+  }
+}
@@ -0,0 +1,113 @@
+package redis.clients.jedis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * Outcome of a {@link BulkLoader#load(java.util.Iterator)} run.
+ */
+public class BulkLoadReport {
+
+  /**
+   * A command Redis replied to with an error.
+   */
+  public static class Failure {
+    private final long index;
+    private final JedisDataException error;
+
+    Failure(final long index, final JedisDataException error) {
+      this.index = index;
+      this.error = error;
+    }
+
+    /**
+     * @return position of the command in the loaded commands, starting at 0
+     */
+    public long getIndex() {
+      return index;
+    }
+
+    public JedisDataException getError() {
+      return error;
+    }
+
+    @Override
+    public String toString() {
+      return "#" + index + ": " + error.getMessage();
+    }
+  }
+
+  private final int maxFailures;
+  private final List<Failure> failures = new ArrayList<Failure>();
+  private long commandCount;
+  private long errorCount;
+  private long writtenBytes;
+  private long elapsedNanos;
+
+  BulkLoadReport(final int maxFailures) {
+    this.maxFailures = maxFailures;
+  }
+
+  void sent() {
+    commandCount++;
+  }
+
+  void failed(final long index, final JedisDataException error) {
+    errorCount++;
+    if (failures.size() < maxFailures) {
+      failures.add(new Failure(index, error));
+    }
+  }
+
+  void written(final long bytes) {
+    writtenBytes += bytes;
+  }
+
+  void finished(final long elapsedNanos) {
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public long getCommandCount() {
+    return commandCount;
+  }
+
+  /**
+   * @return the number of commands Redis replied to with an error
+   */
+  public long getErrorCount() {
+    return errorCount;
+  }
+
+  /**
+   * @return the first failed commands, at most maxFailures of them
+   */
+  public List<Failure> getFailures() {
+    return Collections.unmodifiableList(failures);
+  }
+
+  public long getWrittenBytes() {
+    return writtenBytes;
+  }
+
+  public long getElapsedMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+  }
+
+  public double getCommandsPerSecond() {
+    return elapsedNanos == 0 ? 0 : commandCount * 1e9 / elapsedNanos;
+  }
+
+  public double getBytesPerSecond() {
+    return elapsedNanos == 0 ? 0 : writtenBytes * 1e9 / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return commandCount + " commands, " + errorCount + " errors, " + writtenBytes + " bytes in "
+        + getElapsedMillis() + " ms (" + Math.round(getCommandsPerSecond()) + " commands/s)";
+  }
+}
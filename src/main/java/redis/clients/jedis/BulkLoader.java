@@ -0,0 +1,382 @@
+package redis.clients.jedis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.exceptions.JedisAskDataException;
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+/**
+ * Streams large amounts of commands to Redis, like redis-cli --pipe.
+ * <p>
+ * Commands are routed by their key to a node through a {@link BulkRouter} and written straight to
+ * the output buffer of one of connectionsPerNode connections to that node, chosen by the key so
+ * that the commands of a key keep their order. No Response objects are created. Each connection
+ * has at most windowSize commands waiting for their reply; when the window is full the replies of
+ * half of them are read. Commands redirected with MOVED or ASK are sent again to the node the
+ * router names for the redirect, up to {@link #MAX_REDIRECTS} times, possibly after later commands
+ * of the same key. Other error replies are counted and the first maxFailures of them are kept in
+ * the {@link BulkLoadReport}. A connection failure aborts the load.
+ * <p>
+ * All connections are written and read on the calling thread. The nodes work in parallel only in
+ * that every connection is flushed before the remaining replies are read.
+ */
+public class BulkLoader {
+  public static final int DEFAULT_CONNECTIONS_PER_NODE = 1;
+  public static final int DEFAULT_WINDOW_SIZE = 1000;
+  public static final int DEFAULT_MAX_FAILURES = 100;
+  public static final int MAX_REDIRECTS = 5;
+
+  private static final Logger log = LoggerFactory.getLogger(BulkLoader.class);
+
+  private final BulkRouter router;
+  private int connectionsPerNode = DEFAULT_CONNECTIONS_PER_NODE;
+  private int windowSize = DEFAULT_WINDOW_SIZE;
+  private int maxFailures = DEFAULT_MAX_FAILURES;
+  private long progressInterval = 0;
+
+  public BulkLoader(final BulkRouter router) {
+    if (router == null) {
+      throw new IllegalArgumentException("Router must not be null");
+    }
+    this.router = router;
+  }
+
+  public int getConnectionsPerNode() {
+    return connectionsPerNode;
+  }
+
+  public void setConnectionsPerNode(final int connectionsPerNode) {
+    if (connectionsPerNode < 1) {
+      throw new IllegalArgumentException("At least one connection per node is required");
+    }
+    this.connectionsPerNode = connectionsPerNode;
+  }
+
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  public void setWindowSize(final int windowSize) {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("Window size must be positive");
+    }
+    this.windowSize = windowSize;
+  }
+
+  public int getMaxFailures() {
+    return maxFailures;
+  }
+
+  public void setMaxFailures(final int maxFailures) {
+    this.maxFailures = maxFailures;
+  }
+
+  public long getProgressInterval() {
+    return progressInterval;
+  }
+
+  /**
+   * @param progressInterval number of commands after which the throughput so far is logged, 0 to
+   *          disable
+   */
+  public void setProgressInterval(final long progressInterval) {
+    this.progressInterval = progressInterval;
+  }
+
+  public BulkLoadReport load(final Iterable<BulkCommand> commands) {
+    return load(commands.iterator());
+  }
+
+  /**
+   * Sends all the commands and reads all their replies.
+   * @throws JedisException if a node could not be reached, the commands sent so far may or may not
+   *           have been applied
+   */
+  public BulkLoadReport load(final Iterator<BulkCommand> commands) {
+    final BulkLoadReport report = new BulkLoadReport(maxFailures);
+    final Load load = new Load(report);
+    final long begin = System.nanoTime();
+    boolean completed = false;
+    try {
+      long index = 0;
+      while (commands.hasNext()) {
+        final BulkCommand command = commands.next();
+        load.send(router.route(command.getKey()), command, index++, 0, false);
+        if (progressInterval > 0 && index % progressInterval == 0) {
+          log.info("Bulk load sent {} commands ({} commands/s).", index,
+            Math.round(index * 1e9 / (System.nanoTime() - begin)));
+        }
+      }
+      load.drain();
+      completed = true;
+    } finally {
+      load.close(completed);
+      report.finished(System.nanoTime() - begin);
+    }
+    return report;
+  }
+
+  /**
+   * Routes all commands to the node of a pool.
+   */
+  public static BulkRouter nodeRouter(final JedisPool pool) {
+    return new BulkRouter() {
+      @Override
+      public Object route(byte[] key) {
+        return pool;
+      }
+
+      @Override
+      public Jedis connect(Object node) {
+        return pool.getResource();
+      }
+
+      @Override
+      public Object redirect(JedisRedirectionException redirect) {
+        return null;
+      }
+    };
+  }
+
+  /**
+   * Routes commands to the master owning the slot of their key, using the slot cache of the
+   * cluster. Connections are taken from the node pools of the cluster. MOVED redirects update the
+   * slot cache, so that the following commands of the slot go to its new master.
+   */
+  public static BulkRouter clusterRouter(final BinaryJedisCluster cluster) {
+    final JedisClusterConnectionHandler connectionHandler = cluster.connectionHandler;
+    return new BulkRouter() {
+      @Override
+      public Object route(byte[] key) {
+        final int slot = JedisClusterCRC16.getSlot(key);
+        JedisPool pool = connectionHandler.cache.getSlotPool(slot);
+        if (pool == null) {
+          connectionHandler.renewSlotCache();
+          pool = connectionHandler.cache.getSlotPool(slot);
+          if (pool == null) {
+            throw new JedisClusterOperationException("No node serves slot " + slot);
+          }
+        }
+        return pool;
+      }
+
+      @Override
+      public Jedis connect(Object node) {
+        return ((JedisPool) node).getResource();
+      }
+
+      @Override
+      public Object redirect(JedisRedirectionException redirect) {
+        if (redirect instanceof JedisMovedDataException) {
+          connectionHandler.applyMovedRedirect((JedisMovedDataException) redirect);
+        }
+        return connectionHandler.cache.setupNodeIfNotExist(redirect.getTargetNode());
+      }
+    };
+  }
+
+  /**
+   * Routes commands to the shard of their key. Connections are opened for the load and closed
+   * afterwards.
+   */
+  public static BulkRouter shardedRouter(final BinaryShardedJedis sharded) {
+    return new BulkRouter() {
+      @Override
+      public Object route(byte[] key) {
+        return sharded.getShardInfo(key);
+      }
+
+      @Override
+      public Jedis connect(Object node) {
+        return new Jedis((JedisShardInfo) node);
+      }
+
+      @Override
+      public Object redirect(JedisRedirectionException redirect) {
+        return null;
+      }
+    };
+  }
+
+  /**
+   * The connections of one load, by node.
+   */
+  private final class Load {
+    private final BulkLoadReport report;
+    private final Map<Object, Lane[]> nodes = new HashMap<Object, Lane[]>();
+    private final List<Lane> lanes = new ArrayList<Lane>();
+
+    private Load(final BulkLoadReport report) {
+      this.report = report;
+    }
+
+    /**
+     * @param redirects the number of times the command was redirected so far
+     * @param asking true to send ASKING first, for a command redirected with ASK
+     */
+    private void send(final Object node, final BulkCommand command, final long index,
+        final int redirects, final boolean asking) {
+      Lane[] nodeLanes = nodes.get(node);
+      if (nodeLanes == null) {
+        nodeLanes = new Lane[connectionsPerNode];
+        nodes.put(node, nodeLanes);
+      }
+      final int laneIndex = connectionsPerNode == 1 ? 0
+          : (Arrays.hashCode(command.getKey()) & Integer.MAX_VALUE) % connectionsPerNode;
+      Lane lane = nodeLanes[laneIndex];
+      if (lane == null) {
+        lane = new Lane(this, router.connect(node));
+        nodeLanes[laneIndex] = lane;
+        lanes.add(lane);
+      }
+
+      if (asking) {
+        lane.send(null, -1, 0);
+      }
+      lane.send(command, index, redirects);
+      if (redirects == 0) {
+        report.sent();
+      }
+    }
+
+    /**
+     * Reads all the replies, redirected commands may add connections and commands meanwhile.
+     */
+    private void drain() {
+      boolean idle = false;
+      while (!idle) {
+        idle = true;
+        for (int i = 0; i < lanes.size(); i++) {
+          lanes.get(i).flush();
+        }
+        for (int i = 0; i < lanes.size(); i++) {
+          final Lane lane = lanes.get(i);
+          if (lane.pending > 0) {
+            idle = false;
+            lane.drain(0);
+          }
+        }
+      }
+    }
+
+    private void close(final boolean completed) {
+      for (Lane lane : lanes) {
+        lane.close(report, completed);
+      }
+    }
+  }
+
+  /**
+   * A connection with the commands waiting for their reply, kept to send them again if they are
+   * redirected.
+   */
+  private final class Lane {
+    private final Load load;
+    private final Jedis jedis;
+    private final Client client;
+    private final BulkCommand[] pendingCommands = new BulkCommand[windowSize];
+    private final long[] pendingIndexes = new long[windowSize];
+    private final int[] pendingRedirects = new int[windowSize];
+    private final long initialWrittenBytes;
+    private int head = 0;
+    private int pending = 0;
+    // the last pending commands, still in the output buffer
+    private int unflushed = 0;
+
+    private Lane(final Load load, final Jedis jedis) {
+      this.load = load;
+      this.jedis = jedis;
+      this.client = jedis.getClient();
+      this.initialWrittenBytes = client.getWrittenBytes();
+    }
+
+    /**
+     * @param command the command, null for an ASKING whose reply is dropped
+     */
+    private void send(final BulkCommand command, final long index, final int redirects) {
+      if (pending == windowSize) {
+        drain(windowSize / 2);
+      }
+      if (command == null) {
+        client.asking();
+      } else {
+        client.sendCommand(command.getCommand(), command.getArgs());
+      }
+      final int tail = (head + pending) % windowSize;
+      pendingCommands[tail] = command;
+      pendingIndexes[tail] = index;
+      pendingRedirects[tail] = redirects;
+      pending++;
+      unflushed++;
+    }
+
+    private void flush() {
+      if (unflushed > 0) {
+        client.flush();
+        unflushed = 0;
+      }
+    }
+
+    /**
+     * Reads replies until at most keep commands are pending. A redirected command may be sent again
+     * on this very lane while it drains, from a drain of another lane called meanwhile, so the
+     * buffer is flushed again before reading the reply of a command which was not flushed yet.
+     */
+    private void drain(final int keep) {
+      while (pending > keep) {
+        if (unflushed == pending) {
+          flush();
+        }
+        final Object reply = client.getUnflushedOne();
+        final BulkCommand command = pendingCommands[head];
+        final long index = pendingIndexes[head];
+        final int redirects = pendingRedirects[head];
+        pendingCommands[head] = null;
+        head = (head + 1) % windowSize;
+        pending--;
+        if (command == null) {
+          continue;
+        }
+        if (reply instanceof JedisRedirectionException && redirects < MAX_REDIRECTS) {
+          final JedisRedirectionException redirect = (JedisRedirectionException) reply;
+          final Object target = router.redirect(redirect);
+          if (target != null) {
+            load.send(target, command, index, redirects + 1,
+              redirect instanceof JedisAskDataException);
+            continue;
+          }
+        }
+        if (reply instanceof JedisDataException) {
+          load.report.failed(index, (JedisDataException) reply);
+        }
+      }
+    }
+
+    private void close(final BulkLoadReport report, final boolean completed) {
+      report.written(client.getWrittenBytes() - initialWrittenBytes);
+      try {
+        if (!completed && pending > 0) {
+          // unread replies, the connection must not be reused
+          client.disconnect();
+        }
+      } catch (JedisException e) {
+        log.debug("Could not disconnect an aborted bulk load connection.", e);
+      } finally {
+        jedis.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package redis.clients.jedis;
+
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+
+/**
+ * Tells a {@link BulkLoader} where commands go, see {@link BulkLoader#nodeRouter(JedisPool)},
+ * {@link BulkLoader#clusterRouter(BinaryJedisCluster)} and
+ * {@link BulkLoader#shardedRouter(BinaryShardedJedis)}.
+ */
+public interface BulkRouter {
+
+  /**
+   * @return the node commands with the given routing key are sent to, compared with equals
+   */
+  Object route(byte[] key);
+
+  /**
+   * Opens a connection to a node returned by {@link #route(byte[])}. The loader closes it when
+   * done, so pooled connections go back to their pool.
+   */
+  Jedis connect(Object node);
+
+  /**
+   * Tells where a command redirected with MOVED or ASK goes.
+   * @return the node to send the command to again, or null to count the redirect as an error
+   */
+  Object redirect(JedisRedirectionException redirect);
+}
@@ -0,0 +1,107 @@
+package redis.clients.jedis;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the successful and failed exchanges with the nodes of a cluster, by pool.
+ * <p>
+ * A node is <em>responsive</em> if it answered a command within the window, in which case a
+ * connection error on it is taken as transient and does not force a renewal of the slot cache. A
+ * node is <em>healthy</em> if no connection to it failed within the window; nodes which are not are
+ * avoided whenever another node can serve a command, e.g. a replica for reads or any node for
+ * keyless commands.
+ */
+public class ClusterNodeHealth {
+  public static final long DEFAULT_WINDOW_MILLIS = 2000;
+
+  private final ConcurrentMap<JedisPoolAbstract, NodeState> states = new ConcurrentHashMap<JedisPoolAbstract, NodeState>();
+  private volatile long windowMillis = DEFAULT_WINDOW_MILLIS;
+
+  public void recordSuccess(final JedisPoolAbstract pool) {
+    final NodeState state = stateOf(pool);
+    final long now = System.currentTimeMillis();
+    // commands of the same millisecond do not write the shared state again
+    if (state.lastSuccess != now) {
+      state.lastSuccess = now;
+    }
+    if (state.consecutiveFailures.get() != 0) {
+      state.consecutiveFailures.set(0);
+    }
+  }
+
+  public void recordFailure(final JedisPoolAbstract pool) {
+    final NodeState state = stateOf(pool);
+    state.lastFailure = System.currentTimeMillis();
+    state.consecutiveFailures.incrementAndGet();
+  }
+
+  /**
+   * @return true if the node answered a command within the window
+   */
+  public boolean isResponsive(final JedisPoolAbstract pool) {
+    final NodeState state = states.get(pool);
+    return state != null && System.currentTimeMillis() - state.lastSuccess < windowMillis;
+  }
+
+  /**
+   * @return true unless a connection to the node failed within the window
+   */
+  public boolean isHealthy(final JedisPoolAbstract pool) {
+    final NodeState state = states.get(pool);
+    return state == null || System.currentTimeMillis() - state.lastFailure >= windowMillis;
+  }
+
+  /**
+   * @return the number of failures since the node last answered a command
+   */
+  public int getConsecutiveFailures(final JedisPoolAbstract pool) {
+    final NodeState state = states.get(pool);
+    return state == null ? 0 : state.consecutiveFailures.get();
+  }
+
+  public long getWindowMillis() {
+    return windowMillis;
+  }
+
+  public void setWindowMillis(final long windowMillis) {
+    if (windowMillis <= 0) {
+      throw new IllegalArgumentException("Window must be positive");
+    }
+    this.windowMillis = windowMillis;
+  }
+
+  /**
+   * Forgets a pool dropped from the cluster.
+   */
+  public void remove(final JedisPoolAbstract pool) {
+    states.remove(pool);
+  }
+
+  public void clear() {
+    states.clear();
+  }
+
+  private NodeState stateOf(final JedisPoolAbstract pool) {
+    NodeState state = states.get(pool);
+    if (state == null) {
+      if (pool.isClosed()) {
+        // removed, it must not be tracked again by a command still using it
+        return new NodeState();
+      }
+      NodeState created = new NodeState();
+      state = states.putIfAbsent(pool, created);
+      if (state == null) {
+        state = created;
+      }
+    }
+    return state;
+  }
+
+  private static class NodeState {
+    private volatile long lastSuccess = Long.MIN_VALUE / 2;
+    private volatile long lastFailure = Long.MIN_VALUE / 2;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  }
+}
@@ -0,0 +1,121 @@
+package redis.clients.jedis;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides how the commands of a JedisCluster are retried after errors.
+ * <p>
+ * Redirects are followed at once. Connection errors, TRYAGAIN and CLUSTERDOWN are retried after a
+ * random backoff up to a bound which doubles with every error of the command, from
+ * baseBackoffMillis up to maxBackoffMillis. Each of these retries takes a token from a budget shared
+ * by all commands using the policy, refilled at a steady rate, so that an outage does not multiply
+ * the load on the cluster by maxAttempts: once the budget is spent, commands fail at their first
+ * error. A command also gives up once maxTotalRetryMillis have passed since it started, if set.
+ */
+public class ClusterRetryPolicy {
+  public static final long DEFAULT_BASE_BACKOFF_MILLIS = 5;
+  public static final long DEFAULT_MAX_BACKOFF_MILLIS = 500;
+  public static final int DEFAULT_BUDGET = 100;
+  public static final double DEFAULT_BUDGET_REFILL_PER_SECOND = 10;
+
+  private final long baseBackoffMillis;
+  private final long maxBackoffMillis;
+  private final long maxTotalRetryMillis;
+  private final int budget;
+  private final double refillPerNano;
+
+  // guarded by this
+  private double tokens;
+  private long lastRefill;
+
+  private final AtomicLong retryCount = new AtomicLong();
+  private final AtomicLong rejectedCount = new AtomicLong();
+
+  public ClusterRetryPolicy() {
+    this(DEFAULT_BASE_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS, DEFAULT_BUDGET,
+        DEFAULT_BUDGET_REFILL_PER_SECOND, 0);
+  }
+
+  /**
+   * @param budget the most retries after errors in a burst, 0 to never retry after errors
+   * @param budgetRefillPerSecond the rate at which retries are given back to the budget
+   * @param maxTotalRetryMillis the time after which a command stops retrying, 0 for no limit but
+   *          maxAttempts
+   */
+  public ClusterRetryPolicy(final long baseBackoffMillis, final long maxBackoffMillis,
+      final int budget, final double budgetRefillPerSecond, final long maxTotalRetryMillis) {
+    if (baseBackoffMillis < 0 || maxBackoffMillis < baseBackoffMillis) {
+      throw new IllegalArgumentException("Invalid backoff, expected 0 <= base <= max");
+    }
+    if (budget < 0 || budgetRefillPerSecond < 0) {
+      throw new IllegalArgumentException("Retry budget must not be negative");
+    }
+    if (maxTotalRetryMillis < 0) {
+      throw new IllegalArgumentException("Maximum retry time must not be negative");
+    }
+    this.baseBackoffMillis = baseBackoffMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+    this.maxTotalRetryMillis = maxTotalRetryMillis;
+    this.budget = budget;
+    this.refillPerNano = budgetRefillPerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.tokens = budget;
+    this.lastRefill = System.nanoTime();
+  }
+
+  /**
+   * Takes a retry from the budget.
+   * @return false if the budget is spent, the command must not be retried
+   */
+  public boolean tryAcquireRetry() {
+    synchronized (this) {
+      final long now = System.nanoTime();
+      tokens = Math.min(budget, tokens + (now - lastRefill) * refillPerNano);
+      lastRefill = now;
+      if (tokens >= 1) {
+        tokens -= 1;
+        retryCount.incrementAndGet();
+        return true;
+      }
+    }
+    rejectedCount.incrementAndGet();
+    return false;
+  }
+
+  /**
+   * @param errors the number of errors of the command so far, from 1
+   * @return a random time to wait before the next attempt
+   */
+  public long getBackoffMillis(final int errors) {
+    if (baseBackoffMillis == 0) {
+      return 0;
+    }
+    long bound = baseBackoffMillis << Math.min(errors - 1, 30);
+    if (bound <= 0 || bound > maxBackoffMillis) {
+      bound = maxBackoffMillis;
+    }
+    return ThreadLocalRandom.current().nextLong(bound + 1);
+  }
+
+  /**
+   * @return the time after which a command stops retrying, 0 for no limit
+   */
+  public long getMaxTotalRetryMillis() {
+    return maxTotalRetryMillis;
+  }
+
+  /**
+   * @return the number of retries after errors granted so far
+   */
+  public long getRetryCount() {
+    return retryCount.get();
+  }
+
+  /**
+   * @return the number of retries after errors refused because the budget was spent
+   */
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+}
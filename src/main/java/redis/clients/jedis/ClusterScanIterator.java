@@ -0,0 +1,256 @@
+package redis.clients.jedis;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import redis.clients.jedis.exceptions.JedisClusterMaxAttemptsException;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.DaemonThreadFactory;
+
+/**
+ * Iterates the keys of a whole cluster, see {@link JedisCluster#scanAll(ScanParams)}.
+ * <p>
+ * Every master is scanned by its own task with its own SCAN cursor, all masters in parallel. The
+ * tasks hand pages of keys to the iterator through a queue holding at most prefetchPages pages, so
+ * they pause while the consumer is behind. When a master cannot be reached the slot cache is
+ * renewed and the scan starts over on the node now serving the slots of that master, usually its
+ * promoted replica, since a cursor is only meaningful to the node which returned it. Like SCAN
+ * itself the iteration may return a key more than once, a failover returning the keys scanned
+ * before it again, and keys added or removed during the scan may or may not be returned.
+ * <p>
+ * The iterator must be used by a single thread and closed if it is not iterated to the end.
+ */
+public class ClusterScanIterator implements Iterator<String>, Closeable {
+  public static final int DEFAULT_PREFETCH_PAGES = 16;
+  public static final long DEFAULT_FAILOVER_RETRY_MILLIS = 500;
+
+  private static final ExecutorService DEFAULT_EXECUTOR = Executors
+      .newCachedThreadPool(new DaemonThreadFactory("jedis-cluster-scan"));
+  private static final Object DONE = new Object();
+  // how often blocked tasks check whether the iterator was closed
+  private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+  private final JedisClusterConnectionHandler connectionHandler;
+  private final ScanParams params;
+  private final int maxAttempts;
+  private final long failoverRetryMillis;
+  private final BlockingQueue<Object> pages;
+  private final Set<JedisPool> scannedPools = Collections
+      .newSetFromMap(new IdentityHashMap<JedisPool, Boolean>());
+  private final int taskCount;
+
+  private volatile boolean closed = false;
+  private int finishedTasks = 0;
+  private List<String> page = Collections.emptyList();
+  private int position = 0;
+
+  public ClusterScanIterator(final JedisClusterConnectionHandler connectionHandler,
+      final ScanParams params, final int maxAttempts) {
+    this(connectionHandler, params, maxAttempts, DEFAULT_PREFETCH_PAGES,
+        DEFAULT_FAILOVER_RETRY_MILLIS, DEFAULT_EXECUTOR);
+  }
+
+  /**
+   * @param params MATCH and COUNT of the SCAN commands, may be null
+   * @param maxAttempts number of attempts to reach the node serving the slots of a master
+   * @param prefetchPages number of pages of keys read ahead of the consumer
+   * @param failoverRetryMillis pause between attempts, leaving time for a replica to take over
+   * @param executor runs one task per master for the whole scan
+   */
+  public ClusterScanIterator(final JedisClusterConnectionHandler connectionHandler,
+      final ScanParams params, final int maxAttempts, final int prefetchPages,
+      final long failoverRetryMillis, final Executor executor) {
+    if (maxAttempts < 1 || prefetchPages < 1) {
+      throw new IllegalArgumentException("Attempts and prefetched pages must be positive");
+    }
+    this.connectionHandler = connectionHandler;
+    this.params = params == null ? new ScanParams() : params;
+    this.maxAttempts = maxAttempts;
+    this.failoverRetryMillis = failoverRetryMillis;
+    this.pages = new ArrayBlockingQueue<Object>(prefetchPages);
+
+    // one task per master, which keeps the first slot it serves to find its successor
+    final Map<JedisPool, Integer> masters = new IdentityHashMap<JedisPool, Integer>();
+    final JedisClusterInfoCache cache = connectionHandler.cache;
+    for (int slot = 0; slot < BinaryJedisCluster.HASHSLOTS; slot++) {
+      JedisPool pool = cache.getSlotPool(slot);
+      if (pool != null && !masters.containsKey(pool)) {
+        masters.put(pool, slot);
+      }
+    }
+    this.taskCount = masters.size();
+    final List<NodeScan> tasks = new ArrayList<NodeScan>(taskCount);
+    synchronized (scannedPools) {
+      for (Map.Entry<JedisPool, Integer> master : masters.entrySet()) {
+        scannedPools.add(master.getKey());
+        tasks.add(new NodeScan(master.getKey(), master.getValue()));
+      }
+    }
+    for (NodeScan task : tasks) {
+      executor.execute(task);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (position == page.size()) {
+      if (finishedTasks == taskCount) {
+        return false;
+      }
+      if (closed) {
+        throw new JedisException("The cluster scan was closed");
+      }
+      final Object item;
+      try {
+        item = pages.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new JedisException("Interrupted while waiting for scanned keys", e);
+      }
+      if (item == DONE) {
+        finishedTasks++;
+      } else if (item instanceof JedisException) {
+        close();
+        throw (JedisException) item;
+      } else {
+        @SuppressWarnings("unchecked")
+        List<String> keys = (List<String>) item;
+        page = keys;
+        position = 0;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return page.get(position++);
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Stops the scan tasks. Keys already read ahead are dropped.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    pages.clear();
+  }
+
+  /**
+   * Hands an item to the consumer, waiting for room in the queue.
+   * @return false if the iterator was closed meanwhile
+   */
+  private boolean publish(final Object item) throws InterruptedException {
+    while (!closed) {
+      if (pages.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Scans the keys of one master.
+   */
+  private class NodeScan implements Runnable {
+    private final int slot;
+    private JedisPool pool;
+
+    private NodeScan(final JedisPool pool, final int slot) {
+      this.pool = pool;
+      this.slot = slot;
+    }
+
+    @Override
+    public void run() {
+      try {
+        try {
+          scan();
+          publish(DONE);
+        } catch (JedisException e) {
+          publish(e);
+        } catch (RuntimeException e) {
+          publish(new JedisException("Cluster scan failed", e));
+        }
+      } catch (InterruptedException e) {
+        // the executor is shutting down, the consumer gets no more keys
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private void scan() throws InterruptedException {
+      String cursor = ScanParams.SCAN_POINTER_START;
+      int failures = 0;
+      while (!closed) {
+        final ScanResult<String> result;
+        try (Jedis jedis = pool.getResource()) {
+          result = jedis.scan(cursor, params);
+        } catch (JedisConnectionException e) {
+          if (++failures >= maxAttempts) {
+            throw new JedisClusterMaxAttemptsException("No more cluster attempts left.", e);
+          }
+          final JedisPool previous = pool;
+          if (!failover()) {
+            // the slots went to a node scanned by another task
+            return;
+          }
+          if (pool != previous) {
+            // a cursor is a position in the hash table of one node, meaningless on another
+            cursor = ScanParams.SCAN_POINTER_START;
+          }
+          continue;
+        }
+        failures = 0;
+        if (!result.getResult().isEmpty() && !publish(result.getResult())) {
+          return;
+        }
+        cursor = result.getCursor();
+        if (cursor.equals(ScanParams.SCAN_POINTER_START)) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Looks for the node now serving the slots of the master.
+     * @return false if another task scans that node already
+     */
+    private boolean failover() throws InterruptedException {
+      Thread.sleep(failoverRetryMillis);
+      connectionHandler.renewSlotCache();
+      final JedisPool successor = connectionHandler.cache.getSlotPool(slot);
+      if (successor == null || successor == pool) {
+        return true;
+      }
+      synchronized (scannedPools) {
+        if (!scannedPools.add(successor)) {
+          return false;
+        }
+      }
+      pool = successor;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,283 @@
+package redis.clients.jedis;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.DaemonThreadFactory;
+
+/**
+ * Keeps the slot cache of a cluster, and optionally the health of its masters, up to date.
+ * <p>
+ * Refreshes run one at a time. A thread asking for a refresh while another one is running waits for
+ * it instead of reading CLUSTER SLOTS again. Commands redirected with MOVED only request a refresh,
+ * which runs in the background: all requests made before it starts are served by that single
+ * refresh, and refreshes on request are at least {@link #getMinRefreshIntervalMillis()} apart.
+ * Optionally, the slot cache is also refreshed periodically, and the masters are probed with PING
+ * so that the {@link ClusterNodeHealth} of nodes without traffic stays current. The background
+ * thread is only started once needed.
+ */
+public class ClusterTopologyManager implements Closeable {
+  public static final long DEFAULT_MIN_REFRESH_INTERVAL_MILLIS = 1000;
+
+  private static final Logger log = LoggerFactory.getLogger(ClusterTopologyManager.class);
+
+  private final JedisClusterInfoCache cache;
+  private final ClusterNodeHealth nodeHealth;
+
+  private final ReentrantLock refreshLock = new ReentrantLock();
+  // sequence number of the last refresh started and of the last one completed, guarded by refreshLock
+  private volatile long startedRefreshes;
+  private long completedRefresh;
+  private volatile long lastRefreshNanos;
+
+  private final AtomicBoolean requested = new AtomicBoolean();
+  private final AtomicLong refreshCount = new AtomicLong();
+  private volatile long minRefreshIntervalMillis = DEFAULT_MIN_REFRESH_INTERVAL_MILLIS;
+  private long refreshPeriodMillis;
+  private ScheduledFuture<?> periodicRefresh;
+  private long probePeriodMillis;
+  private ScheduledFuture<?> periodicProbe;
+  private ScheduledExecutorService executor;
+  private boolean closed;
+
+  public ClusterTopologyManager(final JedisClusterInfoCache cache,
+      final ClusterNodeHealth nodeHealth) {
+    this.cache = cache;
+    this.nodeHealth = nodeHealth;
+    // the slot cache was just discovered
+    this.lastRefreshNanos = System.nanoTime();
+  }
+
+  /**
+   * Refreshes the slot cache on the calling thread, unless a refresh which started after this call
+   * completes meanwhile.
+   */
+  public void refresh() {
+    final long seen = startedRefreshes;
+    refreshLock.lock();
+    try {
+      if (completedRefresh > seen) {
+        // another thread refreshed while this one was waiting
+        return;
+      }
+      final long sequence = ++startedRefreshes;
+      lastRefreshNanos = System.nanoTime();
+      try {
+        cache.renewClusterSlots(null);
+        refreshCount.incrementAndGet();
+      } finally {
+        completedRefresh = sequence;
+      }
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /**
+   * Asks for a refresh of the slot cache in the background and returns at once. Requests made
+   * while one is pending are merged into it; it starts no sooner than the minimum refresh interval
+   * after the previous refresh.
+   */
+  public void requestRefresh() {
+    if (!requested.compareAndSet(false, true)) {
+      return;
+    }
+    final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastRefreshNanos);
+    final long delay = Math.max(0, minRefreshIntervalMillis - elapsed);
+    try {
+      executor().schedule(new Runnable() {
+        @Override
+        public void run() {
+          // requests from now on may need a later view of the cluster than this refresh gets
+          requested.set(false);
+          refreshQuietly();
+        }
+      }, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // closed
+      requested.set(false);
+    }
+  }
+
+  public long getMinRefreshIntervalMillis() {
+    return minRefreshIntervalMillis;
+  }
+
+  /**
+   * Sets the least time between two refreshes made on request, 1 second by default.
+   */
+  public void setMinRefreshIntervalMillis(final long minRefreshIntervalMillis) {
+    if (minRefreshIntervalMillis < 0) {
+      throw new IllegalArgumentException("Minimum refresh interval must not be negative");
+    }
+    this.minRefreshIntervalMillis = minRefreshIntervalMillis;
+  }
+
+  public synchronized long getRefreshPeriodMillis() {
+    return refreshPeriodMillis;
+  }
+
+  /**
+   * Sets the period of the background refresh, 0 (the default) to only refresh on request.
+   */
+  public synchronized void setRefreshPeriodMillis(final long refreshPeriodMillis) {
+    if (refreshPeriodMillis < 0) {
+      throw new IllegalArgumentException("Refresh period must not be negative");
+    }
+    if (closed) {
+      throw new IllegalStateException("Topology manager is closed");
+    }
+    if (periodicRefresh != null) {
+      periodicRefresh.cancel(false);
+      periodicRefresh = null;
+    }
+    this.refreshPeriodMillis = refreshPeriodMillis;
+    if (refreshPeriodMillis > 0) {
+      periodicRefresh = executor().scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          refreshQuietly();
+        }
+      }, refreshPeriodMillis, refreshPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public synchronized long getProbePeriodMillis() {
+    return probePeriodMillis;
+  }
+
+  /**
+   * Sets the period at which masters are probed in the background, 0 (the default) to rely on the
+   * outcome of commands only.
+   */
+  public synchronized void setProbePeriodMillis(final long probePeriodMillis) {
+    if (probePeriodMillis < 0) {
+      throw new IllegalArgumentException("Probe period must not be negative");
+    }
+    if (closed) {
+      throw new IllegalStateException("Topology manager is closed");
+    }
+    if (periodicProbe != null) {
+      periodicProbe.cancel(false);
+      periodicProbe = null;
+    }
+    this.probePeriodMillis = probePeriodMillis;
+    if (probePeriodMillis > 0) {
+      periodicProbe = executor().scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            probeNodes();
+          } catch (RuntimeException e) {
+            log.warn("Probe of the cluster nodes failed.", e);
+          }
+        }
+      }, 0, probePeriodMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Sends a PING to every master which did not answer a command lately, all of them before reading
+   * any reply, and records the outcome in the node health.
+   */
+  public void probeNodes() {
+    final List<Probe> probes = new ArrayList<Probe>();
+    for (JedisPool pool : cache.getMasterPools()) {
+      if (nodeHealth.isResponsive(pool) && nodeHealth.isHealthy(pool)) {
+        // real traffic keeps it current
+        continue;
+      }
+      Jedis jedis = null;
+      try {
+        jedis = pool.getResource();
+        final Client client = jedis.getClient();
+        client.ping();
+        client.flush();
+        probes.add(new Probe(pool, jedis));
+      } catch (JedisConnectionException e) {
+        nodeHealth.recordFailure(pool);
+        if (jedis != null) {
+          jedis.close();
+        }
+      } catch (JedisException e) {
+        // the pool is exhausted, its node is busy rather than down
+        if (jedis != null) {
+          jedis.close();
+        }
+      }
+    }
+
+    for (Probe probe : probes) {
+      try {
+        if ("PONG".equals(probe.jedis.getClient().getStatusCodeReply())) {
+          nodeHealth.recordSuccess(probe.pool);
+        }
+      } catch (JedisConnectionException e) {
+        nodeHealth.recordFailure(probe.pool);
+      } catch (JedisException e) {
+        // answered, though not with PONG
+        nodeHealth.recordSuccess(probe.pool);
+      } finally {
+        probe.jedis.close();
+      }
+    }
+  }
+
+  /**
+   * @return the number of refreshes of the slot cache made so far
+   */
+  public long getRefreshCount() {
+    return refreshCount.get();
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private synchronized ScheduledExecutorService executor() {
+    if (closed) {
+      throw new RejectedExecutionException("Topology manager is closed");
+    }
+    if (executor == null) {
+      executor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory(
+          "jedis-topology-refresh"));
+    }
+    return executor;
+  }
+
+  private void refreshQuietly() {
+    try {
+      refresh();
+    } catch (JedisException e) {
+      log.warn("Refresh of the cluster slot cache failed.", e);
+    }
+  }
+
+  private static class Probe {
+    private final JedisPool pool;
+    private final Jedis jedis;
+
+    private Probe(final JedisPool pool, final Jedis jedis) {
+      this.pool = pool;
+      this.jedis = jedis;
+    }
+  }
+}
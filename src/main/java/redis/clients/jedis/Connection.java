@@ -17,6 +17,7 @@ import redis.clients.jedis.commands.ProtocolCommand;
 import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.util.IOUtils;
+import redis.clients.jedis.util.IoBufferPool;
 import redis.clients.jedis.util.RedisInputStream;
 import redis.clients.jedis.util.RedisOutputStream;
 import redis.clients.jedis.util.SafeEncoder;
@@ -37,6 +38,10 @@ public class Connection implements Closeable {
   private SSLSocketFactory sslSocketFactory;
   private SSLParameters sslParameters;
   private HostnameVerifier hostnameVerifier;
+  private HostAndPortResolver hostAndPortResolver;
+  private IoBufferPool ioBufferPool;
+  // replies of commands sent ahead of the next one, read and dropped before its reply
+  private int skippedReplies;
 
   public Connection() {
   }
@@ -163,6 +168,43 @@ public class Connection implements Closeable {
     this.port = port;
   }
 
+  public HostAndPortResolver getHostAndPortResolver() {
+    return hostAndPortResolver;
+  }
+
+  /**
+   * Resolve the host through the given cache when connecting, instead of doing a DNS lookup for
+   * every new socket.
+   */
+  public void setHostAndPortResolver(final HostAndPortResolver hostAndPortResolver) {
+    this.hostAndPortResolver = hostAndPortResolver;
+  }
+
+  public IoBufferPool getIoBufferPool() {
+    return ioBufferPool;
+  }
+
+  /**
+   * Take the I/O buffers of the connections opened from now on from the given pool, only while
+   * they are needed, see {@link #releaseBuffers()}.
+   */
+  public void setIoBufferPool(final IoBufferPool ioBufferPool) {
+    this.ioBufferPool = ioBufferPool;
+  }
+
+  /**
+   * Gives the I/O buffers back to the shared buffer pool, if any, until the next command. Buffers
+   * still holding unsent or unread data are kept.
+   */
+  public void releaseBuffers() {
+    if (outputStream != null) {
+      outputStream.releaseBuffer();
+    }
+    if (inputStream != null) {
+      inputStream.releaseBuffer();
+    }
+  }
+
   public void connect() {
     if (!isConnected()) {
       try {
@@ -178,7 +220,9 @@ public class Connection implements Closeable {
         // immediately
         // <-@wjw_add
 
-        socket.connect(new InetSocketAddress(host, port), connectionTimeout);
+        final InetSocketAddress address = hostAndPortResolver != null ? hostAndPortResolver
+            .resolve(host, port) : new InetSocketAddress(host, port);
+        socket.connect(address, connectionTimeout);
         socket.setSoTimeout(soTimeout);
 
         if (ssl) {
@@ -197,8 +241,14 @@ public class Connection implements Closeable {
           }
         }
 
-        outputStream = new RedisOutputStream(socket.getOutputStream());
-        inputStream = new RedisInputStream(socket.getInputStream());
+        if (ioBufferPool != null) {
+          outputStream = new RedisOutputStream(socket.getOutputStream(), ioBufferPool);
+          inputStream = new RedisInputStream(socket.getInputStream(), ioBufferPool);
+        } else {
+          outputStream = new RedisOutputStream(socket.getOutputStream());
+          inputStream = new RedisInputStream(socket.getInputStream());
+        }
+        skippedReplies = 0;
       } catch (IOException ex) {
         broken = true;
         throw new JedisConnectionException("Failed connecting to host " 
@@ -222,6 +272,7 @@ public class Connection implements Closeable {
         throw new JedisConnectionException(ex);
       } finally {
         IOUtils.closeQuietly(socket);
+        releaseBuffers();
       }
     }
   }
@@ -315,6 +366,14 @@ public class Connection implements Closeable {
     }
 
     try {
+      while (skippedReplies > 0) {
+        skippedReplies--;
+        try {
+          Protocol.read(inputStream);
+        } catch (JedisDataException e) {
+          // nobody waits for this reply
+        }
+      }
       return Protocol.read(inputStream);
     } catch (JedisConnectionException exc) {
       broken = true;
@@ -322,6 +381,34 @@ public class Connection implements Closeable {
     }
   }
 
+  /**
+   * Drops the reply of the last command sent once it arrives, so that the reply read next is the one
+   * of the command sent after it. Both commands then share a single round trip.
+   */
+  public void skipReply() {
+    skippedReplies++;
+  }
+
+  /**
+   * @return the number of bytes of commands written to this connection so far, 0 if it has never
+   *         been connected
+   */
+  public long getWrittenBytes() {
+    return outputStream == null ? 0 : outputStream.getWrittenBytes();
+  }
+
+  /**
+   * Reads a reply without flushing first. An error reply is returned as a JedisDataException
+   * instead of being thrown, as by {@link #getMany(int)}.
+   */
+  public Object getUnflushedOne() {
+    try {
+      return readProtocolWithCheckingBroken();
+    } catch (JedisDataException e) {
+      return e;
+    }
+  }
+
   public List<Object> getMany(final int count) {
     flush();
     final List<Object> responses = new ArrayList<Object>(count);
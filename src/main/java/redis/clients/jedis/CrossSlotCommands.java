@@ -0,0 +1,131 @@
+package redis.clients.jedis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+/**
+ * Multi-key commands over keys of any slots, for the *AcrossSlots methods of
+ * {@link BinaryJedisCluster}. The keys are grouped by slot, one sub-command is queued per slot on a
+ * {@link JedisClusterPipeline}, which sends the sub-commands of every node pipelined on one
+ * connection, all nodes in parallel, and retries the sub-commands redirected by MOVED or ASK. The
+ * results are merged in the order of the keys.
+ */
+final class CrossSlotCommands {
+
+  private CrossSlotCommands() {
+  }
+
+  static List<byte[]> mget(final JedisClusterConnectionHandler connectionHandler,
+      final int maxAttempts, final byte[][] keys) {
+    final int[][] groups = groupBySlot(keys, 1);
+    final JedisClusterPipeline pipeline = new JedisClusterPipeline(connectionHandler, maxAttempts);
+    final List<Response<List<byte[]>>> responses = new ArrayList<Response<List<byte[]>>>(
+        groups.length);
+    for (int[] group : groups) {
+      responses.add(queue(pipeline, Command.MGET, select(keys, group, 1),
+        BuilderFactory.BYTE_ARRAY_LIST));
+    }
+    pipeline.sync();
+
+    final byte[][] values = new byte[keys.length][];
+    for (int i = 0; i < groups.length; i++) {
+      final List<byte[]> groupValues = responses.get(i).get();
+      for (int j = 0; j < groups[i].length; j++) {
+        values[groups[i][j]] = groupValues.get(j);
+      }
+    }
+    return Arrays.asList(values);
+  }
+
+  static String mset(final JedisClusterConnectionHandler connectionHandler,
+      final int maxAttempts, final byte[][] keysvalues) {
+    if (keysvalues.length % 2 != 0) {
+      throw new IllegalArgumentException("Keys and values must come in pairs");
+    }
+    final int[][] groups = groupBySlot(keysvalues, 2);
+    final JedisClusterPipeline pipeline = new JedisClusterPipeline(connectionHandler, maxAttempts);
+    final List<Response<String>> responses = new ArrayList<Response<String>>(groups.length);
+    for (int[] group : groups) {
+      responses.add(queue(pipeline, Command.MSET, select(keysvalues, group, 2),
+        BuilderFactory.STRING));
+    }
+    pipeline.sync();
+
+    String status = null;
+    for (Response<String> response : responses) {
+      // throws the first error reply
+      status = response.get();
+    }
+    return status;
+  }
+
+  /**
+   * Runs a command replying with a count of keys, like DEL or EXISTS, and adds up the counts.
+   */
+  static Long count(final JedisClusterConnectionHandler connectionHandler, final int maxAttempts,
+      final Command command, final byte[][] keys) {
+    final int[][] groups = groupBySlot(keys, 1);
+    final JedisClusterPipeline pipeline = new JedisClusterPipeline(connectionHandler, maxAttempts);
+    final List<Response<Long>> responses = new ArrayList<Response<Long>>(groups.length);
+    for (int[] group : groups) {
+      responses.add(queue(pipeline, command, select(keys, group, 1), BuilderFactory.LONG));
+    }
+    pipeline.sync();
+
+    long total = 0;
+    for (Response<Long> response : responses) {
+      total += response.get();
+    }
+    return total;
+  }
+
+  /**
+   * Groups the keys by slot, keeping their order within a slot.
+   * @param stride number of arguments per key, the key coming first
+   * @return the indexes of the keys of every slot
+   */
+  static int[][] groupBySlot(final byte[][] args, final int stride) {
+    final int count = args.length / stride;
+    if (count == 0) {
+      throw new JedisClusterOperationException("No way to dispatch this command to Redis Cluster.");
+    }
+    // slot in the high bits, index in the low bits, sorting groups by slot in key order
+    final long[] slotIndexes = new long[count];
+    for (int i = 0; i < count; i++) {
+      slotIndexes[i] = ((long) JedisClusterCRC16.getSlot(args[i * stride]) << 32) | i;
+    }
+    Arrays.sort(slotIndexes);
+
+    final List<int[]> groups = new ArrayList<int[]>();
+    int start = 0;
+    for (int i = 1; i <= count; i++) {
+      if (i == count || (slotIndexes[i] >>> 32) != (slotIndexes[start] >>> 32)) {
+        final int[] group = new int[i - start];
+        for (int j = 0; j < group.length; j++) {
+          group[j] = (int) slotIndexes[start + j];
+        }
+        groups.add(group);
+        start = i;
+      }
+    }
+    return groups.toArray(new int[groups.size()][]);
+  }
+
+  private static <T> Response<T> queue(final JedisClusterPipeline pipeline,
+      final Command command, final byte[][] args, final Builder<T> builder) {
+    return pipeline.queue(JedisClusterCRC16.getSlot(args[0]), command, args, builder);
+  }
+
+  private static byte[][] select(final byte[][] args, final int[] group, final int stride) {
+    final byte[][] selected = new byte[group.length * stride][];
+    for (int i = 0; i < group.length; i++) {
+      System.arraycopy(args, group[i] * stride, selected, i * stride, stride);
+    }
+    return selected;
+  }
+}
@@ -0,0 +1,251 @@
+package redis.clients.jedis;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.DaemonThreadFactory;
+
+/**
+ * A pipeline which reads replies while commands are still being written.
+ * <p>
+ * A reader task, run on an {@link Executor}, reads the replies of the commands flushed so far and
+ * hands the results to a {@link PipelineCallback} as they arrive. Commands are flushed in batches of
+ * flushInterval commands, so the socket buffers never fill up in both directions and huge
+ * pipelines cannot deadlock, and a reader is started at most once per batch. At most
+ * maxPendingCommands commands wait for their reply, further commands block until the reader caught
+ * up.
+ * <p>
+ * Each pipeline has its own reader, so pipelines on connections to several nodes read their
+ * replies in parallel. Like any pipeline, it is used by a single thread; the callback is called by
+ * the reader. The Response objects returned by the commands are complete once {@link #sync()}
+ * returned; before that, {@link Response#get(long, java.util.concurrent.TimeUnit)} waits for a
+ * single reply and callbacks added to a Response run on the reader. MULTI/EXEC is not supported.
+ */
+public class DuplexPipeline extends Pipeline {
+  public static final int DEFAULT_FLUSH_INTERVAL = 64;
+  public static final int DEFAULT_MAX_PENDING_COMMANDS = 10000;
+
+  private static final ExecutorService DEFAULT_EXECUTOR = Executors
+      .newCachedThreadPool(new DaemonThreadFactory("jedis-pipeline-reader"));
+
+  private final PipelineCallback callback;
+  private final Executor executor;
+  private final int flushInterval;
+  private final int maxPendingCommands;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition progress = lock.newCondition();
+  private final Runnable reader = new Runnable() {
+    @Override
+    public void run() {
+      readReplies();
+    }
+  };
+
+  // guarded by lock
+  private long queued = 0;
+  private long flushed = 0;
+  private long delivered = 0;
+  private boolean readerRunning = false;
+  private RuntimeException failure;
+
+  public DuplexPipeline(final PipelineCallback callback) {
+    this(callback, DEFAULT_EXECUTOR, DEFAULT_FLUSH_INTERVAL, DEFAULT_MAX_PENDING_COMMANDS);
+  }
+
+  /**
+   * @param callback receives the results, may be null if only the Response objects are used
+   * @param executor runs the reader task
+   * @param flushInterval number of commands after which they are flushed
+   * @param maxPendingCommands number of commands which may wait for their reply at a time
+   */
+  public DuplexPipeline(final PipelineCallback callback, final Executor executor,
+      final int flushInterval, final int maxPendingCommands) {
+    if (executor == null) {
+      throw new IllegalArgumentException("Executor must not be null");
+    }
+    if (flushInterval < 1 || maxPendingCommands < 1) {
+      throw new IllegalArgumentException("Limits must be positive");
+    }
+    this.callback = callback;
+    this.executor = executor;
+    this.flushInterval = flushInterval;
+    this.maxPendingCommands = maxPendingCommands;
+  }
+
+  @Override
+  protected <T> Response<T> getResponse(Builder<T> builder) {
+    final Response<T> response;
+    final boolean flush;
+    final boolean full;
+    lock.lock();
+    try {
+      checkFailure();
+      response = super.getResponse(builder);
+      queued++;
+      flush = queued - flushed >= flushInterval;
+      full = queued - delivered >= maxPendingCommands;
+    } finally {
+      lock.unlock();
+    }
+    if (flush || full) {
+      flushCommands();
+    }
+    if (full) {
+      awaitDelivered(queued - maxPendingCommands + 1);
+    }
+    return response;
+  }
+
+  /**
+   * Flushes the commands sent so far and waits until the callback got all their results.
+   */
+  @Override
+  public void sync() {
+    flushCommands();
+    awaitDelivered(queued);
+  }
+
+  /**
+   * Same as {@link #sync()}: the results are handed to the callback only.
+   * @return an empty list
+   */
+  @Override
+  public List<Object> syncAndReturnAll() {
+    sync();
+    return Collections.emptyList();
+  }
+
+  @Override
+  public Response<String> multi() {
+    throw new JedisDataException("MULTI is not supported in a duplex pipeline");
+  }
+
+  /**
+   * @return the number of results read so far
+   */
+  public long getDeliveredCount() {
+    lock.lock();
+    try {
+      return delivered;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void flushCommands() {
+    lock.lock();
+    try {
+      checkFailure();
+      if (flushed == queued) {
+        return;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    // only the caller writes, the reader never touches the output stream
+    client.flush();
+
+    lock.lock();
+    try {
+      flushed = queued;
+      if (!readerRunning && failure == null) {
+        readerRunning = true;
+        try {
+          executor.execute(reader);
+        } catch (RuntimeException e) {
+          readerRunning = false;
+          throw new JedisException("Could not start the pipeline reader", e);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void awaitDelivered(final long count) {
+    lock.lock();
+    try {
+      while (delivered < count && failure == null) {
+        progress.await();
+      }
+      checkFailure();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JedisException("Interrupted while waiting for pipelined replies", e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void readReplies() {
+    while (true) {
+      lock.lock();
+      try {
+        if (delivered == flushed || failure != null) {
+          // caught up, the next flush starts a new reader
+          readerRunning = false;
+          return;
+        }
+      } finally {
+        lock.unlock();
+      }
+
+      try {
+        final Object reply = client.getUnflushedOne();
+        final long index;
+        final Response<?> response;
+        lock.lock();
+        try {
+          response = generateResponse(reply);
+          index = delivered;
+        } finally {
+          lock.unlock();
+        }
+
+        if (callback != null) {
+          Object result;
+          try {
+            result = response.get();
+          } catch (JedisDataException e) {
+            result = e;
+          }
+          callback.onResponse(index, result);
+        }
+
+        lock.lock();
+        try {
+          delivered++;
+          progress.signalAll();
+        } finally {
+          lock.unlock();
+        }
+      } catch (RuntimeException e) {
+        lock.lock();
+        try {
+          failure = e;
+          readerRunning = false;
+          progress.signalAll();
+        } finally {
+          lock.unlock();
+        }
+        return;
+      }
+    }
+  }
+
+  private void checkFailure() {
+    if (failure != null) {
+      throw failure instanceof JedisException ? (JedisException) failure : new JedisException(
+          "Pipeline reader failed", failure);
+    }
+  }
+}
@@ -0,0 +1,234 @@
+package redis.clients.jedis;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.util.DaemonThreadFactory;
+
+/**
+ * Caches the DNS resolution of Redis endpoints so that opening a socket does not block on the
+ * resolver.
+ * <p>
+ * Entries are re-resolved in the background before their TTL runs out. If a refresh fails, the last
+ * known address keeps being used until a later refresh succeeds. An instance is meant to be shared,
+ * e.g. by setting it on the {@link JedisPoolConfig} of several pools.
+ */
+public class HostAndPortResolver implements Closeable {
+  public static final long DEFAULT_TTL_MILLIS = 30000;
+
+  /**
+   * Entries which are neither registered by a pool nor used for this many TTLs are dropped.
+   */
+  private static final int IDLE_TTLS_BEFORE_EVICTION = 10;
+
+  private static final Logger log = LoggerFactory.getLogger(HostAndPortResolver.class);
+
+  private final long ttlMillis;
+  // keyed by "host:port" rather than HostAndPort, whose hashCode() does a lookup of its own
+  private final ConcurrentMap<String, CachedAddress> entries =
+      new ConcurrentHashMap<String, CachedAddress>();
+  private final ScheduledExecutorService executor;
+
+  public HostAndPortResolver() {
+    this(DEFAULT_TTL_MILLIS);
+  }
+
+  public HostAndPortResolver(final long ttlMillis) {
+    if (ttlMillis <= 0) {
+      throw new IllegalArgumentException("TTL must be positive");
+    }
+    this.ttlMillis = ttlMillis;
+    this.executor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory(
+        "jedis-resolver"));
+
+    long sweepPeriod = Math.max(1, ttlMillis / 2);
+    executor.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        sweep();
+      }
+    }, sweepPeriod, sweepPeriod, TimeUnit.MILLISECONDS);
+  }
+
+  public long getTtlMillis() {
+    return ttlMillis;
+  }
+
+  /**
+   * Registers an endpoint which will be connected to later on, e.g. by a pool. Its address is
+   * resolved asynchronously and kept fresh until it is unregistered as many times as registered.
+   */
+  public void register(final HostAndPort hostAndPort) {
+    final CachedAddress entry;
+    synchronized (entries) {
+      entry = getOrCreate(hostAndPort.getHost(), hostAndPort.getPort());
+      entry.pins++;
+    }
+    if (entry.address == null) {
+      refreshAsync(entry);
+    }
+  }
+
+  /**
+   * Releases a registration of {@link #register(HostAndPort)}, e.g. when the pool is destroyed.
+   * Once no registration is left the endpoint is forgotten.
+   */
+  public void unregister(final HostAndPort hostAndPort) {
+    final String key = hostAndPort.getHost() + ":" + hostAndPort.getPort();
+    synchronized (entries) {
+      final CachedAddress entry = entries.get(key);
+      if (entry != null && entry.pins > 0 && --entry.pins == 0) {
+        entries.remove(key, entry);
+      }
+    }
+  }
+
+  public InetSocketAddress resolve(final HostAndPort hostAndPort) {
+    return resolve(hostAndPort.getHost(), hostAndPort.getPort());
+  }
+
+  /**
+   * Returns the cached address of the endpoint. Only the very first lookup of an endpoint is done
+   * on the calling thread; expired entries are served stale while being refreshed in the background.
+   * @return a resolved address, or an unresolved one if the host has never been resolved
+   */
+  public InetSocketAddress resolve(final String host, final int port) {
+    final long now = System.currentTimeMillis();
+    final CachedAddress entry = getOrCreate(host, port);
+    entry.lastAccess = now;
+
+    InetSocketAddress address = entry.address;
+    if (address == null) {
+      // never resolved (or never successfully), there is nothing to fall back to
+      try {
+        return lookupNow(entry);
+      } catch (UnknownHostException e) {
+        return InetSocketAddress.createUnresolved(host, port);
+      }
+    }
+
+    if (now >= entry.expiresAt) {
+      refreshAsync(entry);
+    }
+    return address;
+  }
+
+  /**
+   * Looks up the address of a host. Protected so that the lookup can be replaced, e.g. in tests.
+   */
+  protected InetAddress lookup(final String host) throws UnknownHostException {
+    return InetAddress.getByName(host);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    entries.clear();
+  }
+
+  private CachedAddress getOrCreate(final String host, final int port) {
+    final String key = host + ":" + port;
+    CachedAddress entry = entries.get(key);
+    if (entry == null) {
+      CachedAddress created = new CachedAddress(host, port);
+      entry = entries.putIfAbsent(key, created);
+      if (entry == null) {
+        entry = created;
+      }
+    }
+    return entry;
+  }
+
+  private void sweep() {
+    final long now = System.currentTimeMillis();
+    final long refreshAhead = ttlMillis / 2;
+    final long maxIdle = ttlMillis * IDLE_TTLS_BEFORE_EVICTION;
+
+    for (Map.Entry<String, CachedAddress> mapEntry : entries.entrySet()) {
+      CachedAddress entry = mapEntry.getValue();
+      if (entry.pins == 0 && now - entry.lastAccess > maxIdle && evict(mapEntry.getKey(), entry)) {
+        continue;
+      }
+      if (entry.expiresAt - now <= refreshAhead) {
+        refresh(entry);
+      }
+    }
+  }
+
+  private boolean evict(final String key, final CachedAddress entry) {
+    synchronized (entries) {
+      // registered meanwhile
+      return entry.pins == 0 && entries.remove(key, entry);
+    }
+  }
+
+  private void refreshAsync(final CachedAddress entry) {
+    if (entry.refreshing.get()) {
+      return;
+    }
+    try {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          refresh(entry);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // closed, keep serving the last known address
+    }
+  }
+
+  private void refresh(final CachedAddress entry) {
+    if (!entry.refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      lookupNow(entry);
+    } catch (UnknownHostException e) {
+      if (entry.address != null) {
+        log.warn("Could not re-resolve {}:{}, keeping last known address {}.", entry.host,
+          entry.port, entry.address.getAddress(), e);
+      } else {
+        log.warn("Could not resolve {}:{}.", entry.host, entry.port, e);
+      }
+    } finally {
+      entry.refreshing.set(false);
+    }
+  }
+
+  private InetSocketAddress lookupNow(final CachedAddress entry) throws UnknownHostException {
+    InetSocketAddress address = new InetSocketAddress(lookup(entry.host), entry.port);
+    entry.address = address;
+    entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+    return address;
+  }
+
+  private static class CachedAddress {
+    private final String host;
+    private final int port;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private volatile InetSocketAddress address;
+    private volatile long expiresAt;
+    private volatile long lastAccess = System.currentTimeMillis();
+    // registrations, guarded by the entries map
+    private volatile int pins;
+
+    private CachedAddress(final String host, final int port) {
+      this.host = host;
+      this.port = port;
+    }
+  }
+}
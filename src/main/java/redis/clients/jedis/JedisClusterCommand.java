@@ -1,28 +1,43 @@
 package redis.clients.jedis;
 
+import java.util.concurrent.TimeUnit;
+
 import redis.clients.jedis.exceptions.JedisAskDataException;
+import redis.clients.jedis.exceptions.JedisClusterException;
 import redis.clients.jedis.exceptions.JedisClusterMaxAttemptsException;
 import redis.clients.jedis.exceptions.JedisClusterOperationException;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.exceptions.JedisMovedDataException;
 import redis.clients.jedis.exceptions.JedisNoReachableClusterNodeException;
 import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.exceptions.JedisTryAgainException;
 import redis.clients.jedis.util.JedisClusterCRC16;
 
 public abstract class JedisClusterCommand<T> {
 
   private final JedisClusterConnectionHandler connectionHandler;
   private final int maxAttempts;
+  private final boolean readOnly;
 
   public JedisClusterCommand(JedisClusterConnectionHandler connectionHandler, int maxAttempts) {
+    this(connectionHandler, maxAttempts, false);
+  }
+
+  /**
+   * @param readOnly whether the command only reads, so that it may be routed to a replica
+   */
+  protected JedisClusterCommand(JedisClusterConnectionHandler connectionHandler, int maxAttempts,
+      boolean readOnly) {
     this.connectionHandler = connectionHandler;
     this.maxAttempts = maxAttempts;
+    this.readOnly = readOnly;
   }
 
   public abstract T execute(Jedis connection);
 
   public T run(String key) {
-    return runWithRetries(JedisClusterCRC16.getSlot(key), this.maxAttempts, false, null);
+    return runWithRetries(JedisClusterCRC16.getSlot(key));
   }
 
   public T run(int keyCount, String... keys) {
@@ -42,11 +57,11 @@ public abstract class JedisClusterCommand<T> {
       }
     }
 
-    return runWithRetries(slot, this.maxAttempts, false, null);
+    return runWithRetries(slot);
   }
 
   public T runBinary(byte[] key) {
-    return runWithRetries(JedisClusterCRC16.getSlot(key), this.maxAttempts, false, null);
+    return runWithRetries(JedisClusterCRC16.getSlot(key));
   }
 
   public T runBinary(int keyCount, byte[]... keys) {
@@ -66,77 +81,157 @@ public abstract class JedisClusterCommand<T> {
       }
     }
 
-    return runWithRetries(slot, this.maxAttempts, false, null);
+    return runWithRetries(slot);
   }
 
   public T runWithAnyNode() {
     Jedis connection = null;
     try {
       connection = connectionHandler.getConnection();
-      return execute(connection);
+      final T result = execute(connection);
+      connectionHandler.recordSuccess(connection);
+      return result;
     } catch (JedisConnectionException e) {
+      if (connection != null) {
+        connectionHandler.recordFailure(connection);
+      }
       throw e;
     } finally {
       releaseConnection(connection);
     }
   }
 
-  private T runWithRetries(final int slot, int attempts, boolean tryRandomNode, JedisRedirectionException redirect) {
-    if (attempts <= 0) {
+  private T runWithRetries(final int slot) {
+    if (maxAttempts <= 0) {
       throw new JedisClusterMaxAttemptsException("No more cluster attempts left.");
     }
 
-    Jedis connection = null;
-    try {
-
-      if (redirect != null) {
-        connection = this.connectionHandler.getConnectionFromNode(redirect.getTargetNode());
-        if (redirect instanceof JedisAskDataException) {
-          // TODO: Pipeline asking with the original command to make it faster....
-          connection.asking();
+    final ClusterRetryPolicy retryPolicy = connectionHandler.getRetryPolicy();
+    final long deadline = retryPolicy.getMaxTotalRetryMillis() > 0 ? System.nanoTime()
+        + TimeUnit.MILLISECONDS.toNanos(retryPolicy.getMaxTotalRetryMillis()) : 0;
+    JedisRedirectionException redirect = null;
+    JedisException failure = null;
+    int errors = 0;
+
+    for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+      final boolean lastAttempt = attempt == maxAttempts;
+      Jedis connection = null;
+      try {
+        connection = getConnection(slot, redirect);
+
+        final T result;
+        if (readOnly && connectionHandler.isReadLatencyTracked()) {
+          final long start = System.nanoTime();
+          result = execute(connection);
+          connectionHandler.recordReadLatency(connection, System.nanoTime() - start);
+        } else {
+          result = execute(connection);
         }
-      } else {
-        if (tryRandomNode) {
-          connection = connectionHandler.getConnection();
+        connectionHandler.recordSuccess(connection);
+        return result;
+
+      } catch (JedisNoReachableClusterNodeException jnrcne) {
+        throw jnrcne;
+      } catch (JedisConnectionException jce) {
+        if (connection != null) {
+          // failures to connect are accounted by the connection handler
+          connectionHandler.recordFailure(connection);
+        }
+        failure = jce;
+
+        if (lastAttempt) {
+          //We need this because if node is not reachable anymore - we need to finally initiate slots
+          //renewing, or we can stuck with cluster state without one node in opposite case.
+          //The renewal only blocks if the node had no successful responses lately.
+          this.connectionHandler.renewSlotCacheAfterFailure(slot);
         } else {
-          connection = connectionHandler.getConnectionFromSlot(slot);
+          // the same node is tried again, as a redirect if that is how it was reached
+          backOff(retryPolicy, ++errors, deadline, slot, jce);
+        }
+      } catch (JedisRedirectionException jre) {
+        connectionHandler.recordSuccess(connection);
+        // if MOVED redirection occurred,
+        if (jre instanceof JedisMovedDataException) {
+          // it updates the slot at once and rebuilds cluster's slot cache recommended by Redis
+          // cluster specification, in the background so that concurrent redirects share one refresh
+          this.connectionHandler.applyMovedRedirect((JedisMovedDataException) jre);
+        }
+        // followed at once, the target node is known to serve the slot
+        redirect = jre;
+        failure = jre;
+      } catch (JedisTryAgainException | JedisClusterException e) {
+        // TRYAGAIN during a migration, CLUSTERDOWN during a failover: the node is fine, the slot
+        // is not yet
+        connectionHandler.recordSuccess(connection);
+        failure = e;
+        if (!lastAttempt) {
+          backOff(retryPolicy, ++errors, deadline, slot, e);
         }
+      } finally {
+        releaseConnection(connection);
       }
 
-      return execute(connection);
-
-    } catch (JedisNoReachableClusterNodeException jnrcne) {
-      throw jnrcne;
-    } catch (JedisConnectionException jce) {
-      // release current connection before recursion
-      releaseConnection(connection);
-      connection = null;
-
-      if (attempts <= 1) {
-        //We need this because if node is not reachable anymore - we need to finally initiate slots
-        //renewing, or we can stuck with cluster state without one node in opposite case.
-        //But now if maxAttempts = [1 or 2] we will do it too often.
-        //TODO make tracking of successful/unsuccessful operations for node - do renewing only
-        //if there were no successful responses from this node last few seconds
-        this.connectionHandler.renewSlotCache();
+      if (deadline != 0 && !lastAttempt && System.nanoTime() - deadline >= 0) {
+        throw giveUp("No more cluster attempts left, " + retryPolicy.getMaxTotalRetryMillis()
+            + " ms passed.", slot, failure);
       }
+    }
+    throw new JedisClusterMaxAttemptsException("No more cluster attempts left.", failure);
+  }
 
-      return runWithRetries(slot, attempts - 1, tryRandomNode, redirect);
-    } catch (JedisRedirectionException jre) {
-      // if MOVED redirection occurred,
-      if (jre instanceof JedisMovedDataException) {
-        // it rebuilds cluster's slot cache recommended by Redis cluster specification
-        this.connectionHandler.renewSlotCache(connection);
+  private Jedis getConnection(final int slot, final JedisRedirectionException redirect) {
+    if (redirect != null) {
+      Jedis connection = this.connectionHandler.getConnectionFromNode(redirect.getTargetNode());
+      if (redirect instanceof JedisAskDataException) {
+        // flushed with the command, its reply is read and dropped along with the command's
+        connection.getClient().askingWithNextCommand();
       }
+      return connection;
+    }
+    if (readOnly) {
+      return connectionHandler.getReadConnectionFromSlot(slot);
+    }
+    return connectionHandler.getConnectionFromSlot(slot);
+  }
 
-      // release current connection before recursion
-      releaseConnection(connection);
-      connection = null;
+  /**
+   * Waits before retrying after an error, if the retry budget and the deadline allow it.
+   */
+  private void backOff(final ClusterRetryPolicy retryPolicy, final int errors,
+      final long deadline, final int slot, final JedisException error) {
+    if (!retryPolicy.tryAcquireRetry()) {
+      throw giveUp("No more cluster attempts left, the retry budget is spent.", slot, error);
+    }
+    long millis = retryPolicy.getBackoffMillis(errors);
+    if (deadline != 0) {
+      final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      if (remaining <= millis) {
+        throw giveUp("No more cluster attempts left, " + retryPolicy.getMaxTotalRetryMillis()
+            + " ms passed.", slot, error);
+      }
+    }
+    if (millis == 0) {
+      return;
+    }
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JedisClusterOperationException("Interrupted while backing off from a cluster error",
+          e);
+    }
+  }
 
-      return runWithRetries(slot, attempts - 1, false, jre);
-    } finally {
-      releaseConnection(connection);
+  /**
+   * Gives up before the last attempt. After a connection error the slot cache is renewed as on the
+   * last attempt, else commands failing fast on a spent budget would never leave a dead master.
+   */
+  private JedisClusterMaxAttemptsException giveUp(final String message, final int slot,
+      final JedisException failure) {
+    if (failure instanceof JedisConnectionException) {
+      this.connectionHandler.renewSlotCacheAfterFailure(slot);
     }
+    return new JedisClusterMaxAttemptsException(message, failure);
   }
 
   private void releaseConnection(Jedis connection) {
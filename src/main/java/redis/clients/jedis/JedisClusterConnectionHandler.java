@@ -3,16 +3,34 @@ package redis.clients.jedis;
 import java.io.Closeable;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSocketFactory;
 
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
 
 public abstract class JedisClusterConnectionHandler implements Closeable {
+  // every that many reads NEAREST takes turns instead, so that the latency of all nodes is sampled
+  private static final int LATENCY_PROBE_INTERVAL = 64;
+
   protected final JedisClusterInfoCache cache;
+  protected final ClusterTopologyManager topologyManager;
+
+  private volatile ReadFrom readFrom = ReadFrom.MASTER;
+  private volatile ReplicaSelection replicaSelection = ReplicaSelection.ROUND_ROBIN;
+  private final AtomicInteger readCounter = new AtomicInteger();
+  // exponentially weighted moving average of the read latency in nanoseconds, by pool
+  private final ConcurrentMap<JedisPoolAbstract, AtomicLong> readLatencies = new ConcurrentHashMap<JedisPoolAbstract, AtomicLong>();
+  protected final ClusterNodeHealth nodeHealth = new ClusterNodeHealth();
+  private volatile ClusterRetryPolicy retryPolicy = new ClusterRetryPolicy();
 
   public JedisClusterConnectionHandler(Set<HostAndPort> nodes,
       final GenericObjectPoolConfig poolConfig, int connectionTimeout, int soTimeout, String password) {
@@ -30,15 +48,230 @@ public abstract class JedisClusterConnectionHandler implements Closeable {
       HostnameVerifier hostnameVerifier, JedisClusterHostAndPortMap portMap) {
     this.cache = new JedisClusterInfoCache(poolConfig, connectionTimeout, soTimeout, password, clientName,
         ssl, sslSocketFactory, sslParameters, hostnameVerifier, portMap);
+    this.cache.setPoolRemovalListener(new JedisClusterInfoCache.PoolRemovalListener() {
+      @Override
+      public void poolRemoved(JedisPool pool) {
+        nodeHealth.remove(pool);
+        readLatencies.remove(pool);
+      }
+    });
     initializeSlotsCache(nodes, connectionTimeout, soTimeout, password, clientName, ssl, sslSocketFactory, sslParameters, hostnameVerifier);
+    this.topologyManager = new ClusterTopologyManager(cache, nodeHealth);
   }
 
   abstract Jedis getConnection();
 
   abstract Jedis getConnectionFromSlot(int slot);
 
+  /**
+   * Gets a connection for a read-only command on a slot, from a replica or the master according to
+   * the {@link ReadFrom} policy.
+   */
+  public Jedis getReadConnectionFromSlot(int slot) {
+    final ReadFrom readFrom = this.readFrom;
+    if (readFrom == ReadFrom.MASTER) {
+      return getConnectionFromSlot(slot);
+    }
+
+    final JedisPool[] replicas = cache.getSlotReplicaPools(slot);
+    if (readFrom == ReadFrom.NEAREST) {
+      final JedisPool master = cache.getSlotPool(slot);
+      final JedisPool nearest = selectNearest(master, replicas);
+      if (nearest != master) {
+        try {
+          return getResource(nearest);
+        } catch (JedisConnectionException e) {
+          // fall back to the master
+        }
+      }
+      return getConnectionFromSlot(slot);
+    }
+
+    if (replicas.length > 0) {
+      final int first = selectReplica(replicas);
+      JedisConnectionException failure = null;
+      // replicas which failed lately are only tried if reads may not fall back to the master
+      final int passes = readFrom == ReadFrom.REPLICA_ONLY ? 2 : 1;
+      final boolean[] healthy = new boolean[replicas.length];
+      for (int i = 0; i < replicas.length; i++) {
+        healthy[i] = nodeHealth.isHealthy(replicas[i]);
+      }
+      for (int pass = 0; pass < passes; pass++) {
+        for (int i = 0; i < replicas.length; i++) {
+          final int index = (first + i) % replicas.length;
+          if (healthy[index] == (pass == 1)) {
+            continue;
+          }
+          try {
+            return getResource(replicas[index]);
+          } catch (JedisConnectionException e) {
+            failure = e;
+          }
+        }
+      }
+      if (readFrom == ReadFrom.REPLICA_ONLY) {
+        throw failure;
+      }
+    } else if (readFrom == ReadFrom.REPLICA_ONLY) {
+      throw new JedisClusterOperationException("No replica serves slot " + slot);
+    }
+    return getConnectionFromSlot(slot);
+  }
+
+  /**
+   * @return true if the latency of reads should be reported through
+   *         {@link #recordReadLatency(Jedis, long)}
+   */
+  public boolean isReadLatencyTracked() {
+    return readFrom == ReadFrom.NEAREST;
+  }
+
+  /**
+   * Accounts the time a read took on a connection, which selects the node NEAREST reads go to.
+   */
+  public void recordReadLatency(Jedis connection, long nanos) {
+    final JedisPoolAbstract pool = connection.dataSource;
+    if (pool == null) {
+      return;
+    }
+    AtomicLong latency = readLatencies.get(pool);
+    if (latency == null) {
+      if (pool.isClosed()) {
+        // dropped from the cluster meanwhile
+        return;
+      }
+      latency = new AtomicLong(nanos);
+      AtomicLong existing = readLatencies.putIfAbsent(pool, latency);
+      if (existing == null) {
+        return;
+      }
+      latency = existing;
+    }
+    final long average = latency.get();
+    // weight of 1/8 for the new sample, racing updates only lose samples
+    latency.lazySet(average + ((nanos - average) >> 3));
+  }
+
+  public ReadFrom getReadFrom() {
+    return readFrom;
+  }
+
+  public void setReadFrom(ReadFrom readFrom) {
+    if (readFrom == null) {
+      throw new IllegalArgumentException("ReadFrom must not be null");
+    }
+    this.readFrom = readFrom;
+  }
+
+  public ReplicaSelection getReplicaSelection() {
+    return replicaSelection;
+  }
+
+  public void setReplicaSelection(ReplicaSelection replicaSelection) {
+    if (replicaSelection == null) {
+      throw new IllegalArgumentException("ReplicaSelection must not be null");
+    }
+    this.replicaSelection = replicaSelection;
+  }
+
+  private int selectReplica(JedisPool[] replicas) {
+    if (replicas.length == 1) {
+      return 0;
+    }
+    if (replicaSelection == ReplicaSelection.LEAST_LOADED) {
+      int selected = 0;
+      int fewest = Integer.MAX_VALUE;
+      for (int i = 0; i < replicas.length; i++) {
+        final int active = replicas[i].getNumActive();
+        if (active < fewest) {
+          selected = i;
+          fewest = active;
+        }
+      }
+      return selected;
+    }
+    return (readCounter.getAndIncrement() & Integer.MAX_VALUE) % replicas.length;
+  }
+
+  private JedisPool selectNearest(JedisPool master, JedisPool[] replicas) {
+    if (master == null || replicas.length == 0) {
+      return master;
+    }
+    final int read = readCounter.getAndIncrement() & Integer.MAX_VALUE;
+    if (read % LATENCY_PROBE_INTERVAL == 0) {
+      final int index = (read / LATENCY_PROBE_INTERVAL) % (replicas.length + 1);
+      return index == replicas.length ? master : replicas[index];
+    }
+    JedisPool nearest = master;
+    long lowest = latencyOf(master);
+    for (JedisPool replica : replicas) {
+      if (!nodeHealth.isHealthy(replica)) {
+        continue;
+      }
+      final long latency = latencyOf(replica);
+      if (latency < lowest) {
+        nearest = replica;
+        lowest = latency;
+      }
+    }
+    return nearest;
+  }
+
+  private long latencyOf(JedisPool pool) {
+    // nodes without samples come first, so that all of them get measured
+    final AtomicLong latency = readLatencies.get(pool);
+    return latency == null ? 0 : latency.get();
+  }
+
   public Jedis getConnectionFromNode(HostAndPort node) {
-    return cache.setupNodeIfNotExist(node).getResource();
+    return getResource(cache.setupNodeIfNotExist(node));
+  }
+
+  /**
+   * Borrows a connection to a node, accounting a failure to connect in its health.
+   */
+  protected Jedis getResource(JedisPool pool) {
+    try {
+      return pool.getResource();
+    } catch (JedisConnectionException e) {
+      nodeHealth.recordFailure(pool);
+      throw e;
+    }
+  }
+
+  /**
+   * Accounts a command answered by the node of a connection in its health.
+   */
+  public void recordSuccess(Jedis connection) {
+    final JedisPoolAbstract pool = connection.dataSource;
+    if (pool != null) {
+      nodeHealth.recordSuccess(pool);
+    }
+  }
+
+  /**
+   * Accounts a connection error during a command in the health of the node of the connection.
+   */
+  public void recordFailure(Jedis connection) {
+    final JedisPoolAbstract pool = connection.dataSource;
+    if (pool != null) {
+      nodeHealth.recordFailure(pool);
+    }
+  }
+
+  public ClusterNodeHealth getNodeHealth() {
+    return nodeHealth;
+  }
+
+  public ClusterRetryPolicy getRetryPolicy() {
+    return retryPolicy;
+  }
+
+  public void setRetryPolicy(ClusterRetryPolicy retryPolicy) {
+    if (retryPolicy == null) {
+      throw new IllegalArgumentException("ClusterRetryPolicy must not be null");
+    }
+    this.retryPolicy = retryPolicy;
   }
   
   public Map<String, JedisPool> getNodes() {
@@ -70,8 +303,47 @@ public abstract class JedisClusterConnectionHandler implements Closeable {
     }
   }
 
+  /**
+   * Refreshes the slot cache on the calling thread, or waits for a refresh already running.
+   */
   public void renewSlotCache() {
-    cache.renewClusterSlots(null);
+    topologyManager.refresh();
+  }
+
+  /**
+   * Renews the slot cache after the master of a slot could not be reached. If the master answered
+   * other commands lately the failure is likely transient, the renewal is then only requested in
+   * the background.
+   */
+  public void renewSlotCacheAfterFailure(int slot) {
+    final JedisPool master = cache.getSlotPool(slot);
+    if (master != null && nodeHealth.isResponsive(master)) {
+      requestSlotCacheRefresh();
+    } else {
+      renewSlotCache();
+    }
+  }
+
+  /**
+   * Asks for a refresh of the slot cache in the background, see
+   * {@link ClusterTopologyManager#requestRefresh()}.
+   */
+  public void requestSlotCacheRefresh() {
+    topologyManager.requestRefresh();
+  }
+
+  /**
+   * Routes the slot of a MOVED redirect to its new master at once, the pool of which is created if
+   * needed, then asks for a refresh of the whole slot cache in the background.
+   */
+  public void applyMovedRedirect(JedisMovedDataException moved) {
+    if (cache.applyMovedSlot(moved.getSlot(), moved.getTargetNode())) {
+      requestSlotCacheRefresh();
+    }
+  }
+
+  public ClusterTopologyManager getTopologyManager() {
+    return topologyManager;
   }
 
   public void renewSlotCache(Jedis jedis) {
@@ -80,6 +352,9 @@ public abstract class JedisClusterConnectionHandler implements Closeable {
 
   @Override
   public void close() {
+    topologyManager.close();
     cache.reset();
+    readLatencies.clear();
+    nodeHealth.clear();
   }
 }
@@ -1,11 +1,16 @@
 package redis.clients.jedis;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLParameters;
@@ -18,14 +23,34 @@ import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.util.SafeEncoder;
 
 public class JedisClusterInfoCache {
+  private static final JedisPool[] NO_POOLS = new JedisPool[0];
+
+  /**
+   * Told about every pool the cache drops, on reset or because its node left the cluster, once
+   * the pool is destroyed.
+   */
+  public interface PoolRemovalListener {
+    void poolRemoved(JedisPool pool);
+  }
+
+  // pools of the masters and of the nodes commands were redirected to
   private final Map<String, JedisPool> nodes = new HashMap<String, JedisPool>();
-  private final Map<Integer, JedisPool> slots = new HashMap<Integer, JedisPool>();
+  // pools of READONLY connections to the replicas, which have no pool in nodes
+  private final Map<String, JedisPool> replicaNodes = new HashMap<String, JedisPool>();
+  // immutable once published, replaced as a whole so that routing needs no lock
+  private volatile JedisPool[] slots = new JedisPool[BinaryJedisCluster.HASHSLOTS];
+  private volatile JedisPool[][] replicaSlots = newReplicaTable();
+  // the distinct pools of the slot table, replaced along with it
+  private volatile JedisPool[] masterPools = NO_POOLS;
 
   private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
   private final Lock r = rwl.readLock();
   private final Lock w = rwl.writeLock();
+  // serializes renewals, which read CLUSTER SLOTS without holding the write lock
+  private final Lock renewal = new ReentrantLock();
   private volatile boolean rediscovering;
   private final GenericObjectPoolConfig poolConfig;
+  private volatile PoolRemovalListener removalListener;
 
   private int connectionTimeout;
   private int soTimeout;
@@ -71,6 +96,8 @@ public class JedisClusterInfoCache {
     try {
       reset();
       List<Object> slots = jedis.clusterSlots();
+      JedisPool[] table = new JedisPool[BinaryJedisCluster.HASHSLOTS];
+      JedisPool[][] replicaTable = newReplicaTable();
 
       for (Object slotInfoObj : slots) {
         List<Object> slotInfo = (List<Object>) slotInfoObj;
@@ -79,23 +106,18 @@ public class JedisClusterInfoCache {
           continue;
         }
 
-        List<Integer> slotNums = getAssignedSlotArray(slotInfo);
-
-        // hostInfos
-        int size = slotInfo.size();
-        for (int i = MASTER_NODE_INDEX; i < size; i++) {
-          List<Object> hostInfos = (List<Object>) slotInfo.get(i);
-          if (hostInfos.size() <= 0) {
-            continue;
-          }
-
-          HostAndPort targetNode = generateHostAndPort(hostInfos);
-          setupNodeIfNotExist(targetNode);
-          if (i == MASTER_NODE_INDEX) {
-            assignSlotsToNode(slotNums, targetNode);
-          }
+        // hostInfos, the replicas only get a pool of READONLY connections
+        List<Object> hostInfos = (List<Object>) slotInfo.get(MASTER_NODE_INDEX);
+        if (hostInfos.isEmpty()) {
+          continue;
         }
+
+        HostAndPort targetNode = generateHostAndPort(hostInfos);
+        assignSlotRange(table, slotInfo, setupNodeIfNotExist(targetNode));
+        assignSlotRange(replicaTable, slotInfo, setupReplicaPools(slotInfo));
       }
+      this.replicaSlots = replicaTable;
+      publishSlots(table);
     } finally {
       w.unlock();
     }
@@ -105,7 +127,7 @@ public class JedisClusterInfoCache {
     //If rediscovering is already in process - no need to start one more same rediscovering, just return
     if (!rediscovering) {
       try {
-        w.lock();
+        renewal.lock();
         if (!rediscovering) {
           rediscovering = true;
 
@@ -138,14 +160,26 @@ public class JedisClusterInfoCache {
           }
         }
       } finally {
-        w.unlock();
+        renewal.unlock();
       }
     }
   }
 
   private void discoverClusterSlots(Jedis jedis) {
     List<Object> slots = jedis.clusterSlots();
-    this.slots.clear();
+    w.lock();
+    try {
+      publishClusterSlots(slots);
+    } finally {
+      w.unlock();
+    }
+  }
+
+  private void publishClusterSlots(List<Object> slots) {
+    // built aside and published at once, commands keep being routed by the old table meanwhile
+    JedisPool[] table = new JedisPool[BinaryJedisCluster.HASHSLOTS];
+    JedisPool[][] replicaTable = newReplicaTable();
+    Set<JedisPool> listed = new HashSet<JedisPool>();
 
     for (Object slotInfoObj : slots) {
       List<Object> slotInfo = (List<Object>) slotInfoObj;
@@ -154,18 +188,71 @@ public class JedisClusterInfoCache {
         continue;
       }
 
-      List<Integer> slotNums = getAssignedSlotArray(slotInfo);
-
       // hostInfos
       List<Object> hostInfos = (List<Object>) slotInfo.get(MASTER_NODE_INDEX);
       if (hostInfos.isEmpty()) {
         continue;
       }
 
-      // at this time, we just use master, discard slave information
       HostAndPort targetNode = generateHostAndPort(hostInfos);
-      assignSlotsToNode(slotNums, targetNode);
+      JedisPool master = setupNodeIfNotExist(targetNode);
+      JedisPool[] replicas = setupReplicaPools(slotInfo);
+      assignSlotRange(table, slotInfo, master);
+      assignSlotRange(replicaTable, slotInfo, replicas);
+      listed.add(master);
+      listed.addAll(Arrays.asList(replicas));
+    }
+    this.replicaSlots = replicaTable;
+    publishSlots(table);
+    removeUnlisted(nodes, listed);
+    removeUnlisted(replicaNodes, listed);
+  }
+
+  /**
+   * Drops the pools of the nodes CLUSTER SLOTS no longer lists, e.g. a failed master or a node
+   * which left the cluster. Connections in use are closed when they are returned.
+   */
+  private void removeUnlisted(Map<String, JedisPool> pools, Set<JedisPool> listed) {
+    for (Iterator<JedisPool> it = pools.values().iterator(); it.hasNext();) {
+      JedisPool pool = it.next();
+      if (!listed.contains(pool)) {
+        it.remove();
+        destroy(pool);
+      }
+    }
+  }
+
+  private void destroy(JedisPool pool) {
+    try {
+      pool.destroy();
+    } catch (Exception e) {
+      // pass
     }
+    final PoolRemovalListener listener = removalListener;
+    if (listener != null) {
+      listener.poolRemoved(pool);
+    }
+  }
+
+  public void setPoolRemovalListener(PoolRemovalListener removalListener) {
+    this.removalListener = removalListener;
+  }
+
+  /**
+   * Publishes a new slot table, and the masters found in it. Callers hold the write lock.
+   */
+  private void publishSlots(JedisPool[] table) {
+    List<JedisPool> masters = new ArrayList<JedisPool>();
+    JedisPool previous = null;
+    for (JedisPool pool : table) {
+      // slots come in ranges, most entries repeat the previous one
+      if (pool != null && pool != previous && !masters.contains(pool)) {
+        masters.add(pool);
+      }
+      previous = pool;
+    }
+    masterPools = masters.toArray(new JedisPool[masters.size()]);
+    slots = table;
   }
 
   private HostAndPort generateHostAndPort(List<Object> hostInfos) {
@@ -180,6 +267,42 @@ public class JedisClusterInfoCache {
     return new HostAndPort(host, port);
   }
 
+  private JedisPool[] setupReplicaPools(List<Object> slotInfo) {
+    if (slotInfo.size() <= MASTER_NODE_INDEX + 1) {
+      return NO_POOLS;
+    }
+    List<JedisPool> pools = new ArrayList<JedisPool>(slotInfo.size() - MASTER_NODE_INDEX - 1);
+    for (int i = MASTER_NODE_INDEX + 1; i < slotInfo.size(); i++) {
+      List<Object> hostInfos = (List<Object>) slotInfo.get(i);
+      if (!hostInfos.isEmpty()) {
+        pools.add(setupReplicaNodeIfNotExist(generateHostAndPort(hostInfos)));
+      }
+    }
+    return pools.toArray(new JedisPool[pools.size()]);
+  }
+
+  /**
+   * @return the pool of READONLY connections to a replica, used for reads routed to replicas
+   */
+  public JedisPool setupReplicaNodeIfNotExist(HostAndPort node) {
+    w.lock();
+    try {
+      String nodeKey = getNodeKey(node);
+      JedisPool existingPool = replicaNodes.get(nodeKey);
+      if (existingPool != null) return existingPool;
+
+      JedisFactory factory = new JedisFactory(node.getHost(), node.getPort(), connectionTimeout,
+          soTimeout, password, 0, clientName, ssl, sslSocketFactory, sslParameters,
+          hostnameVerifier);
+      factory.setReadOnly(true);
+      JedisPool nodePool = new JedisPool(poolConfig, factory);
+      replicaNodes.put(nodeKey, nodePool);
+      return nodePool;
+    } finally {
+      w.unlock();
+    }
+  }
+
   public JedisPool setupNodeIfNotExist(HostAndPort node) {
     w.lock();
     try {
@@ -201,7 +324,40 @@ public class JedisClusterInfoCache {
     w.lock();
     try {
       JedisPool targetPool = setupNodeIfNotExist(targetNode);
-      slots.put(slot, targetPool);
+      JedisPool[] table = slots.clone();
+      table[slot] = targetPool;
+      publishSlots(table);
+    } finally {
+      w.unlock();
+    }
+  }
+
+  /**
+   * Routes a slot to the master named by a MOVED redirect, leaving the other slots untouched. The
+   * replicas of the slot are forgotten until the next renewal.
+   * @return false if the slot was routed to that node already
+   */
+  public boolean applyMovedSlot(int slot, HostAndPort targetNode) {
+    JedisPool targetPool = getNode(getNodeKey(targetNode));
+    if (targetPool != null && slots[slot] == targetPool) {
+      // redirects racing on the same slot copy the table once
+      return false;
+    }
+    w.lock();
+    try {
+      targetPool = setupNodeIfNotExist(targetNode);
+      if (slots[slot] == targetPool) {
+        return false;
+      }
+      JedisPool[] table = slots.clone();
+      table[slot] = targetPool;
+      if (replicaSlots[slot] != null) {
+        JedisPool[][] replicaTable = replicaSlots.clone();
+        replicaTable[slot] = null;
+        replicaSlots = replicaTable;
+      }
+      publishSlots(table);
+      return true;
     } finally {
       w.unlock();
     }
@@ -211,9 +367,11 @@ public class JedisClusterInfoCache {
     w.lock();
     try {
       JedisPool targetPool = setupNodeIfNotExist(targetNode);
+      JedisPool[] table = slots.clone();
       for (Integer slot : targetSlots) {
-        slots.put(slot, targetPool);
+        table[slot] = targetPool;
       }
+      publishSlots(table);
     } finally {
       w.unlock();
     }
@@ -228,28 +386,64 @@ public class JedisClusterInfoCache {
     }
   }
 
+  /**
+   * Routes a slot to the pool of its master. Lock-free, the slot table is never modified once
+   * published.
+   */
   public JedisPool getSlotPool(int slot) {
+    return slots[slot];
+  }
+
+  /**
+   * @return the READONLY pools of the replicas of a slot, empty if it has none. The array must not
+   *         be modified.
+   */
+  public JedisPool[] getSlotReplicaPools(int slot) {
+    JedisPool[] replicas = replicaSlots[slot];
+    return replicas == null ? NO_POOLS : replicas;
+  }
+
+  /**
+   * @return the READONLY pools of the replicas by node key
+   */
+  public Map<String, JedisPool> getReplicaNodes() {
     r.lock();
     try {
-      return slots.get(slot);
+      return new HashMap<String, JedisPool>(replicaNodes);
     } finally {
       r.unlock();
     }
   }
 
+  /**
+   * @return the pools of all known nodes by node key, the READONLY pools for the replicas
+   */
   public Map<String, JedisPool> getNodes() {
     r.lock();
     try {
-      return new HashMap<String, JedisPool>(nodes);
+      Map<String, JedisPool> all = new HashMap<String, JedisPool>(replicaNodes);
+      all.putAll(nodes);
+      return all;
     } finally {
       r.unlock();
     }
   }
 
+  /**
+   * @return the pools of the masters serving slots, without locking. Unlike {@link #getNodes()} it
+   *         leaves out replicas and former masters. The array must not be modified.
+   */
+  public JedisPool[] getMasterPools() {
+    return masterPools;
+  }
+
+  /**
+   * @return the pools of all known nodes in random order, the READONLY pools for the replicas
+   */
   public List<JedisPool> getShuffledNodesPool() {
     r.lock();
     try {
-      List<JedisPool> pools = new ArrayList<JedisPool>(nodes.values());
+      List<JedisPool> pools = new ArrayList<JedisPool>(getNodes().values());
       Collections.shuffle(pools);
       return pools;
     } finally {
@@ -263,17 +457,18 @@ public class JedisClusterInfoCache {
   public void reset() {
     w.lock();
     try {
-      for (JedisPool pool : nodes.values()) {
-        try {
-          if (pool != null) {
-            pool.destroy();
-          }
-        } catch (Exception e) {
-          // pass
+      List<JedisPool> pools = new ArrayList<JedisPool>(nodes.values());
+      pools.addAll(replicaNodes.values());
+      for (JedisPool pool : pools) {
+        if (pool != null) {
+          destroy(pool);
         }
       }
       nodes.clear();
-      slots.clear();
+      masterPools = NO_POOLS;
+      replicaNodes.clear();
+      slots = new JedisPool[BinaryJedisCluster.HASHSLOTS];
+      replicaSlots = newReplicaTable();
     } finally {
       w.unlock();
     }
@@ -291,12 +486,13 @@ public class JedisClusterInfoCache {
     return getNodeKey(jedis.getClient());
   }
 
-  private List<Integer> getAssignedSlotArray(List<Object> slotInfo) {
-    List<Integer> slotNums = new ArrayList<Integer>();
-    for (int slot = ((Long) slotInfo.get(0)).intValue(); slot <= ((Long) slotInfo.get(1))
-        .intValue(); slot++) {
-      slotNums.add(slot);
-    }
-    return slotNums;
+  private static JedisPool[][] newReplicaTable() {
+    return new JedisPool[BinaryJedisCluster.HASHSLOTS][];
+  }
+
+  private static void assignSlotRange(Object[] table, List<Object> slotInfo, Object value) {
+    int first = ((Long) slotInfo.get(0)).intValue();
+    int last = ((Long) slotInfo.get(1)).intValue();
+    Arrays.fill(table, first, last + 1, value);
   }
 }
@@ -0,0 +1,353 @@
+package redis.clients.jedis;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.exceptions.JedisAskDataException;
+import redis.clients.jedis.exceptions.JedisClusterMaxAttemptsException;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+import redis.clients.jedis.exceptions.JedisNoReachableClusterNodeException;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.util.DaemonThreadFactory;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+/**
+ * A pipeline over a Redis Cluster, see {@link BinaryJedisCluster#pipelined()}.
+ * <p>
+ * Commands are queued until {@link #sync()}, which routes each of them to the node owning the slot
+ * of its key, sends the commands of all nodes in parallel, one connection per node, and hands the
+ * replies back in the order the commands were queued. Commands redirected with MOVED or ASK, or
+ * whose node could not be reached, are sent again, up to maxAttempts times; MOVED replies also
+ * update the slot cache. Only single key commands are supported, multi-key commands over several
+ * slots are run through the *AcrossSlots methods of {@link BinaryJedisCluster}.
+ */
+public class JedisClusterPipeline extends PipelineBase implements Closeable {
+
+  private static final ExecutorService DEFAULT_EXECUTOR = Executors
+      .newCachedThreadPool(new DaemonThreadFactory("jedis-cluster-pipeline"));
+
+  private final JedisClusterConnectionHandler connectionHandler;
+  private final int maxAttempts;
+  private final Executor executor;
+
+  private final RecordingClient recorder = new RecordingClient();
+  private final List<QueuedCommand> queued = new ArrayList<QueuedCommand>();
+  private int currentSlot;
+
+  public JedisClusterPipeline(final JedisClusterConnectionHandler connectionHandler,
+      final int maxAttempts) {
+    this(connectionHandler, maxAttempts, DEFAULT_EXECUTOR);
+  }
+
+  /**
+   * @param executor runs the exchanges with all nodes but one, which the caller runs itself
+   */
+  public JedisClusterPipeline(final JedisClusterConnectionHandler connectionHandler,
+      final int maxAttempts, final Executor executor) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("At least one attempt is required");
+    }
+    this.connectionHandler = connectionHandler;
+    this.maxAttempts = maxAttempts;
+    this.executor = executor;
+  }
+
+  @Override
+  protected Client getClient(final String key) {
+    currentSlot = JedisClusterCRC16.getSlot(key);
+    return recorder;
+  }
+
+  @Override
+  protected Client getClient(final byte[] key) {
+    currentSlot = JedisClusterCRC16.getSlot(key);
+    return recorder;
+  }
+
+  @Override
+  protected <T> Response<T> getResponse(final Builder<T> builder) {
+    Response<T> response = queue(currentSlot, recorder.command, recorder.args, builder);
+    recorder.command = null;
+    recorder.args = null;
+    return response;
+  }
+
+  /**
+   * Queues a command for a slot, which may have several keys as long as they all map to that slot.
+   */
+  <T> Response<T> queue(final int slot, final ProtocolCommand command, final byte[][] args,
+      final Builder<T> builder) {
+    Response<T> response = new Response<T>(builder);
+    queued.add(new QueuedCommand(slot, command, args, response));
+    return response;
+  }
+
+  /**
+   * Sends the queued commands and reads all their replies, which completes their Response objects.
+   * @throws JedisClusterMaxAttemptsException if some commands could not reach their node within
+   *           maxAttempts attempts, the Response objects of the other commands are complete
+   */
+  public void sync() {
+    if (queued.isEmpty()) {
+      return;
+    }
+    try {
+      execute();
+    } finally {
+      queued.clear();
+    }
+  }
+
+  /**
+   * Same as {@link #sync()}, returning the results in the order the commands were queued.
+   */
+  public List<Object> syncAndReturnAll() {
+    if (queued.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final List<QueuedCommand> commands = new ArrayList<QueuedCommand>(queued);
+    sync();
+    List<Object> formatted = new ArrayList<Object>(commands.size());
+    for (QueuedCommand command : commands) {
+      try {
+        formatted.add(command.response.get());
+      } catch (JedisDataException e) {
+        formatted.add(e);
+      }
+    }
+    return formatted;
+  }
+
+  /**
+   * @return the number of commands queued since the last sync
+   */
+  public int getQueuedCount() {
+    return queued.size();
+  }
+
+  @Override
+  public void close() {
+    sync();
+  }
+
+  private void execute() {
+    List<QueuedCommand> pending = new ArrayList<QueuedCommand>(queued);
+    JedisException failure = null;
+
+    for (int attempt = 1; !pending.isEmpty(); attempt++) {
+      runBatches(route(pending));
+
+      final boolean lastAttempt = attempt >= maxAttempts;
+      final List<QueuedCommand> retry = new ArrayList<QueuedCommand>();
+      boolean unreachable = false;
+      for (QueuedCommand command : pending) {
+        if (command.failure != null) {
+          unreachable = true;
+          command.redirect = null;
+          if (lastAttempt) {
+            failure = command.failure;
+          } else {
+            retry.add(command);
+          }
+        } else if (command.reply instanceof JedisRedirectionException && !lastAttempt) {
+          command.redirect = (JedisRedirectionException) command.reply;
+          if (command.reply instanceof JedisMovedDataException) {
+            connectionHandler.applyMovedRedirect((JedisMovedDataException) command.reply);
+          }
+          retry.add(command);
+        }
+      }
+
+      if (unreachable && attempt + 1 >= maxAttempts) {
+        // before giving up on a node
+        connectionHandler.renewSlotCache();
+      }
+      pending = retry;
+    }
+
+    for (QueuedCommand command : queued) {
+      if (command.failure == null) {
+        command.response.set(command.reply);
+      }
+    }
+    if (failure != null) {
+      throw new JedisClusterMaxAttemptsException("No more cluster attempts left.", failure);
+    }
+  }
+
+  private Map<JedisPool, List<QueuedCommand>> route(final List<QueuedCommand> commands) {
+    final JedisClusterInfoCache cache = connectionHandler.cache;
+    final Map<JedisPool, List<QueuedCommand>> batches =
+        new LinkedHashMap<JedisPool, List<QueuedCommand>>();
+    boolean renewed = false;
+    for (QueuedCommand command : commands) {
+      command.reply = null;
+      command.failure = null;
+      command.asking = false;
+
+      JedisPool pool;
+      if (command.redirect != null) {
+        pool = cache.setupNodeIfNotExist(command.redirect.getTargetNode());
+        command.asking = command.redirect instanceof JedisAskDataException;
+      } else {
+        pool = cache.getSlotPool(command.slot);
+        if (pool == null && !renewed) {
+          connectionHandler.renewSlotCache();
+          renewed = true;
+          pool = cache.getSlotPool(command.slot);
+        }
+        if (pool == null) {
+          // no choice, a random node redirects the command if needed
+          List<JedisPool> nodes = cache.getShuffledNodesPool();
+          if (nodes.isEmpty()) {
+            command.failure = new JedisNoReachableClusterNodeException(
+                "No reachable node in cluster");
+            continue;
+          }
+          pool = nodes.get(0);
+        }
+      }
+
+      List<QueuedCommand> batch = batches.get(pool);
+      if (batch == null) {
+        batch = new ArrayList<QueuedCommand>();
+        batches.put(pool, batch);
+      }
+      batch.add(command);
+    }
+    return batches;
+  }
+
+  private void runBatches(final Map<JedisPool, List<QueuedCommand>> batches) {
+    final List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>(batches.size());
+    NodeBatch own = null;
+    for (Map.Entry<JedisPool, List<QueuedCommand>> entry : batches.entrySet()) {
+      NodeBatch batch = new NodeBatch(entry.getKey(), entry.getValue());
+      if (own == null) {
+        own = batch;
+        continue;
+      }
+      FutureTask<Void> task = new FutureTask<Void>(batch, null);
+      executor.execute(task);
+      tasks.add(task);
+    }
+
+    if (own != null) {
+      own.run();
+    }
+    boolean interrupted = false;
+    try {
+      for (FutureTask<Void> task : tasks) {
+        while (true) {
+          try {
+            task.get();
+            break;
+          } catch (InterruptedException e) {
+            // the exchanges hold pooled connections, let them finish
+            interrupted = true;
+          } catch (ExecutionException e) {
+            throw new JedisException("Pipelined exchange with a cluster node failed", e.getCause());
+          }
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Sends the commands of one node on one connection, then reads their replies.
+   */
+  private class NodeBatch implements Runnable {
+    private final JedisPool pool;
+    private final List<QueuedCommand> commands;
+
+    private NodeBatch(final JedisPool pool, final List<QueuedCommand> commands) {
+      this.pool = pool;
+      this.commands = commands;
+    }
+
+    @Override
+    public void run() {
+      Jedis jedis = null;
+      int read = 0;
+      try {
+        jedis = pool.getResource();
+        final Client client = jedis.getClient();
+        for (QueuedCommand command : commands) {
+          if (command.asking) {
+            client.askingWithNextCommand();
+          }
+          client.sendCommand(command.command, command.args);
+        }
+        client.flush();
+        for (QueuedCommand command : commands) {
+          command.reply = client.getUnflushedOne();
+          read++;
+        }
+        connectionHandler.getNodeHealth().recordSuccess(pool);
+      } catch (JedisException e) {
+        if (e instanceof JedisConnectionException) {
+          connectionHandler.getNodeHealth().recordFailure(pool);
+        }
+        for (int i = read; i < commands.size(); i++) {
+          commands.get(i).failure = e;
+        }
+      } finally {
+        if (jedis != null) {
+          jedis.close();
+        }
+      }
+    }
+  }
+
+  private static class QueuedCommand {
+    private final int slot;
+    private final ProtocolCommand command;
+    private final byte[][] args;
+    private final Response<?> response;
+
+    private JedisRedirectionException redirect;
+    private boolean asking;
+    private Object reply;
+    private JedisException failure;
+
+    private QueuedCommand(final int slot, final ProtocolCommand command, final byte[][] args,
+        final Response<?> response) {
+      this.slot = slot;
+      this.command = command;
+      this.args = args;
+      this.response = response;
+    }
+  }
+
+  /**
+   * Captures the commands of the pipeline instead of sending them, so that they can be routed and
+   * sent again.
+   */
+  private static class RecordingClient extends Client {
+    private ProtocolCommand command;
+    private byte[][] args;
+
+    @Override
+    public void sendCommand(final ProtocolCommand cmd, final byte[]... args) {
+      this.command = cmd;
+      this.args = args;
+    }
+  }
+}
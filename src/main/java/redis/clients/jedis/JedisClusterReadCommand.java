@@ -0,0 +1,13 @@
+package redis.clients.jedis;
+
+/**
+ * A {@link JedisClusterCommand} which only reads, routed to a master or a replica according to the
+ * {@link ReadFrom} policy of the cluster.
+ */
+public abstract class JedisClusterReadCommand<T> extends JedisClusterCommand<T> {
+
+  public JedisClusterReadCommand(JedisClusterConnectionHandler connectionHandler,
+      int maxAttempts) {
+    super(connectionHandler, maxAttempts, true);
+  }
+}
@@ -13,6 +13,7 @@ import org.apache.commons.pool2.impl.DefaultPooledObject;
 
 import redis.clients.jedis.exceptions.InvalidURIException;
 import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.IoBufferPool;
 import redis.clients.jedis.util.JedisURIHelper;
 
 /**
@@ -29,6 +30,9 @@ class JedisFactory implements PooledObjectFactory<Jedis> {
   private final SSLSocketFactory sslSocketFactory;
   private final SSLParameters sslParameters;
   private final HostnameVerifier hostnameVerifier;
+  private volatile HostAndPortResolver hostAndPortResolver;
+  private volatile IoBufferPool ioBufferPool;
+  private volatile boolean readOnly;
 
   JedisFactory(final String host, final int port, final int connectionTimeout,
       final int soTimeout, final String password, final int database, final String clientName) {
@@ -77,8 +81,44 @@ class JedisFactory implements PooledObjectFactory<Jedis> {
     this.hostnameVerifier = hostnameVerifier;
   }
 
-  public void setHostAndPort(final HostAndPort hostAndPort) {
-    this.hostAndPort.set(hostAndPort);
+  public synchronized void setHostAndPort(final HostAndPort hostAndPort) {
+    final HostAndPort previous = this.hostAndPort.getAndSet(hostAndPort);
+    HostAndPortResolver resolver = this.hostAndPortResolver;
+    if (resolver != null) {
+      resolver.register(hostAndPort);
+      resolver.unregister(previous);
+    }
+  }
+
+  /**
+   * Use the given resolver cache for new connections. The current endpoint is registered with it,
+   * so it is resolved ahead of the first connect, and unregistered from the previous resolver.
+   * @param hostAndPortResolver the resolver, null to release the current one
+   */
+  public synchronized void setHostAndPortResolver(final HostAndPortResolver hostAndPortResolver) {
+    final HostAndPortResolver previous = this.hostAndPortResolver;
+    this.hostAndPortResolver = hostAndPortResolver;
+    if (hostAndPortResolver != null) {
+      hostAndPortResolver.register(this.hostAndPort.get());
+    }
+    if (previous != null) {
+      previous.unregister(this.hostAndPort.get());
+    }
+  }
+
+  public void setIoBufferPool(final IoBufferPool ioBufferPool) {
+    this.ioBufferPool = ioBufferPool;
+  }
+
+  /**
+   * Switch new connections to READONLY mode, so that a cluster replica serves reads of its slots.
+   */
+  public void setReadOnly(final boolean readOnly) {
+    this.readOnly = readOnly;
+  }
+
+  int getDatabase() {
+    return database;
   }
 
   @Override
@@ -112,6 +152,8 @@ class JedisFactory implements PooledObjectFactory<Jedis> {
     final HostAndPort hostAndPort = this.hostAndPort.get();
     final Jedis jedis = new Jedis(hostAndPort.getHost(), hostAndPort.getPort(), connectionTimeout,
         soTimeout, ssl, sslSocketFactory, sslParameters, hostnameVerifier);
+    jedis.getClient().setHostAndPortResolver(hostAndPortResolver);
+    jedis.getClient().setIoBufferPool(ioBufferPool);
 
     try {
       jedis.connect();
@@ -124,6 +166,9 @@ class JedisFactory implements PooledObjectFactory<Jedis> {
       if (clientName != null) {
         jedis.clientSetname(clientName);
       }
+      if (readOnly) {
+        jedis.readonly();
+      }
     } catch (JedisException je) {
       jedis.close();
       throw je;
@@ -136,6 +181,7 @@ class JedisFactory implements PooledObjectFactory<Jedis> {
   @Override
   public void passivateObject(PooledObject<Jedis> pooledJedis) throws Exception {
     // TODO maybe should select db 0? Not sure right now.
+    pooledJedis.getObject().getClient().releaseBuffers();
   }
 
   @Override
@@ -167,6 +167,10 @@ public class JedisPool extends JedisPoolAbstract {
         database, clientName, ssl, sslSocketFactory, sslParameters, hostnameVerifier));
   }
 
+  JedisPool(final GenericObjectPoolConfig poolConfig, final JedisFactory factory) {
+    super(poolConfig, factory);
+  }
+
   public JedisPool(final GenericObjectPoolConfig poolConfig) {
     this(poolConfig, Protocol.DEFAULT_HOST, Protocol.DEFAULT_PORT);
   }
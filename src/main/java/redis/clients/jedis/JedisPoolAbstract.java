@@ -6,6 +6,11 @@ import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import redis.clients.jedis.util.Pool;
 
 public class JedisPoolAbstract extends Pool<Jedis> {
+  // no initializer: initPool sets it from the super constructor, before initializers would run
+  private volatile int database;
+  private volatile PoolHealthChecker healthChecker;
+  // the factory wired to the resolver and buffers of the config, released with the pool
+  private volatile JedisFactory jedisFactory;
 
   public JedisPoolAbstract() {
     super();
@@ -15,6 +20,77 @@ public class JedisPoolAbstract extends Pool<Jedis> {
     super(poolConfig, factory);
   }
 
+  @Override
+  public void initPool(final GenericObjectPoolConfig poolConfig, PooledObjectFactory<Jedis> factory) {
+    GenericObjectPoolConfig config = poolConfig;
+    PoolHealthChecker checker = null;
+    if (poolConfig instanceof JedisPoolConfig) {
+      JedisPoolConfig jedisPoolConfig = (JedisPoolConfig) poolConfig;
+      checker = jedisPoolConfig.getHealthChecker();
+      if (checker != null && jedisPoolConfig.getTestWhileIdle()) {
+        // idle connections are checked by the health checker instead of the evictor
+        config = jedisPoolConfig.clone();
+        config.setTestWhileIdle(false);
+      }
+    }
+    database = factory instanceof JedisFactory ? ((JedisFactory) factory).getDatabase() : -1;
+
+    if (healthChecker != null) {
+      healthChecker.unregister(this);
+    }
+    // after the previous pool, if any, was closed and released its factory
+    super.initPool(config, factory, poolConfig instanceof JedisPoolConfig
+        && ((JedisPoolConfig) poolConfig).getConcurrentBagEnabled());
+    if (poolConfig instanceof JedisPoolConfig) {
+      enableFeatures((JedisPoolConfig) poolConfig, factory);
+    }
+    healthChecker = checker;
+    if (checker != null) {
+      checker.register(this);
+    }
+  }
+
+  private void enableFeatures(final JedisPoolConfig jedisPoolConfig,
+      final PooledObjectFactory<Jedis> factory) {
+    if (factory instanceof JedisFactory) {
+      jedisFactory = (JedisFactory) factory;
+      jedisFactory.setHostAndPortResolver(jedisPoolConfig.getHostAndPortResolver());
+      jedisFactory.setIoBufferPool(jedisPoolConfig.getIoBufferPool());
+    }
+    // a parked resource would bypass the admission by traffic class, so it is one or the other
+    if (!jedisPoolConfig.getTrafficClasses().isEmpty()) {
+      enableTrafficClasses(jedisPoolConfig.getTrafficClasses(), jedisPoolConfig.getMaxWaitMillis(),
+        jedisPoolConfig.getBlockWhenExhausted());
+    } else if (jedisPoolConfig.getThreadAffinityEnabled()) {
+      enableThreadAffinity(jedisPoolConfig.getThreadAffinityIdleTimeoutMillis());
+    }
+    if (jedisPoolConfig.getAdaptiveSizingEnabled()) {
+      enableAdaptiveSizing(jedisPoolConfig.getAdaptiveSizingMinTotal(),
+        jedisPoolConfig.getAdaptiveSizingMaxTotal(),
+        jedisPoolConfig.getAdaptiveSizingTargetWaitMillis(),
+        jedisPoolConfig.getAdaptiveSizingPeriodMillis());
+    }
+  }
+
+  @Override
+  protected void closeInternalPool() {
+    if (healthChecker != null) {
+      healthChecker.unregister(this);
+    }
+    final JedisFactory factory = jedisFactory;
+    if (factory != null) {
+      jedisFactory = null;
+      factory.setHostAndPortResolver(null);
+    }
+    super.closeInternalPool();
+  }
+
+  @Override
+  protected boolean canPark(Jedis resource) {
+    // a fresh borrow would select the database of the factory again
+    return database < 0 || resource.getDB() == database;
+  }
+
   @Override
   protected void returnBrokenResource(Jedis resource) {
     super.returnBrokenResource(resource);
@@ -24,4 +100,16 @@ public class JedisPoolAbstract extends Pool<Jedis> {
   protected void returnResource(Jedis resource) {
     super.returnResource(resource);
   }
+
+  Jedis pollIdleJedis() {
+    return pollIdleResource();
+  }
+
+  void returnCheckedJedis(final Jedis jedis, final boolean healthy) {
+    if (healthy) {
+      returnIdleResource(jedis);
+    } else {
+      returnBrokenResourceObject(jedis);
+    }
+  }
 }
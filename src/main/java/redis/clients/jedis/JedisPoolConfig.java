@@ -1,8 +1,27 @@
 package redis.clients.jedis;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
+import redis.clients.jedis.util.IoBufferPool;
+import redis.clients.jedis.util.TrafficClass;
+
 public class JedisPoolConfig extends GenericObjectPoolConfig {
+  private HostAndPortResolver hostAndPortResolver;
+  private boolean concurrentBagEnabled = false;
+  private boolean threadAffinityEnabled = false;
+  private long threadAffinityIdleTimeoutMillis = 1000;
+  private List<TrafficClass> trafficClasses = new ArrayList<TrafficClass>();
+  private PoolHealthChecker healthChecker;
+  private IoBufferPool ioBufferPool;
+  private boolean adaptiveSizingEnabled = false;
+  private int adaptiveSizingMinTotal = 1;
+  private int adaptiveSizingMaxTotal = 64;
+  private long adaptiveSizingTargetWaitMillis = 5;
+  private long adaptiveSizingPeriodMillis = 1000;
+
   public JedisPoolConfig() {
     // defaults to make your life with connection pool easier :)
     setTestWhileIdle(true);
@@ -10,4 +29,145 @@ public class JedisPoolConfig extends GenericObjectPoolConfig {
     setTimeBetweenEvictionRunsMillis(30000);
     setNumTestsPerEvictionRun(-1);
   }
+
+  public HostAndPortResolver getHostAndPortResolver() {
+    return hostAndPortResolver;
+  }
+
+  /**
+   * Sets a DNS cache used by the pools created with this config, e.g. all node pools of a
+   * JedisCluster. When not set, the host is resolved each time a connection is opened.
+   */
+  public void setHostAndPortResolver(final HostAndPortResolver hostAndPortResolver) {
+    this.hostAndPortResolver = hostAndPortResolver;
+  }
+
+  public boolean getConcurrentBagEnabled() {
+    return concurrentBagEnabled;
+  }
+
+  /**
+   * Backs the pool with a {@link redis.clients.jedis.util.ConcurrentBagPool} instead of
+   * commons-pool's GenericObjectPool. Borrowing and returning do not take a lock, which pays off
+   * with many threads borrowing for short commands. JMX registration is not supported in this mode.
+   */
+  public void setConcurrentBagEnabled(final boolean concurrentBagEnabled) {
+    this.concurrentBagEnabled = concurrentBagEnabled;
+  }
+
+  public boolean getThreadAffinityEnabled() {
+    return threadAffinityEnabled;
+  }
+
+  /**
+   * Keeps the connection a thread returns for its next borrow instead of putting it back into the
+   * pool. Such connections are not tested on borrow. A connection is handed back to the pool once
+   * its thread did not borrow it for the thread affinity idle timeout, or when another thread finds
+   * the pool exhausted.
+   */
+  public void setThreadAffinityEnabled(final boolean threadAffinityEnabled) {
+    this.threadAffinityEnabled = threadAffinityEnabled;
+  }
+
+  public long getThreadAffinityIdleTimeoutMillis() {
+    return threadAffinityIdleTimeoutMillis;
+  }
+
+  public void setThreadAffinityIdleTimeoutMillis(final long threadAffinityIdleTimeoutMillis) {
+    this.threadAffinityIdleTimeoutMillis = threadAffinityIdleTimeoutMillis;
+  }
+
+  public boolean getAdaptiveSizingEnabled() {
+    return adaptiveSizingEnabled;
+  }
+
+  /**
+   * Lets a {@link redis.clients.jedis.util.PoolSizeController} adjust maxTotal, maxIdle and minIdle
+   * of the pool at runtime, between the adaptive sizing min and max total. The values set on this
+   * config are only the starting point.
+   */
+  public void setAdaptiveSizingEnabled(final boolean adaptiveSizingEnabled) {
+    this.adaptiveSizingEnabled = adaptiveSizingEnabled;
+  }
+
+  public int getAdaptiveSizingMinTotal() {
+    return adaptiveSizingMinTotal;
+  }
+
+  public void setAdaptiveSizingMinTotal(final int adaptiveSizingMinTotal) {
+    this.adaptiveSizingMinTotal = adaptiveSizingMinTotal;
+  }
+
+  public int getAdaptiveSizingMaxTotal() {
+    return adaptiveSizingMaxTotal;
+  }
+
+  public void setAdaptiveSizingMaxTotal(final int adaptiveSizingMaxTotal) {
+    this.adaptiveSizingMaxTotal = adaptiveSizingMaxTotal;
+  }
+
+  public long getAdaptiveSizingTargetWaitMillis() {
+    return adaptiveSizingTargetWaitMillis;
+  }
+
+  /**
+   * The pool grows while the 90th percentile of borrow wait times is above this value.
+   */
+  public void setAdaptiveSizingTargetWaitMillis(final long adaptiveSizingTargetWaitMillis) {
+    this.adaptiveSizingTargetWaitMillis = adaptiveSizingTargetWaitMillis;
+  }
+
+  public long getAdaptiveSizingPeriodMillis() {
+    return adaptiveSizingPeriodMillis;
+  }
+
+  public void setAdaptiveSizingPeriodMillis(final long adaptiveSizingPeriodMillis) {
+    this.adaptiveSizingPeriodMillis = adaptiveSizingPeriodMillis;
+  }
+
+  public List<TrafficClass> getTrafficClasses() {
+    return trafficClasses;
+  }
+
+  /**
+   * Sets the traffic classes the borrowers of the pools are admitted by, see
+   * {@link TrafficClass}. Thread affinity is not used when traffic classes are set.
+   */
+  public void setTrafficClasses(final List<TrafficClass> trafficClasses) {
+    this.trafficClasses = new ArrayList<TrafficClass>(trafficClasses);
+  }
+
+  public void addTrafficClass(final TrafficClass trafficClass) {
+    this.trafficClasses.add(trafficClass);
+  }
+
+  public PoolHealthChecker getHealthChecker() {
+    return healthChecker;
+  }
+
+  /**
+   * Sets a checker which pings the idle connections of the pools created with this config in the
+   * background, e.g. all node pools of a JedisCluster. Those pools do not test idle connections in
+   * the evictor, whatever testWhileIdle is set to.
+   */
+  public void setHealthChecker(final PoolHealthChecker healthChecker) {
+    this.healthChecker = healthChecker;
+  }
+
+  public IoBufferPool getIoBufferPool() {
+    return ioBufferPool;
+  }
+
+  /**
+   * Lets the connections of the pools created with this config take their I/O buffers from the
+   * given shared pool while they are borrowed, instead of each holding its own for its lifetime.
+   */
+  public void setIoBufferPool(final IoBufferPool ioBufferPool) {
+    this.ioBufferPool = ioBufferPool;
+  }
+
+  @Override
+  public JedisPoolConfig clone() {
+    return (JedisPoolConfig) super.clone();
+  }
 }
@@ -140,7 +140,7 @@ public class JedisSentinelPool extends JedisPoolAbstract {
           // returned object
           // in getResource, this call only clears idle instances, not
           // borrowed instances
-          internalPool.clear();
+          clearInternalPool();
         }
 
         log.info("Created JedisPool to master at " + master);
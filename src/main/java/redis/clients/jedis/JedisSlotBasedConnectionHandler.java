@@ -1,18 +1,24 @@
 package redis.clients.jedis;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSocketFactory;
 
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
+import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.exceptions.JedisNoReachableClusterNodeException;
 
 public class JedisSlotBasedConnectionHandler extends JedisClusterConnectionHandler {
 
+  private final AtomicInteger nodeCounter = new AtomicInteger();
+
   public JedisSlotBasedConnectionHandler(Set<HostAndPort> nodes,
       final GenericObjectPoolConfig poolConfig, int timeout) {
     this(nodes, poolConfig, timeout, timeout);
@@ -36,19 +42,51 @@ public class JedisSlotBasedConnectionHandler extends JedisClusterConnectionHandl
     super(nodes, poolConfig, connectionTimeout, soTimeout, password, clientName, ssl, sslSocketFactory, sslParameters, hostnameVerifier, portMap);
   }
 
+  /**
+   * Gets a connection to any master. Masters known to answer, by real traffic or by the probes of
+   * the {@link ClusterTopologyManager}, are taken in turns and used without PING; only if none is
+   * known to answer are the masters pinged one by one.
+   */
   @Override
   public Jedis getConnection() {
+    final JedisPool[] pools = cache.getMasterPools();
+    final int first = nodeCounter.getAndIncrement() & Integer.MAX_VALUE;
+    for (int i = 0; i < pools.length; i++) {
+      final JedisPool pool = pools[(first + i) % pools.length];
+      if (!nodeHealth.isResponsive(pool) || !nodeHealth.isHealthy(pool)) {
+        continue;
+      }
+      try {
+        return getResource(pool);
+      } catch (JedisException ex) {
+        // try next nodes
+      }
+    }
+    return getPingedConnection();
+  }
+
+  private Jedis getPingedConnection() {
     // In antirez's redis-rb-cluster implementation,
     // getRandomConnection always return valid connection (able to
     // ping-pong)
     // or exception if all connections are invalid
 
     List<JedisPool> pools = cache.getShuffledNodesPool();
+    // nodes which failed lately are tried last
+    List<JedisPool> unhealthy = new ArrayList<JedisPool>();
+    for (Iterator<JedisPool> it = pools.iterator(); it.hasNext();) {
+      JedisPool pool = it.next();
+      if (!nodeHealth.isHealthy(pool)) {
+        it.remove();
+        unhealthy.add(pool);
+      }
+    }
+    pools.addAll(unhealthy);
 
     for (JedisPool pool : pools) {
       Jedis jedis = null;
       try {
-        jedis = pool.getResource();
+        jedis = getResource(pool);
 
         if (jedis == null) {
           continue;
@@ -56,9 +94,17 @@ public class JedisSlotBasedConnectionHandler extends JedisClusterConnectionHandl
 
         String result = jedis.ping();
 
-        if (result.equalsIgnoreCase("pong")) return jedis;
+        if (result.equalsIgnoreCase("pong")) {
+          nodeHealth.recordSuccess(pool);
+          return jedis;
+        }
 
         jedis.close();
+      } catch (JedisConnectionException ex) {
+        if (jedis != null) {
+          nodeHealth.recordFailure(pool);
+          jedis.close();
+        }
       } catch (JedisException ex) {
         if (jedis != null) {
           jedis.close();
@@ -75,12 +121,12 @@ public class JedisSlotBasedConnectionHandler extends JedisClusterConnectionHandl
     if (connectionPool != null) {
       // It can't guaranteed to get valid connection because of node
       // assignment
-      return connectionPool.getResource();
+      return getResource(connectionPool);
     } else {
       renewSlotCache(); //It's abnormal situation for cluster mode, that we have just nothing for slot, try to rediscover state
       connectionPool = cache.getSlotPool(slot);
       if (connectionPool != null) {
-        return connectionPool.getResource();
+        return getResource(connectionPool);
       } else {
         //no choice, fallback to new connection to random node
         return getConnection();
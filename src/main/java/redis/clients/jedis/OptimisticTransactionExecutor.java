@@ -0,0 +1,197 @@
+package redis.clients.jedis;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisTransactionConflictException;
+import redis.clients.jedis.util.Pool;
+
+/**
+ * Runs check-and-set transactions: WATCH, reads, then MULTI/EXEC, retried while EXEC fails because
+ * a watched key changed.
+ * <p>
+ * An attempt costs two round trips: WATCH is pipelined with the reads of the {@link Operation},
+ * then MULTI, the writes and EXEC are sent in one flush. Between attempts the executor sleeps for
+ * a random time up to a bound which doubles with every conflict, from baseBackoffMillis up to
+ * maxBackoffMillis, so that contending clients spread out. One executor may be shared by many
+ * threads, its counters describe the contention seen by all of them.
+ */
+public class OptimisticTransactionExecutor {
+  public static final int DEFAULT_MAX_ATTEMPTS = 10;
+  public static final long DEFAULT_BASE_BACKOFF_MILLIS = 1;
+  public static final long DEFAULT_MAX_BACKOFF_MILLIS = 100;
+
+  /**
+   * The reads and writes of a transaction.
+   */
+  public interface Operation {
+
+    /**
+     * Queues the reads the writes depend on. Their Response objects are complete when
+     * {@link #write(Transaction)} is called.
+     */
+    void read(Pipeline pipeline);
+
+    /**
+     * Queues the writes, which are applied only if no watched key changed since the reads.
+     * @return false to give up without writing anything
+     */
+    boolean write(Transaction transaction);
+  }
+
+  private final int maxAttempts;
+  private final long baseBackoffMillis;
+  private final long maxBackoffMillis;
+
+  private final AtomicLong executionCount = new AtomicLong();
+  private final AtomicLong commitCount = new AtomicLong();
+  private final AtomicLong conflictCount = new AtomicLong();
+  private final AtomicLong abortCount = new AtomicLong();
+  private final AtomicLong exhaustedCount = new AtomicLong();
+  private final AtomicLong backoffMillis = new AtomicLong();
+
+  public OptimisticTransactionExecutor() {
+    this(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS);
+  }
+
+  public OptimisticTransactionExecutor(final int maxAttempts, final long baseBackoffMillis,
+      final long maxBackoffMillis) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("At least one attempt is required");
+    }
+    if (baseBackoffMillis < 0 || maxBackoffMillis < baseBackoffMillis) {
+      throw new IllegalArgumentException("Invalid backoff, expected 0 <= base <= max");
+    }
+    this.maxAttempts = maxAttempts;
+    this.baseBackoffMillis = baseBackoffMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+  }
+
+  /**
+   * Runs the operation on a connection borrowed from the pool for all its attempts.
+   */
+  public List<Object> execute(final Pool<Jedis> pool, final Operation operation,
+      final String... watchedKeys) {
+    try (Jedis jedis = pool.getResource()) {
+      return execute(jedis, operation, watchedKeys);
+    }
+  }
+
+  /**
+   * Runs the operation until its transaction commits.
+   * @return the results of the writes, or null if the operation gave up
+   * @throws JedisTransactionConflictException if watched keys kept changing for all attempts
+   */
+  public List<Object> execute(final Jedis jedis, final Operation operation,
+      final String... watchedKeys) {
+    if (watchedKeys.length == 0) {
+      throw new IllegalArgumentException("At least one key must be watched");
+    }
+    executionCount.incrementAndGet();
+    final Client client = jedis.getClient();
+
+    for (int attempt = 1;; attempt++) {
+      final Pipeline reads = new Pipeline();
+      reads.setClient(client);
+      reads.watch(watchedKeys);
+      try {
+        operation.read(reads);
+      } finally {
+        // also if the operation failed, its keys then stay watched until the connection is reset
+        reads.sync();
+      }
+
+      client.multi();
+      final Transaction transaction = new Transaction(client);
+      final boolean proceed;
+      try {
+        proceed = operation.write(transaction);
+      } catch (RuntimeException e) {
+        transaction.discardPipelined();
+        throw e;
+      }
+      if (!proceed) {
+        // DISCARD also unwatches the keys
+        transaction.discardPipelined();
+        abortCount.incrementAndGet();
+        return null;
+      }
+
+      final List<Object> results = transaction.execPipelined();
+      if (results != null) {
+        commitCount.incrementAndGet();
+        return results;
+      }
+
+      conflictCount.incrementAndGet();
+      if (attempt >= maxAttempts) {
+        exhaustedCount.incrementAndGet();
+        throw new JedisTransactionConflictException("Transaction still conflicting after "
+            + attempt + " attempts");
+      }
+      backoff(attempt);
+    }
+  }
+
+  public long getExecutionCount() {
+    return executionCount.get();
+  }
+
+  public long getCommitCount() {
+    return commitCount.get();
+  }
+
+  /**
+   * @return the number of attempts whose EXEC failed because a watched key changed
+   */
+  public long getConflictCount() {
+    return conflictCount.get();
+  }
+
+  /**
+   * @return the number of executions the operation gave up
+   */
+  public long getAbortCount() {
+    return abortCount.get();
+  }
+
+  /**
+   * @return the number of executions which ran out of attempts
+   */
+  public long getExhaustedCount() {
+    return exhaustedCount.get();
+  }
+
+  public long getBackoffMillis() {
+    return backoffMillis.get();
+  }
+
+  /**
+   * @return the share of EXECs which failed because of a conflict, between 0 and 1
+   */
+  public double getConflictRate() {
+    long conflicts = conflictCount.get();
+    long total = conflicts + commitCount.get();
+    return total == 0 ? 0 : (double) conflicts / total;
+  }
+
+  private void backoff(final int attempt) {
+    if (baseBackoffMillis == 0) {
+      return;
+    }
+    long bound = baseBackoffMillis << Math.min(attempt - 1, 30);
+    if (bound <= 0 || bound > maxBackoffMillis) {
+      bound = maxBackoffMillis;
+    }
+    final long millis = ThreadLocalRandom.current().nextLong(bound + 1);
+    backoffMillis.addAndGet(millis);
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JedisException("Interrupted while backing off from a transaction conflict", e);
+    }
+  }
+}
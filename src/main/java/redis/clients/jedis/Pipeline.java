@@ -76,6 +76,12 @@ public class Pipeline extends MultiKeyPipelineBase implements Closeable {
     return client;
   }
 
+  /**
+   * Gets the pipeline ready for a new batch of commands: an open MULTI is discarded and the replies
+   * of the commands sent so far are read. The pipeline keeps its response queue at the size the
+   * largest batch grew it to, so reusing it instead of creating a new one per batch saves
+   * allocations.
+   */
   public void clear() {
     if (isInMulti()) {
       discard();
@@ -94,10 +100,11 @@ public class Pipeline extends MultiKeyPipelineBase implements Closeable {
    * commands you execute.
    */
   public void sync() {
-    if (getPipelinedResponseLength() > 0) {
-      List<Object> unformatted = client.getMany(getPipelinedResponseLength());
-      for (Object o : unformatted) {
-        generateResponse(o);
+    final int count = getPipelinedResponseLength();
+    if (count > 0) {
+      client.flush();
+      for (int i = 0; i < count; i++) {
+        generateResponse(client.getUnflushedOne());
       }
     }
   }
@@ -109,12 +116,13 @@ public class Pipeline extends MultiKeyPipelineBase implements Closeable {
    * @return A list of all the responses in the order you executed them.
    */
   public List<Object> syncAndReturnAll() {
-    if (getPipelinedResponseLength() > 0) {
-      List<Object> unformatted = client.getMany(getPipelinedResponseLength());
-      List<Object> formatted = new ArrayList<Object>();
-      for (Object o : unformatted) {
+    final int count = getPipelinedResponseLength();
+    if (count > 0) {
+      client.flush();
+      List<Object> formatted = new ArrayList<Object>(count);
+      for (int i = 0; i < count; i++) {
         try {
-          formatted.add(generateResponse(o).get());
+          formatted.add(generateResponse(client.getUnflushedOne()).get());
         } catch (JedisDataException e) {
           formatted.add(e);
         }
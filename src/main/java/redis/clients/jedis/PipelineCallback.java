@@ -0,0 +1,14 @@
+package redis.clients.jedis;
+
+/**
+ * Receives the results of the commands of a {@link BoundedPipeline} or {@link DuplexPipeline}, in
+ * the order the commands were sent.
+ */
+public interface PipelineCallback {
+
+  /**
+   * @param index position of the command in the pipeline, starting at 0
+   * @param response the built result of the command, or the JedisDataException Redis replied with
+   */
+  void onResponse(long index, Object response);
+}
@@ -0,0 +1,209 @@
+package redis.clients.jedis;
+
+import java.io.Closeable;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.DaemonThreadFactory;
+
+/**
+ * Checks the idle connections of Jedis pools in the background, replacing testWhileIdle.
+ * <p>
+ * Each run takes at most maxChecksPerPool idle connections of every registered pool, always
+ * leaving one idle for borrowers arriving meanwhile, and writes a PING on every one of them before
+ * reading any reply, so that a run costs about one round trip whatever the number of nodes. Each
+ * connection goes back to its pool as soon as its reply is read; replies which did not arrive
+ * within the run timeout are treated as dead connections, so a hung node cannot hold the
+ * connections of the other pools. Dead connections are destroyed, then pools below minIdle are
+ * refilled. Pools with waiting borrowers are skipped. One instance with its single thread is meant
+ * to be shared by many pools, e.g. by setting it on the {@link JedisPoolConfig} of a JedisCluster.
+ */
+public class PoolHealthChecker implements Closeable {
+  public static final long DEFAULT_INTERVAL_MILLIS = 30000;
+  public static final int DEFAULT_MAX_CHECKS_PER_POOL = 8;
+  public static final long DEFAULT_RUN_TIMEOUT_MILLIS = 1000;
+
+  private static final Logger log = LoggerFactory.getLogger(PoolHealthChecker.class);
+
+  private final Set<JedisPoolAbstract> pools = new CopyOnWriteArraySet<JedisPoolAbstract>();
+  private final ScheduledExecutorService executor;
+  private final int maxChecksPerPool;
+  private final long runTimeoutMillis;
+
+  private final AtomicLong checkedCount = new AtomicLong();
+  private final AtomicLong evictedCount = new AtomicLong();
+  private final AtomicLong createdCount = new AtomicLong();
+
+  public PoolHealthChecker() {
+    this(DEFAULT_INTERVAL_MILLIS);
+  }
+
+  public PoolHealthChecker(final long intervalMillis) {
+    this(intervalMillis, DEFAULT_MAX_CHECKS_PER_POOL, DEFAULT_RUN_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * @param intervalMillis delay between two runs
+   * @param maxChecksPerPool number of idle connections checked per pool and run at most
+   * @param runTimeoutMillis time after which a run stops waiting for replies
+   */
+  public PoolHealthChecker(final long intervalMillis, final int maxChecksPerPool,
+      final long runTimeoutMillis) {
+    if (intervalMillis <= 0 || maxChecksPerPool <= 0 || runTimeoutMillis <= 0) {
+      throw new IllegalArgumentException("Interval, checks and timeout must be positive");
+    }
+    this.maxChecksPerPool = maxChecksPerPool;
+    this.runTimeoutMillis = runTimeoutMillis;
+    this.executor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory(
+        "jedis-health-checker"));
+    executor.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          checkNow();
+        } catch (RuntimeException e) {
+          log.warn("Health check of pooled connections failed.", e);
+        }
+      }
+    }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  public void register(final JedisPoolAbstract pool) {
+    pools.add(pool);
+  }
+
+  public void unregister(final JedisPoolAbstract pool) {
+    pools.remove(pool);
+  }
+
+  /**
+   * Runs a check of all registered pools on the calling thread.
+   */
+  public synchronized void checkNow() {
+    final long deadline = System.currentTimeMillis() + runTimeoutMillis;
+    final List<Probe> probes = new ArrayList<Probe>();
+    for (JedisPoolAbstract pool : pools) {
+      if (pool.isClosed()) {
+        pools.remove(pool);
+      } else if (pool.getNumWaiters() == 0 && System.currentTimeMillis() < deadline) {
+        sendPings(pool, probes);
+      }
+    }
+
+    for (Probe probe : probes) {
+      giveBack(probe.pool, probe.jedis, readPong(probe.jedis, deadline));
+    }
+
+    for (JedisPoolAbstract pool : pools) {
+      refill(pool);
+    }
+  }
+
+  public long getCheckedCount() {
+    return checkedCount.get();
+  }
+
+  public long getEvictedCount() {
+    return evictedCount.get();
+  }
+
+  public long getCreatedCount() {
+    return createdCount.get();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    pools.clear();
+  }
+
+  private void sendPings(final JedisPoolAbstract pool, final List<Probe> probes) {
+    final int idle = pool.getNumIdle() - pool.getNumParked();
+    final int count = Math.min(maxChecksPerPool, idle - 1);
+    for (int i = 0; i < count; i++) {
+      final Jedis jedis = pool.pollIdleJedis();
+      if (jedis == null) {
+        break;
+      }
+      try {
+        Client client = jedis.getClient();
+        client.ping();
+        client.flush();
+        probes.add(new Probe(pool, jedis));
+      } catch (JedisException e) {
+        giveBack(pool, jedis, false);
+      }
+    }
+  }
+
+  private boolean readPong(final Jedis jedis, final long deadline) {
+    // once the run timed out, only replies which already arrived are read
+    final long remaining = Math.max(1, deadline - System.currentTimeMillis());
+    final Client client = jedis.getClient();
+    final int soTimeout = client.getSoTimeout();
+    final long timeout = soTimeout > 0 ? Math.min(soTimeout, remaining) : remaining;
+    try {
+      client.getSocket().setSoTimeout((int) timeout);
+      final String reply = client.getStatusCodeReply();
+      client.rollbackTimeout();
+      return "PONG".equals(reply);
+    } catch (JedisException e) {
+      return false;
+    } catch (SocketException e) {
+      return false;
+    }
+  }
+
+  private void giveBack(final JedisPoolAbstract pool, final Jedis jedis, final boolean healthy) {
+    checkedCount.incrementAndGet();
+    if (!healthy) {
+      evictedCount.incrementAndGet();
+    }
+    try {
+      pool.returnCheckedJedis(jedis, healthy);
+    } catch (JedisException e) {
+      log.debug("Could not give back a checked connection.", e);
+    }
+  }
+
+  private void refill(final JedisPoolAbstract pool) {
+    if (pool.isClosed()) {
+      return;
+    }
+    int missing = pool.getMinIdle() - pool.getNumIdle();
+    int maxTotal = pool.getMaxTotal();
+    if (maxTotal >= 0) {
+      missing = Math.min(missing, maxTotal - pool.getNumActive() - pool.getNumIdle());
+    }
+    if (missing <= 0) {
+      return;
+    }
+    try {
+      pool.addObjects(missing);
+      createdCount.addAndGet(missing);
+    } catch (JedisException e) {
+      log.debug("Could not refill the pool up to minIdle.", e);
+    }
+  }
+
+  private static class Probe {
+    private final JedisPoolAbstract pool;
+    private final Jedis jedis;
+
+    private Probe(final JedisPoolAbstract pool, final Jedis jedis) {
+      this.pool = pool;
+      this.jedis = jedis;
+    }
+  }
+}
@@ -13,6 +13,7 @@ import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.exceptions.JedisMovedDataException;
 import redis.clients.jedis.exceptions.JedisNoScriptException;
+import redis.clients.jedis.exceptions.JedisTryAgainException;
 import redis.clients.jedis.util.RedisInputStream;
 import redis.clients.jedis.util.RedisOutputStream;
 import redis.clients.jedis.util.SafeEncoder;
@@ -22,6 +23,7 @@ public final class Protocol {
   private static final String ASK_PREFIX = "ASK ";
   private static final String MOVED_PREFIX = "MOVED ";
   private static final String CLUSTERDOWN_PREFIX = "CLUSTERDOWN ";
+  private static final String TRYAGAIN_PREFIX = "TRYAGAIN ";
   private static final String BUSY_PREFIX = "BUSY ";
   private static final String NOSCRIPT_PREFIX = "NOSCRIPT ";
 
@@ -124,6 +126,8 @@ public final class Protocol {
           Integer.parseInt(askInfo[2])), Integer.parseInt(askInfo[0]));
     } else if (message.startsWith(CLUSTERDOWN_PREFIX)) {
       throw new JedisClusterException(message);
+    } else if (message.startsWith(TRYAGAIN_PREFIX)) {
+      throw new JedisTryAgainException(message);
     } else if (message.startsWith(BUSY_PREFIX)) {
       throw new JedisBusyException(message);
     } else if (message.startsWith(NOSCRIPT_PREFIX) ) {
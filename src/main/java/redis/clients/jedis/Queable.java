@@ -1,34 +1,60 @@
 package redis.clients.jedis;
 
-import java.util.LinkedList;
-import java.util.Queue;
-
 public class Queable {
-  private Queue<Response<?>> pipelinedResponses = new LinkedList<Response<?>>();
+  private static final int INITIAL_CAPACITY = 16;
+
+  // ring buffer of the responses waiting for a reply, its capacity is a power of two
+  private Response<?>[] pipelinedResponses = new Response<?>[INITIAL_CAPACITY];
+  private int head = 0;
+  private int size = 0;
 
   protected void clean() {
-    pipelinedResponses.clear();
+    final int mask = pipelinedResponses.length - 1;
+    for (int i = 0; i < size; i++) {
+      pipelinedResponses[(head + i) & mask] = null;
+    }
+    head = 0;
+    size = 0;
   }
 
   protected Response<?> generateResponse(Object data) {
-    Response<?> response = pipelinedResponses.poll();
-    if (response != null) {
-      response.set(data);
+    if (size == 0) {
+      return null;
+    }
+    Response<?> response = pipelinedResponses[head];
+    pipelinedResponses[head] = null;
+    head = (head + 1) & (pipelinedResponses.length - 1);
+    if (--size == 0) {
+      head = 0;
     }
+    response.set(data);
     return response;
   }
 
   protected <T> Response<T> getResponse(Builder<T> builder) {
     Response<T> lr = new Response<T>(builder);
-    pipelinedResponses.add(lr);
+    if (size == pipelinedResponses.length) {
+      grow();
+    }
+    pipelinedResponses[(head + size) & (pipelinedResponses.length - 1)] = lr;
+    size++;
     return lr;
   }
 
   protected boolean hasPipelinedResponse() {
-    return !pipelinedResponses.isEmpty();
+    return size > 0;
   }
 
   protected int getPipelinedResponseLength() {
-    return pipelinedResponses.size();
+    return size;
+  }
+
+  private void grow() {
+    final Response<?>[] grown = new Response<?>[pipelinedResponses.length << 1];
+    final int firstPart = pipelinedResponses.length - head;
+    System.arraycopy(pipelinedResponses, head, grown, 0, firstPart);
+    System.arraycopy(pipelinedResponses, 0, grown, firstPart, head);
+    pipelinedResponses = grown;
+    head = 0;
   }
 }
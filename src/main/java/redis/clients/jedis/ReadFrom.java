@@ -0,0 +1,30 @@
+package redis.clients.jedis;
+
+/**
+ * Where {@link JedisCluster} sends read-only commands, see
+ * {@link BinaryJedisCluster#setReadFrom(ReadFrom)}. Replica connections are switched to READONLY
+ * mode when they are opened, the replica of a slot is chosen according to the
+ * {@link ReplicaSelection}. Replicas replicate asynchronously, so reads from them may return stale
+ * data.
+ */
+public enum ReadFrom {
+  /**
+   * Read from the master of the slot, the default.
+   */
+  MASTER,
+
+  /**
+   * Read from a replica of the slot, or from the master if the slot has no reachable replica.
+   */
+  REPLICA_PREFERRED,
+
+  /**
+   * Read from a replica of the slot only, fail if it has no reachable replica.
+   */
+  REPLICA_ONLY,
+
+  /**
+   * Read from the master or the replica of the slot which answered reads the fastest lately.
+   */
+  NEAREST
+}
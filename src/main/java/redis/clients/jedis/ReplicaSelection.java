@@ -0,0 +1,17 @@
+package redis.clients.jedis;
+
+/**
+ * How the replica serving a read is chosen among the replicas of a slot, see {@link ReadFrom}.
+ */
+public enum ReplicaSelection {
+  /**
+   * Take turns between the replicas.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * Take the replica with the fewest borrowed connections, that is the fewest commands in flight
+   * from this client.
+   */
+  LEAST_LOADED
+}
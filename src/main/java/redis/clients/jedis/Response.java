@@ -1,18 +1,48 @@
 package redis.clients.jedis;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
 
 public class Response<T> {
+  private static final Logger log = LoggerFactory.getLogger(Response.class);
+
+  /**
+   * Builds the response it is added to as soon as its reply is read, which for the EXEC of a
+   * pipelined MULTI sets the responses of the queued commands and so runs their callbacks.
+   */
+  private static final ResponseCallback<Object> BUILD = new ResponseCallback<Object>() {
+    @Override
+    public void onSuccess(Object result) {
+    }
+
+    @Override
+    public void onFailure(JedisDataException error) {
+    }
+  };
+
   protected T response = null;
   protected JedisDataException exception = null;
 
   private boolean building = false;
-  private boolean built = false;
-  private boolean set = false;
+  private volatile boolean built = false;
+  private volatile boolean set = false;
+  // true once a callback or a waiter was registered, until then replies take no lock
+  private volatile boolean observed = false;
 
   private Builder<T> builder;
   private Object data;
   private Response<?> dependency = null;
+  private List<ResponseCallback<? super T>> callbacks = null;
 
   public Response(Builder<T> b) {
     this.builder = b;
@@ -21,6 +51,21 @@ public class Response<T> {
   public void set(Object data) {
     this.data = data;
     set = true;
+    // observers flag themselves before checking set, so either they see it or it sees them
+    if (!observed) {
+      return;
+    }
+    final List<ResponseCallback<? super T>> notified;
+    synchronized (this) {
+      notified = callbacks;
+      callbacks = null;
+      notifyAll();
+    }
+    if (notified != null) {
+      for (ResponseCallback<? super T> callback : notified) {
+        complete(callback);
+      }
+    }
   }
 
   public T get() {
@@ -42,13 +87,177 @@ public class Response<T> {
     return response;
   }
 
+  /**
+   * Waits for the reply to be read by another thread, for instance the reader of a
+   * {@link DuplexPipeline}, then returns like {@link #get()}.
+   * @throws JedisException if no reply was read within the timeout
+   */
+  public T get(long timeout, TimeUnit unit) {
+    if (!await(unit.toNanos(timeout))) {
+      throw new JedisException("No reply within " + timeout + " " + unit);
+    }
+    return get();
+  }
+
+  /**
+   * @return true once the reply of the command has been read
+   */
+  public boolean isSet() {
+    return set;
+  }
+
+  /**
+   * Registers a callback run with the result as soon as the reply is read, from within the sync of
+   * the pipeline or the exec of the transaction. If the reply was already read the callback runs
+   * immediately on the calling thread. Exceptions thrown by callbacks are logged and ignored, so
+   * that the other replies are still processed.
+   */
+  public void addCallback(ResponseCallback<? super T> callback) {
+    final boolean queued;
+    synchronized (this) {
+      observed = true;
+      queued = !set;
+      if (queued) {
+        if (callbacks == null) {
+          callbacks = new ArrayList<ResponseCallback<? super T>>(1);
+        }
+        callbacks.add(callback);
+      }
+    }
+    if (!queued) {
+      complete(callback);
+    } else if (dependency != null) {
+      dependency.buildWhenSet();
+    }
+  }
+
+  /**
+   * @return a Future completing when the reply is read, failing with an ExecutionException
+   *         wrapping the JedisDataException Redis replied with. It cannot be cancelled.
+   */
+  public Future<T> toFuture() {
+    return new Future<T>() {
+      @Override
+      public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return false;
+      }
+
+      @Override
+      public boolean isDone() {
+        return set;
+      }
+
+      @Override
+      public T get() throws InterruptedException, ExecutionException {
+        synchronized (Response.this) {
+          observed = true;
+          while (!set) {
+            Response.this.wait();
+          }
+        }
+        return result();
+      }
+
+      @Override
+      public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException,
+          TimeoutException {
+        if (!awaitInterruptibly(unit.toNanos(timeout))) {
+          throw new TimeoutException();
+        }
+        return result();
+      }
+
+      private T result() throws ExecutionException {
+        try {
+          return Response.this.get();
+        } catch (JedisDataException e) {
+          throw new ExecutionException(e);
+        }
+      }
+    };
+  }
+
   public void setDependency(Response<?> dependency) {
     this.dependency = dependency;
+    if (!observed) {
+      return;
+    }
+    final boolean hasCallbacks;
+    synchronized (this) {
+      hasCallbacks = callbacks != null;
+    }
+    if (hasCallbacks) {
+      dependency.buildWhenSet();
+    }
+  }
+
+  private synchronized void buildWhenSet() {
+    if (!set && (callbacks == null || !callbacks.contains(BUILD))) {
+      addCallback(BUILD);
+    }
+  }
+
+  private void complete(ResponseCallback<? super T> callback) {
+    try {
+      final T result;
+      try {
+        result = get();
+      } catch (JedisDataException e) {
+        callback.onFailure(e);
+        return;
+      }
+      callback.onSuccess(result);
+    } catch (RuntimeException e) {
+      log.warn("Response callback failed.", e);
+    }
+  }
+
+  private boolean await(long nanos) {
+    try {
+      return awaitInterruptibly(nanos);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JedisException("Interrupted while waiting for a reply", e);
+    }
+  }
+
+  private boolean awaitInterruptibly(long nanos) throws InterruptedException {
+    if (set) {
+      return true;
+    }
+    final long deadline = System.nanoTime() + nanos;
+    synchronized (this) {
+      observed = true;
+      while (!set) {
+        if (nanos <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(this, nanos);
+        nanos = deadline - System.nanoTime();
+      }
+    }
+    return true;
   }
 
   private void build() {
+    if (!observed) {
+      buildReply();
+      return;
+    }
+    // callbacks may build on the reading thread while the owner calls get()
+    synchronized (this) {
+      buildReply();
+    }
+  }
+
+  private void buildReply() {
     // check build state to prevent recursion
-    if (building) {
+    if (building || built) {
       return;
     }
 
@@ -0,0 +1,21 @@
+package redis.clients.jedis;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * Notified when the reply of a pipelined or transactional command is read, see
+ * {@link Response#addCallback(ResponseCallback)}. Callbacks run on the thread reading the replies,
+ * while it holds the connection, so they should be short.
+ */
+public interface ResponseCallback<T> {
+
+  /**
+   * @param result the built result of the command
+   */
+  void onSuccess(T result);
+
+  /**
+   * @param error the error Redis replied with, or the failure to build the result
+   */
+  void onFailure(JedisDataException error);
+}
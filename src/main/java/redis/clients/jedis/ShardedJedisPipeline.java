@@ -1,36 +1,53 @@
 package redis.clients.jedis;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.util.DaemonThreadFactory;
+
+/**
+ * A pipeline over the shards of a {@link BinaryShardedJedis}. On sync the buffers of all shards
+ * are flushed at once, then the replies of each shard are read in parallel and handed back in the
+ * order the commands were sent.
+ */
 public class ShardedJedisPipeline extends PipelineBase {
+  private static final ExecutorService READER_EXECUTOR = Executors
+      .newCachedThreadPool(new DaemonThreadFactory("jedis-shard-reader"));
+
   private BinaryShardedJedis jedis;
-  private List<FutureResult> results = new ArrayList<>();
-  private Queue<Client> clients = new LinkedList<>();
 
-  private static class FutureResult {
-    private Client client;
-
-    public FutureResult(Client client) {
-      this.client = client;
-    }
-
-    public Object get() {
-      return client.getOne();
-    }
-  }
+  // clients of the shards used so far, and the index in it of the shard of every command
+  private final List<Client> shards = new ArrayList<Client>();
+  private int[] commandShards = new int[16];
+  private int commandCount = 0;
+  private Client lastClient;
+  private int lastShard;
 
   public void setShardedJedis(BinaryShardedJedis jedis) {
     this.jedis = jedis;
   }
 
+  /**
+   * Reads the replies of all the commands sent so far.
+   * @return the raw replies, in the order the commands were sent
+   * @throws JedisDataException the first error reply, once all replies were read
+   */
   public List<Object> getResults() {
-    List<Object> r = new ArrayList<Object>();
-    for (FutureResult fr : results) {
-      r.add(fr.get());
+    Object[] replies = readReplies();
+    List<Object> r = new ArrayList<Object>(replies.length);
+    for (Object reply : replies) {
+      generateResponse(reply);
+      r.add(reply);
     }
+    throwFirstError(replies);
     return r;
   }
 
@@ -38,11 +55,14 @@ public class ShardedJedisPipeline extends PipelineBase {
    * Synchronize pipeline by reading all responses. This operation closes the pipeline. In order to
    * get return values from pipelined commands, capture the different Response&lt;?&gt; of the
    * commands you execute.
+   * @throws JedisDataException the first error reply, once all replies were read
    */
   public void sync() {
-    for (Client client : clients) {
-      generateResponse(client.getOne());
+    Object[] replies = readReplies();
+    for (Object reply : replies) {
+      generateResponse(reply);
     }
+    throwFirstError(replies);
   }
 
   /**
@@ -52,26 +72,155 @@ public class ShardedJedisPipeline extends PipelineBase {
    * @return A list of all the responses in the order you executed them.
    */
   public List<Object> syncAndReturnAll() {
-    List<Object> formatted = new ArrayList<Object>();
-    for (Client client : clients) {
-      formatted.add(generateResponse(client.getOne()).get());
+    Object[] replies = readReplies();
+    List<Response<?>> responses = new ArrayList<Response<?>>(replies.length);
+    for (Object reply : replies) {
+      responses.add(generateResponse(reply));
+    }
+    List<Object> formatted = new ArrayList<Object>(replies.length);
+    for (Response<?> response : responses) {
+      formatted.add(response.get());
     }
     return formatted;
   }
 
+  private static void throwFirstError(final Object[] replies) {
+    for (Object reply : replies) {
+      if (reply instanceof JedisDataException) {
+        throw (JedisDataException) reply;
+      }
+    }
+  }
+
   @Override
   protected Client getClient(String key) {
     Client client = jedis.getShard(key).getClient();
-    clients.add(client);
-    results.add(new FutureResult(client));
+    record(client);
     return client;
   }
 
   @Override
   protected Client getClient(byte[] key) {
     Client client = jedis.getShard(key).getClient();
-    clients.add(client);
-    results.add(new FutureResult(client));
+    record(client);
     return client;
   }
-}
\ No newline at end of file
+
+  private void record(final Client client) {
+    if (client != lastClient) {
+      lastShard = -1;
+      for (int i = 0; i < shards.size(); i++) {
+        if (shards.get(i) == client) {
+          lastShard = i;
+          break;
+        }
+      }
+      if (lastShard < 0) {
+        lastShard = shards.size();
+        shards.add(client);
+      }
+      lastClient = client;
+    }
+    if (commandCount == commandShards.length) {
+      commandShards = Arrays.copyOf(commandShards, commandCount << 1);
+    }
+    commandShards[commandCount++] = lastShard;
+  }
+
+  private Object[] readReplies() {
+    if (commandCount == 0) {
+      return new Object[0];
+    }
+    try {
+      final int shardCount = shards.size();
+      final int[] counts = new int[shardCount];
+      for (int i = 0; i < commandCount; i++) {
+        counts[commandShards[i]]++;
+      }
+
+      for (Client client : shards) {
+        client.flush();
+      }
+      final Object[][] shardReplies = readShards(counts);
+
+      final int[] cursors = new int[shardCount];
+      final Object[] replies = new Object[commandCount];
+      for (int i = 0; i < commandCount; i++) {
+        final int shard = commandShards[i];
+        replies[i] = shardReplies[shard][cursors[shard]++];
+      }
+      return replies;
+    } catch (RuntimeException e) {
+      // the replies left unread are lost with the connection
+      clean();
+      throw e;
+    } finally {
+      commandCount = 0;
+      shards.clear();
+      lastClient = null;
+    }
+  }
+
+  private Object[][] readShards(final int[] counts) {
+    final Object[][] shardReplies = new Object[counts.length][];
+    if (counts.length == 1) {
+      shardReplies[0] = read(shards.get(0), counts[0]);
+      return shardReplies;
+    }
+
+    final List<FutureTask<Object[]>> tasks =
+        new ArrayList<FutureTask<Object[]>>(counts.length - 1);
+    for (int i = 1; i < counts.length; i++) {
+      final Client client = shards.get(i);
+      final int count = counts[i];
+      FutureTask<Object[]> task = new FutureTask<Object[]>(new Callable<Object[]>() {
+        @Override
+        public Object[] call() {
+          return read(client, count);
+        }
+      });
+      READER_EXECUTOR.execute(task);
+      tasks.add(task);
+    }
+
+    RuntimeException failure = null;
+    try {
+      shardReplies[0] = read(shards.get(0), counts[0]);
+    } catch (RuntimeException e) {
+      failure = e;
+    }
+    boolean interrupted = false;
+    for (int i = 0; i < tasks.size(); i++) {
+      while (true) {
+        try {
+          shardReplies[i + 1] = tasks.get(i).get();
+          break;
+        } catch (InterruptedException e) {
+          // the readers use the connections of the shards, let them finish
+          interrupted = true;
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                : new JedisException(e.getCause());
+          }
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return shardReplies;
+  }
+
+  private static Object[] read(final Client client, final int count) {
+    final Object[] replies = new Object[count];
+    for (int i = 0; i < count; i++) {
+      replies[i] = client.getUnflushedOne();
+    }
+    return replies;
+  }
+}
@@ -58,6 +58,47 @@ public class Transaction extends MultiKeyPipelineBase implements Closeable {
     return formatted;
   }
 
+  /**
+   * Like {@link #exec()} for a transaction whose MULTI was sent but not read: sends EXEC, then reads
+   * the replies of MULTI, of the queued commands and of EXEC after a single flush.
+   */
+  List<Object> execPipelined() {
+    client.exec();
+    inTransaction = false;
+    final List<Object> replies = client.getMany(getPipelinedResponseLength() + 2);
+
+    final Object execReply = replies.get(replies.size() - 1);
+    if (execReply instanceof JedisDataException) {
+      clean();
+      throw (JedisDataException) execReply;
+    }
+    if (execReply == null) {
+      clean();
+      return null;
+    }
+    @SuppressWarnings("unchecked")
+    List<Object> unformatted = (List<Object>) execReply;
+    List<Object> formatted = new ArrayList<Object>(unformatted.size());
+    for (Object o : unformatted) {
+      try {
+        formatted.add(generateResponse(o).get());
+      } catch (JedisDataException e) {
+        formatted.add(e);
+      }
+    }
+    return formatted;
+  }
+
+  /**
+   * Like {@link #discard()} for a transaction whose MULTI was sent but not read.
+   */
+  void discardPipelined() {
+    client.discard();
+    inTransaction = false;
+    client.getMany(getPipelinedResponseLength() + 2);
+    clean();
+  }
+
   public List<Response<?>> execGetResponse() {
     // Discard QUEUED or ERROR
     client.getMany(getPipelinedResponseLength());
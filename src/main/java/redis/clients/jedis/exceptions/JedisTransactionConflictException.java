@@ -0,0 +1,21 @@
+package redis.clients.jedis.exceptions;
+
+/**
+ * This exception will be thrown when an optimistic transaction still failed because of concurrent
+ * changes to its watched keys after all its attempts.
+ */
+public class JedisTransactionConflictException extends JedisException {
+  private static final long serialVersionUID = -5129354061852748390L;
+
+  public JedisTransactionConflictException(String message) {
+    super(message);
+  }
+
+  public JedisTransactionConflictException(Throwable e) {
+    super(e);
+  }
+
+  public JedisTransactionConflictException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
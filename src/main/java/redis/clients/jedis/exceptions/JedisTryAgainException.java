@@ -0,0 +1,21 @@
+package redis.clients.jedis.exceptions;
+
+/**
+ * A TRYAGAIN reply: a multi-key command hit a slot being migrated while its keys were split
+ * between the two nodes. The command may succeed later.
+ */
+public class JedisTryAgainException extends JedisDataException {
+  private static final long serialVersionUID = 6423717526216924373L;
+
+  public JedisTryAgainException(final String message) {
+    super(message);
+  }
+
+  public JedisTryAgainException(final Throwable cause) {
+    super(cause);
+  }
+
+  public JedisTryAgainException(final String message, final Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,598 @@
+package redis.clients.jedis.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.pool2.BaseObjectPool;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+/**
+ * A lock-free alternative to commons-pool's GenericObjectPool, tuned for short borrow/return cycles
+ * such as the ones of pooled Jedis connections.
+ * <p>
+ * Objects live in a copy-on-write list and are claimed with a CAS on their state, so borrowing an
+ * idle object never takes a lock. Objects returned by a thread are remembered in a thread-local
+ * list and are tried first by its next borrow. A borrower which finds nothing idle waits on a hand-off
+ * queue, which returning threads feed directly.
+ * <p>
+ * The pool honours maxTotal, maxIdle, minIdle, maxWaitMillis, blockWhenExhausted, testOnCreate,
+ * testOnBorrow, testOnReturn, testWhileIdle, timeBetweenEvictionRunsMillis,
+ * minEvictableIdleTimeMillis and softMinEvictableIdleTimeMillis of the given config. Every idle
+ * object is inspected on each eviction run; JMX and abandoned object tracking are not supported.
+ */
+public class ConcurrentBagPool<T> extends BaseObjectPool<T> {
+
+  private static final int STATE_IDLE = 0;
+  private static final int STATE_IN_USE = 1;
+  private static final int STATE_RESERVED = 2;
+  private static final int STATE_REMOVED = -1;
+
+  private static final int THREAD_LOCAL_ENTRIES = 16;
+  private static final int MEAN_TIMING_STATS_CACHE_SIZE = 100;
+  private static final long HANDOFF_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long WAITER_RESCAN_MILLIS = 10;
+
+  private static final ScheduledThreadPoolExecutor EVICTOR;
+
+  static {
+    EVICTOR = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("jedis-bag-evictor"));
+    EVICTOR.setRemoveOnCancelPolicy(true);
+  }
+
+  private final PooledObjectFactory<T> factory;
+  private final CopyOnWriteArrayList<BagEntry<T>> entries =
+      new CopyOnWriteArrayList<BagEntry<T>>();
+  private final ConcurrentHashMap<IdentityKey<T>, BagEntry<T>> entriesByObject =
+      new ConcurrentHashMap<IdentityKey<T>, BagEntry<T>>();
+  private final SynchronousQueue<BagEntry<T>> handoffQueue =
+      new SynchronousQueue<BagEntry<T>>(true);
+  private final ThreadLocal<List<BagEntry<T>>> threadEntries =
+      new ThreadLocal<List<BagEntry<T>>>();
+
+  private final AtomicInteger totalCount = new AtomicInteger();
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  private final AtomicLong borrowedCount = new AtomicLong();
+  private final AtomicLong maxBorrowWaitTimeMillis = new AtomicLong();
+  private final AtomicLongArray borrowWaitTimes =
+      new AtomicLongArray(MEAN_TIMING_STATS_CACHE_SIZE);
+
+  private volatile int maxTotal;
+  private volatile int maxIdle;
+  private volatile int minIdle;
+  private final long maxWaitMillis;
+  private final boolean blockWhenExhausted;
+  private final boolean testOnCreate;
+  private final boolean testOnBorrow;
+  private final boolean testOnReturn;
+  private final boolean testWhileIdle;
+  private final long minEvictableIdleTimeMillis;
+  private final long softMinEvictableIdleTimeMillis;
+
+  private final ScheduledFuture<?> evictionTask;
+
+  public ConcurrentBagPool(final PooledObjectFactory<T> factory,
+      final GenericObjectPoolConfig poolConfig) {
+    this.factory = factory;
+    this.maxTotal = poolConfig.getMaxTotal();
+    this.maxIdle = poolConfig.getMaxIdle();
+    this.minIdle = poolConfig.getMinIdle();
+    this.maxWaitMillis = poolConfig.getMaxWaitMillis();
+    this.blockWhenExhausted = poolConfig.getBlockWhenExhausted();
+    this.testOnCreate = poolConfig.getTestOnCreate();
+    this.testOnBorrow = poolConfig.getTestOnBorrow();
+    this.testOnReturn = poolConfig.getTestOnReturn();
+    this.testWhileIdle = poolConfig.getTestWhileIdle();
+    this.minEvictableIdleTimeMillis = poolConfig.getMinEvictableIdleTimeMillis();
+    this.softMinEvictableIdleTimeMillis = poolConfig.getSoftMinEvictableIdleTimeMillis();
+
+    long period = poolConfig.getTimeBetweenEvictionRunsMillis();
+    if (period > 0) {
+      this.evictionTask = EVICTOR.scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          evict();
+        }
+      }, period, period, TimeUnit.MILLISECONDS);
+    } else {
+      this.evictionTask = null;
+    }
+  }
+
+  @Override
+  public T borrowObject() throws Exception {
+    return borrowObject(maxWaitMillis);
+  }
+
+  /**
+   * Borrows an object, waiting at most the given time (or indefinitely if negative) for one to be
+   * returned when the pool is exhausted.
+   */
+  public T borrowObject(final long borrowMaxWaitMillis) throws Exception {
+    assertOpen();
+    final long start = System.currentTimeMillis();
+
+    while (true) {
+      boolean created = false;
+      BagEntry<T> entry = acquireIdle();
+      if (entry == null) {
+        entry = create(STATE_IN_USE);
+        created = entry != null;
+      }
+      if (entry == null) {
+        entry = awaitEntry(start, borrowMaxWaitMillis);
+      }
+
+      if (!prepareForBorrow(entry, created)) {
+        continue;
+      }
+
+      activeCount.incrementAndGet();
+      updateStatsBorrow(System.currentTimeMillis() - start);
+      return entry.pooled.getObject();
+    }
+  }
+
+  /**
+   * Borrows an idle object without waiting and without ever creating one.
+   * @return the object, or null if none is idle
+   */
+  public T pollObject() throws Exception {
+    assertOpen();
+    while (true) {
+      BagEntry<T> entry = acquireIdle();
+      if (entry == null) {
+        return null;
+      }
+      if (prepareForBorrow(entry, false)) {
+        activeCount.incrementAndGet();
+        return entry.pooled.getObject();
+      }
+    }
+  }
+
+  @Override
+  public void returnObject(final T obj) {
+    final BagEntry<T> entry = findEntry(obj);
+    if (entry == null || !entry.state.compareAndSet(STATE_IN_USE, STATE_RESERVED)) {
+      throw new IllegalStateException(
+          "Object has already been returned to this pool or is invalid");
+    }
+    activeCount.decrementAndGet();
+
+    if (testOnReturn && !factory.validateObject(entry.pooled)) {
+      destroy(entry);
+      return;
+    }
+    try {
+      factory.passivateObject(entry.pooled);
+    } catch (Exception e) {
+      destroy(entry);
+      return;
+    }
+
+    // the returned entry is already counted as idle here
+    int idleLimit = maxIdle;
+    if (isClosed() || (idleLimit >= 0 && getNumIdle() > idleLimit)) {
+      destroy(entry);
+      return;
+    }
+
+    entry.lastReturnTime = System.currentTimeMillis();
+    entry.state.set(STATE_IDLE);
+    if (handOff(entry)) {
+      return;
+    }
+
+    List<BagEntry<T>> local = threadEntries.get();
+    if (local == null) {
+      local = new ArrayList<BagEntry<T>>(THREAD_LOCAL_ENTRIES);
+      threadEntries.set(local);
+    }
+    if (local.size() == THREAD_LOCAL_ENTRIES) {
+      // entries destroyed since this thread returned them would otherwise fill the list for good
+      for (int i = local.size() - 1; i >= 0; i--) {
+        if (local.get(i).state.get() == STATE_REMOVED) {
+          local.remove(i);
+        }
+      }
+    }
+    if (local.size() < THREAD_LOCAL_ENTRIES) {
+      local.add(entry);
+    }
+  }
+
+  @Override
+  public void invalidateObject(final T obj) throws Exception {
+    final BagEntry<T> entry = findEntry(obj);
+    if (entry == null) {
+      throw new IllegalStateException("Invalidated object not currently part of this pool");
+    }
+    if (entry.state.compareAndSet(STATE_IN_USE, STATE_RESERVED)) {
+      activeCount.decrementAndGet();
+      destroy(entry);
+    }
+  }
+
+  @Override
+  public void addObject() throws Exception {
+    assertOpen();
+    BagEntry<T> entry = create(STATE_IDLE);
+    if (entry != null) {
+      handOff(entry);
+    }
+  }
+
+  /**
+   * Destroys all idle objects. Objects currently borrowed are not affected.
+   */
+  @Override
+  public void clear() {
+    for (BagEntry<T> entry : entries) {
+      if (entry.state.compareAndSet(STATE_IDLE, STATE_RESERVED)) {
+        destroy(entry);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    if (isClosed()) {
+      return;
+    }
+    super.close();
+    if (evictionTask != null) {
+      evictionTask.cancel(false);
+    }
+    clear();
+  }
+
+  /**
+   * Destroys idle objects which have been idle for too long (and validates the others if
+   * testWhileIdle is set), then creates new ones to get back to minIdle.
+   */
+  public void evict() {
+    if (isClosed()) {
+      return;
+    }
+    final long now = System.currentTimeMillis();
+    for (BagEntry<T> entry : entries) {
+      if (!entry.state.compareAndSet(STATE_IDLE, STATE_RESERVED)) {
+        continue;
+      }
+
+      long idleTime = now - entry.lastReturnTime;
+      boolean evict = (minEvictableIdleTimeMillis > 0 && idleTime > minEvictableIdleTimeMillis)
+          || (softMinEvictableIdleTimeMillis > 0 && idleTime > softMinEvictableIdleTimeMillis
+              && getNumIdle() > minIdle);
+      if (!evict && testWhileIdle) {
+        evict = !validateIdle(entry);
+      }
+
+      if (evict) {
+        destroy(entry);
+      } else {
+        entry.state.set(STATE_IDLE);
+        handOff(entry);
+      }
+    }
+    ensureMinIdle();
+  }
+
+  public PooledObjectFactory<T> getFactory() {
+    return factory;
+  }
+
+  public int getMaxTotal() {
+    return maxTotal;
+  }
+
+  public void setMaxTotal(final int maxTotal) {
+    this.maxTotal = maxTotal;
+  }
+
+  public int getMaxIdle() {
+    return maxIdle;
+  }
+
+  public void setMaxIdle(final int maxIdle) {
+    this.maxIdle = maxIdle;
+  }
+
+  public int getMinIdle() {
+    return minIdle;
+  }
+
+  public void setMinIdle(final int minIdle) {
+    this.minIdle = minIdle;
+  }
+
+  @Override
+  public int getNumActive() {
+    return activeCount.get();
+  }
+
+  @Override
+  public int getNumIdle() {
+    return Math.max(0, totalCount.get() - activeCount.get());
+  }
+
+  public int getNumWaiters() {
+    return waiters.get();
+  }
+
+  public long getBorrowedCount() {
+    return borrowedCount.get();
+  }
+
+  public long getMeanBorrowWaitTimeMillis() {
+    long count = Math.min(borrowedCount.get(), MEAN_TIMING_STATS_CACHE_SIZE);
+    if (count == 0) {
+      return 0;
+    }
+    long total = 0;
+    for (int i = 0; i < count; i++) {
+      total += borrowWaitTimes.get(i);
+    }
+    return total / count;
+  }
+
+  public long getMaxBorrowWaitTimeMillis() {
+    return maxBorrowWaitTimeMillis.get();
+  }
+
+  private BagEntry<T> acquireIdle() {
+    List<BagEntry<T>> local = threadEntries.get();
+    if (local != null) {
+      for (int i = local.size() - 1; i >= 0; i--) {
+        BagEntry<T> entry = local.remove(i);
+        if (entry.state.compareAndSet(STATE_IDLE, STATE_IN_USE)) {
+          return entry;
+        }
+      }
+    }
+
+    for (BagEntry<T> entry : entries) {
+      if (entry.state.compareAndSet(STATE_IDLE, STATE_IN_USE)) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private BagEntry<T> awaitEntry(final long start, final long borrowMaxWaitMillis)
+      throws Exception {
+    if (!blockWhenExhausted) {
+      throw new NoSuchElementException("Pool exhausted");
+    }
+
+    waiters.incrementAndGet();
+    try {
+      while (true) {
+        // an object may have been returned before this thread became visible as a waiter
+        BagEntry<T> entry = acquireIdle();
+        if (entry == null) {
+          entry = create(STATE_IN_USE);
+        }
+        if (entry != null) {
+          return entry;
+        }
+
+        // hand-offs are given up after a while, so the bag is scanned again now and then
+        long wait = WAITER_RESCAN_MILLIS;
+        if (borrowMaxWaitMillis >= 0) {
+          long remaining = start + borrowMaxWaitMillis - System.currentTimeMillis();
+          if (remaining <= 0) {
+            throw new NoSuchElementException("Timeout waiting for idle object");
+          }
+          wait = Math.min(wait, remaining);
+        }
+        BagEntry<T> handedOff = handoffQueue.poll(wait, TimeUnit.MILLISECONDS);
+        assertOpen();
+
+        if (handedOff != null && handedOff.state.compareAndSet(STATE_IDLE, STATE_IN_USE)) {
+          return handedOff;
+        }
+      }
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /**
+   * @return false if the entry was destroyed and the borrow must be retried
+   */
+  private boolean prepareForBorrow(final BagEntry<T> entry, final boolean created)
+      throws Exception {
+    try {
+      factory.activateObject(entry.pooled);
+    } catch (Exception e) {
+      destroy(entry);
+      if (created) {
+        NoSuchElementException nsee = new NoSuchElementException("Unable to activate object");
+        nsee.initCause(e);
+        throw nsee;
+      }
+      return false;
+    }
+
+    if ((testOnBorrow || (created && testOnCreate)) && !factory.validateObject(entry.pooled)) {
+      destroy(entry);
+      if (created) {
+        throw new NoSuchElementException("Unable to validate object");
+      }
+      return false;
+    }
+    return true;
+  }
+
+  private BagEntry<T> create(final int initialState) throws Exception {
+    while (true) {
+      int count = totalCount.get();
+      int limit = maxTotal;
+      if (limit >= 0 && count >= limit) {
+        return null;
+      }
+      if (totalCount.compareAndSet(count, count + 1)) {
+        break;
+      }
+    }
+
+    final PooledObject<T> pooled;
+    try {
+      pooled = factory.makeObject();
+    } catch (Exception e) {
+      totalCount.decrementAndGet();
+      throw e;
+    }
+
+    BagEntry<T> entry = new BagEntry<T>(pooled, initialState);
+    entriesByObject.put(new IdentityKey<T>(pooled.getObject()), entry);
+    entries.add(entry);
+    return entry;
+  }
+
+  /**
+   * Offers an idle entry to waiting borrowers for a short while. The offer parks instead of
+   * spinning; an entry nobody took stays idle in the bag, where waiters find it on their next scan.
+   * @return true if the entry was claimed by someone else meanwhile
+   */
+  private boolean handOff(final BagEntry<T> entry) {
+    final long deadline = System.nanoTime() + HANDOFF_TIMEOUT_NANOS;
+    while (waiters.get() > 0) {
+      if (entry.state.get() != STATE_IDLE) {
+        return true;
+      }
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      try {
+        if (handoffQueue.offer(entry, Math.min(remaining, HANDOFF_TIMEOUT_NANOS / 10),
+            TimeUnit.NANOSECONDS)) {
+          return true;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private boolean validateIdle(final BagEntry<T> entry) {
+    try {
+      factory.activateObject(entry.pooled);
+      if (!factory.validateObject(entry.pooled)) {
+        return false;
+      }
+      factory.passivateObject(entry.pooled);
+      return true;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  private void ensureMinIdle() {
+    while (!isClosed() && getNumIdle() < minIdle) {
+      try {
+        BagEntry<T> entry = create(STATE_IDLE);
+        if (entry == null) {
+          return;
+        }
+        entry.lastReturnTime = System.currentTimeMillis();
+        handOff(entry);
+      } catch (Exception e) {
+        return;
+      }
+    }
+  }
+
+  private void destroy(final BagEntry<T> entry) {
+    entry.state.set(STATE_REMOVED);
+    if (entries.remove(entry)) {
+      entriesByObject.remove(new IdentityKey<T>(entry.pooled.getObject()));
+      totalCount.decrementAndGet();
+    }
+    try {
+      factory.destroyObject(entry.pooled);
+    } catch (Exception e) {
+      // ignored, as commons-pool does
+    }
+
+    // capacity was freed, give it to a waiting borrower
+    if (waiters.get() > 0 && !isClosed()) {
+      try {
+        BagEntry<T> replacement = create(STATE_IDLE);
+        if (replacement != null) {
+          handOff(replacement);
+        }
+      } catch (Exception e) {
+        // the waiter will try to create one itself
+      }
+    }
+  }
+
+  private BagEntry<T> findEntry(final T obj) {
+    return entriesByObject.get(new IdentityKey<T>(obj));
+  }
+
+  private void updateStatsBorrow(final long waitTimeMillis) {
+    long index = borrowedCount.getAndIncrement();
+    borrowWaitTimes.set((int) (index % MEAN_TIMING_STATS_CACHE_SIZE), waitTimeMillis);
+
+    long max = maxBorrowWaitTimeMillis.get();
+    while (waitTimeMillis > max) {
+      if (maxBorrowWaitTimeMillis.compareAndSet(max, waitTimeMillis)) {
+        break;
+      }
+      max = maxBorrowWaitTimeMillis.get();
+    }
+  }
+
+  /**
+   * Compares pooled objects by identity, whatever their equals and hashCode do.
+   */
+  private static final class IdentityKey<T> {
+    private final T object;
+
+    private IdentityKey(final T object) {
+      this.object = object;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(object);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public boolean equals(final Object other) {
+      return other instanceof IdentityKey && ((IdentityKey) other).object == object;
+    }
+  }
+
+  private static final class BagEntry<T> {
+    private final PooledObject<T> pooled;
+    private final AtomicInteger state;
+    private volatile long lastReturnTime = System.currentTimeMillis();
+
+    private BagEntry(final PooledObject<T> pooled, final int state) {
+      this.pooled = pooled;
+      this.state = new AtomicInteger(state);
+    }
+  }
+}
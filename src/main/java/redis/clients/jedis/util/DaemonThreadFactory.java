@@ -0,0 +1,23 @@
+package redis.clients.jedis.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates named daemon threads for Jedis background tasks, so that they never keep the JVM alive.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+  private final String namePrefix;
+  private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+  public DaemonThreadFactory(final String namePrefix) {
+    this.namePrefix = namePrefix;
+  }
+
+  @Override
+  public Thread newThread(final Runnable runnable) {
+    Thread thread = new Thread(runnable, namePrefix + "-" + threadNumber.getAndIncrement());
+    thread.setDaemon(true);
+    return thread;
+  }
+}
@@ -0,0 +1,159 @@
+package redis.clients.jedis.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of I/O buffers shared by connections which only hold buffers while they are in use, see
+ * {@link RedisInputStream#RedisInputStream(java.io.InputStream, IoBufferPool)}.
+ * <p>
+ * Buffers come in power of two size classes between the min and max buffer size. Each class keeps
+ * at most maxBuffersPerClass released buffers, further ones are left to the garbage collector.
+ */
+public class IoBufferPool {
+  public static final int DEFAULT_MIN_BUFFER_SIZE = 1024;
+  public static final int DEFAULT_INITIAL_BUFFER_SIZE = 8192;
+  public static final int DEFAULT_MAX_BUFFER_SIZE = 65536;
+  public static final int DEFAULT_MAX_BUFFERS_PER_CLASS = 256;
+
+  private final int minBufferSize;
+  private final int initialBufferSize;
+  private final int maxBufferSize;
+  private final int maxBuffersPerClass;
+  private final int minShift;
+
+  private final ConcurrentLinkedQueue<byte[]>[] classes;
+  private final AtomicInteger[] pooledCounts;
+  private final AtomicLong allocatedCount = new AtomicLong();
+  private final AtomicLong reusedCount = new AtomicLong();
+
+  public IoBufferPool() {
+    this(DEFAULT_MIN_BUFFER_SIZE, DEFAULT_INITIAL_BUFFER_SIZE, DEFAULT_MAX_BUFFER_SIZE,
+        DEFAULT_MAX_BUFFERS_PER_CLASS);
+  }
+
+  /**
+   * @param minBufferSize smallest buffer handed out, rounded up to a power of two
+   * @param initialBufferSize size a connection starts with before adapting to its traffic
+   * @param maxBufferSize largest buffer handed out, rounded up to a power of two
+   * @param maxBuffersPerClass number of released buffers kept per size class
+   */
+  public IoBufferPool(final int minBufferSize, final int initialBufferSize,
+      final int maxBufferSize, final int maxBuffersPerClass) {
+    if (minBufferSize <= 0 || maxBufferSize < minBufferSize) {
+      throw new IllegalArgumentException("Invalid buffer sizes, expected 0 < min <= max");
+    }
+    this.minBufferSize = roundUp(minBufferSize);
+    this.maxBufferSize = roundUp(maxBufferSize);
+    this.initialBufferSize = sizeClass(initialBufferSize);
+    this.maxBuffersPerClass = maxBuffersPerClass;
+    this.minShift = Integer.numberOfTrailingZeros(this.minBufferSize);
+
+    int count = Integer.numberOfTrailingZeros(this.maxBufferSize) - minShift + 1;
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    final ConcurrentLinkedQueue<byte[]>[] queues = new ConcurrentLinkedQueue[count];
+    classes = queues;
+    pooledCounts = new AtomicInteger[count];
+    for (int i = 0; i < count; i++) {
+      classes[i] = new ConcurrentLinkedQueue<byte[]>();
+      pooledCounts[i] = new AtomicInteger();
+    }
+  }
+
+  public int getMinBufferSize() {
+    return minBufferSize;
+  }
+
+  public int getInitialBufferSize() {
+    return initialBufferSize;
+  }
+
+  public int getMaxBufferSize() {
+    return maxBufferSize;
+  }
+
+  /**
+   * @return the size of the buffer {@link #acquire(int)} would return for the given size
+   */
+  public int sizeClass(final int size) {
+    return Math.min(maxBufferSize, Math.max(minBufferSize, roundUp(size)));
+  }
+
+  /**
+   * Takes a buffer of the size class of the given size.
+   */
+  public byte[] acquire(final int size) {
+    final int classSize = sizeClass(size);
+    final int index = index(classSize);
+    byte[] buf = classes[index].poll();
+    if (buf != null) {
+      pooledCounts[index].decrementAndGet();
+      reusedCount.incrementAndGet();
+      return buf;
+    }
+    allocatedCount.incrementAndGet();
+    return new byte[classSize];
+  }
+
+  /**
+   * Gives back a buffer taken with {@link #acquire(int)}.
+   */
+  public void release(final byte[] buf) {
+    final int size = buf.length;
+    if (size < minBufferSize || size > maxBufferSize || Integer.bitCount(size) != 1) {
+      return;
+    }
+    final int index = index(size);
+    if (pooledCounts[index].incrementAndGet() > maxBuffersPerClass) {
+      pooledCounts[index].decrementAndGet();
+      return;
+    }
+    classes[index].offer(buf);
+  }
+
+  /**
+   * @return the number of released buffers currently kept for reuse
+   */
+  public int getNumPooled() {
+    int total = 0;
+    for (AtomicInteger count : pooledCounts) {
+      total += count.get();
+    }
+    return total;
+  }
+
+  public long getAllocatedCount() {
+    return allocatedCount.get();
+  }
+
+  public long getReusedCount() {
+    return reusedCount.get();
+  }
+
+  /**
+   * Picks the size of the next buffer of a stream from the most it used of its current buffer:
+   * twice as large if it was filled, half as large if less than a quarter of it was used.
+   */
+  int adapt(final int bufferSize, final int peakUsage) {
+    if (peakUsage >= bufferSize) {
+      return sizeClass(bufferSize << 1);
+    }
+    if (peakUsage < bufferSize >>> 2) {
+      return sizeClass(bufferSize >>> 1);
+    }
+    return bufferSize;
+  }
+
+  private int index(final int classSize) {
+    return Integer.numberOfTrailingZeros(classSize) - minShift;
+  }
+
+  private static int roundUp(final int size) {
+    if (size <= 1) {
+      return 1;
+    }
+    int highest = Integer.highestOneBit(size - 1) << 1;
+    return highest <= 0 ? 1 << 30 : highest;
+  }
+}
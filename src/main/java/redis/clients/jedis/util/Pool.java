@@ -1,9 +1,12 @@
 package redis.clients.jedis.util;
 
 import java.io.Closeable;
+import java.util.List;
 import java.util.NoSuchElementException;
 
+import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
@@ -12,8 +15,25 @@ import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.exceptions.JedisExhaustedPoolException;
 
 public abstract class Pool<T> implements Closeable {
+  /**
+   * The backend of the pool, null when the pool was initialized with the concurrent bag backend,
+   * see {@link #initPool(GenericObjectPoolConfig, PooledObjectFactory, boolean)}.
+   */
   protected GenericObjectPool<T> internalPool;
 
+  // lock-free backend used instead of internalPool when enabled
+  private ConcurrentBagPool<T> bagPool;
+
+  private PooledObjectFactory<T> factory;
+
+  private PollingFactory<T> pollingFactory;
+
+  private volatile ThreadAffinitySlots<T> affinitySlots;
+
+  private volatile PoolSizeController sizeController;
+
+  private volatile TrafficClassGate<T> trafficClassGate;
+
   /**
    * Using this constructor means you have to set and initialize the internalPool yourself.
    */
@@ -30,26 +50,139 @@ public abstract class Pool<T> implements Closeable {
   }
 
   public boolean isClosed() {
+    if (this.bagPool != null) {
+      return this.bagPool.isClosed();
+    }
     return this.internalPool.isClosed();
   }
 
   public void initPool(final GenericObjectPoolConfig poolConfig, PooledObjectFactory<T> factory) {
+    initPool(poolConfig, factory, false);
+  }
 
-    if (this.internalPool != null) {
+  /**
+   * Initializes the pool with a fresh backend, closing the previous one. Thread affinity, traffic
+   * classes and adaptive sizing are disabled until enabled again.
+   * @param concurrentBag true to use a {@link ConcurrentBagPool} instead of the internalPool
+   */
+  protected void initPool(final GenericObjectPoolConfig poolConfig,
+      final PooledObjectFactory<T> factory, final boolean concurrentBag) {
+
+    if (this.internalPool != null || this.bagPool != null) {
       try {
         closeInternalPool();
       } catch (Exception e) {
       }
     }
 
-    this.internalPool = new GenericObjectPool<T>(factory, poolConfig);
+    this.factory = factory;
+    this.trafficClassGate = null;
+    if (concurrentBag) {
+      this.internalPool = null;
+      this.pollingFactory = null;
+      this.bagPool = new ConcurrentBagPool<T>(factory, poolConfig);
+    } else {
+      this.bagPool = null;
+      this.pollingFactory = new PollingFactory<T>(factory);
+      this.internalPool = new GenericObjectPool<T>(pollingFactory, poolConfig);
+    }
+  }
+
+  /**
+   * Admits borrowers by traffic class, see {@link TrafficClass}. Meant to be called right after
+   * the pool was initialized.
+   * @param maxWaitMillis how long borrowers of the default class wait, negative for indefinitely
+   */
+  protected void enableTrafficClasses(final List<TrafficClass> trafficClasses,
+      final long maxWaitMillis, final boolean blockWhenExhausted) {
+    this.trafficClassGate = new TrafficClassGate<T>(this, trafficClasses, maxWaitMillis,
+        blockWhenExhausted);
+  }
+
+  /**
+   * Keeps the resource a thread returned for its next borrow. Meant to be called right after the
+   * pool was initialized.
+   * @param idleTimeoutMillis time after which a kept resource goes back to the pool
+   */
+  protected void enableThreadAffinity(final long idleTimeoutMillis) {
+    this.affinitySlots = new ThreadAffinitySlots<T>(this, idleTimeoutMillis);
+  }
+
+  /**
+   * Resizes the pool within the given bounds, see {@link PoolSizeController}. Meant to be called
+   * right after the pool was initialized.
+   */
+  protected void enableAdaptiveSizing(final int minTotal, final int maxTotal,
+      final long targetWaitMillis, final long periodMillis) {
+    this.sizeController = new PoolSizeController(this, minTotal, maxTotal, targetWaitMillis,
+        periodMillis);
   }
 
   public T getResource() {
+    final PoolSizeController controller = this.sizeController;
+    if (controller == null) {
+      return borrowResource();
+    }
+    final long start = System.nanoTime();
+    try {
+      return borrowResource();
+    } finally {
+      controller.recordWait(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Borrows a resource as a member of the given traffic class, see {@link TrafficClass}.
+   */
+  public T getResource(final String trafficClass) {
+    final String previous = TrafficClass.getCurrent();
+    TrafficClass.setCurrent(trafficClass);
+    try {
+      return getResource();
+    } finally {
+      TrafficClass.setCurrent(previous);
+    }
+  }
+
+  private T borrowResource() {
+    final TrafficClassGate<T> gate = this.trafficClassGate;
+    if (gate == null) {
+      return borrowFromBackend();
+    }
+    final Object ticket = gate.acquire();
+    try {
+      T resource = borrowFromBackend();
+      gate.admitted(ticket, resource);
+      return resource;
+    } catch (RuntimeException e) {
+      gate.release(ticket);
+      throw e;
+    }
+  }
+
+  private T borrowFromBackend() {
+    final ThreadAffinitySlots<T> slots = this.affinitySlots;
+    if (slots != null) {
+      T resource = slots.claim();
+      if (resource == null && isExhausted()) {
+        resource = slots.steal();
+      }
+      if (resource != null) {
+        return resource;
+      }
+    }
+
     try {
+      if (bagPool != null) {
+        return bagPool.borrowObject();
+      }
       return internalPool.borrowObject();
     } catch (NoSuchElementException nse) {
       if (null == nse.getCause()) { // The exception was caused by an exhausted pool
+        T stolen = slots != null ? slots.steal() : null;
+        if (stolen != null) {
+          return stolen;
+        }
         throw new JedisExhaustedPoolException(
             "Could not get a resource since the pool is exhausted", nse);
       }
@@ -64,10 +197,60 @@ public abstract class Pool<T> implements Closeable {
     if (resource == null) {
       return;
     }
+    final ThreadAffinitySlots<T> slots = this.affinitySlots;
+    // never keep a resource to ourselves while other threads are waiting for one
+    if (slots != null && getNumWaiters() == 0 && canPark(resource) && passivate(resource)
+        && slots.park(resource)) {
+      return;
+    }
     try {
-      internalPool.returnObject(resource);
+      returnToBackend(resource);
     } catch (Exception e) {
       throw new JedisException("Could not return the resource to the pool", e);
+    } finally {
+      releaseTrafficClass(resource);
+    }
+  }
+
+  /**
+   * Tells whether a returned resource may be kept for the next borrow of the same thread, which
+   * skips activation and validation. Subclasses refuse resources whose state differs from the one
+   * a fresh borrow would give.
+   */
+  protected boolean canPark(final T resource) {
+    return true;
+  }
+
+  /**
+   * Passivates a resource about to be parked, as the backend would when it is returned.
+   * @return false if the passivation failed, the resource must go back to the backend
+   */
+  private boolean passivate(final T resource) {
+    final PooledObjectFactory<T> factory = this.factory;
+    if (factory == null) {
+      return true;
+    }
+    try {
+      factory.passivateObject(new DefaultPooledObject<T>(resource));
+      return true;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  void invalidateInBackend(final T resource) throws Exception {
+    if (bagPool != null) {
+      bagPool.invalidateObject(resource);
+    } else {
+      internalPool.invalidateObject(resource);
+    }
+  }
+
+  void returnToBackend(final T resource) throws Exception {
+    if (bagPool != null) {
+      bagPool.returnObject(resource);
+    } else {
+      internalPool.returnObject(resource);
     }
   }
 
@@ -89,19 +272,101 @@ public abstract class Pool<T> implements Closeable {
 
   protected void returnBrokenResourceObject(final T resource) {
     try {
-      internalPool.invalidateObject(resource);
+      if (bagPool != null) {
+        bagPool.invalidateObject(resource);
+      } else {
+        internalPool.invalidateObject(resource);
+      }
     } catch (Exception e) {
       throw new JedisException("Could not return the broken resource to the pool", e);
+    } finally {
+      releaseTrafficClass(resource);
+    }
+  }
+
+  /**
+   * Borrows an idle resource without waiting and without ever creating one, bypassing thread
+   * affinity and traffic classes. Meant for maintenance such as health checks; give it back with
+   * {@link #returnIdleResource(Object)}.
+   * @return the resource, or null if none is idle
+   */
+  protected T pollIdleResource() {
+    if (bagPool != null) {
+      try {
+        return bagPool.pollObject();
+      } catch (Exception e) {
+        return null;
+      }
+    }
+    if (internalPool.getNumIdle() == 0) {
+      return null;
+    }
+    final PollingFactory<T> polling = this.pollingFactory;
+    polling.polling.set(Boolean.TRUE);
+    try {
+      return internalPool.borrowObject(0);
+    } catch (Exception e) {
+      // no idle resource was left, creating one was refused
+      return null;
+    } finally {
+      polling.polling.remove();
+    }
+  }
+
+  /**
+   * Gives back a resource obtained with {@link #pollIdleResource()}.
+   */
+  protected void returnIdleResource(final T resource) {
+    try {
+      returnToBackend(resource);
+    } catch (Exception e) {
+      throw new JedisException("Could not return the resource to the pool", e);
+    }
+  }
+
+  private void releaseTrafficClass(final T resource) {
+    final TrafficClassGate<T> gate = this.trafficClassGate;
+    if (gate != null) {
+      gate.returned(resource);
     }
   }
 
   protected void closeInternalPool() {
+    final PoolSizeController controller = this.sizeController;
+    if (controller != null) {
+      this.sizeController = null;
+      controller.close();
+    }
+    final ThreadAffinitySlots<T> slots = this.affinitySlots;
+    if (slots != null) {
+      this.affinitySlots = null;
+      slots.close();
+    }
     try {
-      internalPool.close();
+      if (bagPool != null) {
+        bagPool.close();
+      } else {
+        internalPool.close();
+      }
     } catch (Exception e) {
       throw new JedisException("Could not destroy the pool", e);
     }
   }
+
+  /**
+   * Destroys all idle resources, parked ones included, resources currently in use are not affected.
+   */
+  protected void clearInternalPool() {
+    final ThreadAffinitySlots<T> slots = this.affinitySlots;
+    if (slots != null) {
+      slots.clear();
+    }
+    if (bagPool != null) {
+      bagPool.clear();
+    } else {
+      internalPool.clear();
+    }
+  }
   
   /**
    * Returns the number of instances currently borrowed from this pool.
@@ -114,7 +379,10 @@ public abstract class Pool<T> implements Closeable {
       return -1;
     }
 
-    return this.internalPool.getNumActive();
+    if (this.bagPool != null) {
+      return this.bagPool.getNumActive() - getNumParked();
+    }
+    return this.internalPool.getNumActive() - getNumParked();
   }
   
   /**
@@ -128,7 +396,10 @@ public abstract class Pool<T> implements Closeable {
       return -1;
     }
 
-    return this.internalPool.getNumIdle();
+    if (this.bagPool != null) {
+      return this.bagPool.getNumIdle() + getNumParked();
+    }
+    return this.internalPool.getNumIdle() + getNumParked();
   }
   
   /**
@@ -142,7 +413,12 @@ public abstract class Pool<T> implements Closeable {
       return -1;
     }
 
-    return this.internalPool.getNumWaiters();
+    final TrafficClassGate<T> gate = this.trafficClassGate;
+    int gateWaiters = gate == null ? 0 : gate.getNumWaiters();
+    if (this.bagPool != null) {
+      return this.bagPool.getNumWaiters() + gateWaiters;
+    }
+    return this.internalPool.getNumWaiters() + gateWaiters;
   }
   
   /**
@@ -157,6 +433,9 @@ public abstract class Pool<T> implements Closeable {
       return -1;
     }
 
+    if (this.bagPool != null) {
+      return this.bagPool.getMeanBorrowWaitTimeMillis();
+    }
     return this.internalPool.getMeanBorrowWaitTimeMillis();
   }
   
@@ -172,20 +451,160 @@ public abstract class Pool<T> implements Closeable {
       return -1;
     }
 
+    if (this.bagPool != null) {
+      return this.bagPool.getMaxBorrowWaitTimeMillis();
+    }
     return this.internalPool.getMaxBorrowWaitTimeMillis();
   }
 
+  /**
+   * Returns the gate admitting borrowers by traffic class, which exposes per class statistics.
+   *
+   * @return The gate, null if no traffic classes are configured.
+   */
+  public TrafficClassGate<T> getTrafficClassGate() {
+    return trafficClassGate;
+  }
+
+  /**
+   * Returns the controller resizing this pool.
+   *
+   * @return The controller, null if adaptive sizing is disabled.
+   */
+  public PoolSizeController getSizeController() {
+    return sizeController;
+  }
+
+  public int getMaxTotal() {
+    if (this.bagPool != null) {
+      return this.bagPool.getMaxTotal();
+    }
+    return this.internalPool.getMaxTotal();
+  }
+
+  public void setMaxTotal(final int maxTotal) {
+    if (this.bagPool != null) {
+      this.bagPool.setMaxTotal(maxTotal);
+    } else {
+      this.internalPool.setMaxTotal(maxTotal);
+    }
+    final TrafficClassGate<T> gate = this.trafficClassGate;
+    if (gate != null) {
+      gate.capacityChanged();
+    }
+  }
+
+  public int getMaxIdle() {
+    if (this.bagPool != null) {
+      return this.bagPool.getMaxIdle();
+    }
+    return this.internalPool.getMaxIdle();
+  }
+
+  public void setMaxIdle(final int maxIdle) {
+    if (this.bagPool != null) {
+      this.bagPool.setMaxIdle(maxIdle);
+    } else {
+      this.internalPool.setMaxIdle(maxIdle);
+    }
+  }
+
+  public int getMinIdle() {
+    if (this.bagPool != null) {
+      return this.bagPool.getMinIdle();
+    }
+    return this.internalPool.getMinIdle();
+  }
+
+  public void setMinIdle(final int minIdle) {
+    if (this.bagPool != null) {
+      this.bagPool.setMinIdle(minIdle);
+    } else {
+      this.internalPool.setMinIdle(minIdle);
+    }
+  }
+
+  /**
+   * Returns the number of idle instances kept by threads for their next borrow. These are counted
+   * as idle by {@link #getNumIdle()}.
+   *
+   * @return The number of parked instances, 0 if thread affinity is disabled.
+   */
+  public int getNumParked() {
+    final ThreadAffinitySlots<T> slots = this.affinitySlots;
+    return slots == null ? 0 : slots.getParkedCount();
+  }
+
+  private boolean isExhausted() {
+    if (this.bagPool != null) {
+      int maxTotal = this.bagPool.getMaxTotal();
+      return maxTotal >= 0 && this.bagPool.getNumIdle() == 0
+          && this.bagPool.getNumActive() >= maxTotal;
+    }
+    int maxTotal = this.internalPool.getMaxTotal();
+    return maxTotal >= 0 && this.internalPool.getNumIdle() == 0
+        && this.internalPool.getNumActive() >= maxTotal;
+  }
+
   private boolean poolInactive() {
+    if (this.bagPool != null) {
+      return this.bagPool.isClosed();
+    }
     return this.internalPool == null || this.internalPool.isClosed();
   }
 
   public void addObjects(int count) {
     try {
       for (int i = 0; i < count; i++) {
-        this.internalPool.addObject();
+        if (this.bagPool != null) {
+          this.bagPool.addObject();
+        } else {
+          this.internalPool.addObject();
+        }
       }
     } catch (Exception e) {
       throw new JedisException("Error trying to add idle objects", e);
     }
   }
+
+  /**
+   * Factory of the internal pool. It refuses to create resources while the calling thread polls
+   * for idle ones, since the internal pool creates a resource whenever it finds none idle.
+   */
+  private static class PollingFactory<T> implements PooledObjectFactory<T> {
+    private final PooledObjectFactory<T> factory;
+    private final ThreadLocal<Boolean> polling = new ThreadLocal<Boolean>();
+
+    private PollingFactory(final PooledObjectFactory<T> factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public PooledObject<T> makeObject() throws Exception {
+      if (polling.get() != null) {
+        throw new NoSuchElementException("No idle resource");
+      }
+      return factory.makeObject();
+    }
+
+    @Override
+    public void destroyObject(final PooledObject<T> p) throws Exception {
+      factory.destroyObject(p);
+    }
+
+    @Override
+    public boolean validateObject(final PooledObject<T> p) {
+      return factory.validateObject(p);
+    }
+
+    @Override
+    public void activateObject(final PooledObject<T> p) throws Exception {
+      factory.activateObject(p);
+    }
+
+    @Override
+    public void passivateObject(final PooledObject<T> p) throws Exception {
+      factory.passivateObject(p);
+    }
+  }
 }
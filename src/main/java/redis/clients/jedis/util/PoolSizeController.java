@@ -0,0 +1,218 @@
+package redis.clients.jedis.util;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically resizes a {@link Pool} within hard bounds.
+ * <p>
+ * The pool grows when the 90th percentile of the borrow wait times seen since the last run exceeds
+ * the target, or when threads are waiting for a resource. It shrinks when waits are short and less
+ * than half of the pool has been in use for several runs in a row; lowering maxIdle and minIdle
+ * lets surplus idle resources be destroyed on return or by the evictor.
+ */
+public class PoolSizeController {
+
+  /**
+   * Outcome of a run of the controller.
+   */
+  public enum Decision {
+    NONE, GROW, SHRINK
+  }
+
+  private static final Logger log = LoggerFactory.getLogger(PoolSizeController.class);
+
+  private static final ScheduledThreadPoolExecutor SCHEDULER;
+
+  static {
+    SCHEDULER = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("jedis-pool-sizer"));
+    SCHEDULER.setRemoveOnCancelPolicy(true);
+  }
+
+  // bucket i counts waits below 2^i microseconds, the last one everything above
+  private static final int BUCKETS = 32;
+  private static final double WAIT_PERCENTILE = 0.9;
+  private static final double LOW_UTILIZATION = 0.5;
+  private static final int SHRINK_AFTER_RUNS = 3;
+
+  private final Pool<?> pool;
+  private final int minTotal;
+  private final int maxTotal;
+  private final long targetWaitMicros;
+  private final int configuredMinIdle;
+  private final int configuredMaxIdle;
+  private final ScheduledFuture<?> task;
+
+  private final AtomicLongArray waitHistogram = new AtomicLongArray(BUCKETS);
+  private final AtomicLong growCount = new AtomicLong();
+  private final AtomicLong shrinkCount = new AtomicLong();
+  private int lowUtilizationRuns;
+  private double utilization;
+  private volatile Decision lastDecision = Decision.NONE;
+  private volatile long lastWaitPercentileMicros;
+
+  PoolSizeController(final Pool<?> pool, final int minTotal, final int maxTotal,
+      final long targetWaitMillis, final long periodMillis) {
+    if (minTotal < 1 || maxTotal < minTotal) {
+      throw new IllegalArgumentException("Invalid bounds, expected 1 <= minTotal <= maxTotal");
+    }
+    if (periodMillis <= 0) {
+      throw new IllegalArgumentException("Period must be positive");
+    }
+    this.pool = pool;
+    this.minTotal = minTotal;
+    this.maxTotal = maxTotal;
+    this.targetWaitMicros = TimeUnit.MILLISECONDS.toMicros(targetWaitMillis);
+    this.configuredMinIdle = pool.getMinIdle();
+    this.configuredMaxIdle = pool.getMaxIdle();
+
+    int current = pool.getMaxTotal();
+    if (current < minTotal || current > maxTotal) {
+      resize(current < 0 ? maxTotal : Math.min(maxTotal, Math.max(minTotal, current)));
+    }
+
+    this.task = SCHEDULER.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          adjust();
+        } catch (RuntimeException e) {
+          log.warn("Could not resize the pool.", e);
+        }
+      }
+    }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Records how long a borrow took, successful or not.
+   */
+  public void recordWait(final long nanos) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+    int bucket = micros <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+    waitHistogram.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+  }
+
+  public void close() {
+    task.cancel(false);
+  }
+
+  public int getMinTotal() {
+    return minTotal;
+  }
+
+  public int getMaxTotal() {
+    return maxTotal;
+  }
+
+  public Decision getLastDecision() {
+    return lastDecision;
+  }
+
+  /**
+   * @return the 90th percentile of the borrow wait times observed during the last run, as the
+   *         upper bound of its histogram bucket
+   */
+  public long getLastWaitPercentileMillis() {
+    return TimeUnit.MICROSECONDS.toMillis(lastWaitPercentileMicros);
+  }
+
+  public long getGrowCount() {
+    return growCount.get();
+  }
+
+  public long getShrinkCount() {
+    return shrinkCount.get();
+  }
+
+  /**
+   * @return the smoothed share of the pool in use, between 0 and 1
+   */
+  public synchronized double getUtilization() {
+    return utilization;
+  }
+
+  synchronized void adjust() {
+    if (pool.isClosed()) {
+      return;
+    }
+    final long waitMicros = drainWaitPercentile();
+    final int waiters = Math.max(0, pool.getNumWaiters());
+    final int active = Math.max(0, pool.getNumActive());
+    final int current = pool.getMaxTotal();
+
+    double sample = current > 0 ? Math.min(1.0, (double) active / current) : 0;
+    utilization = utilization == 0 ? sample : 0.7 * utilization + 0.3 * sample;
+    lastWaitPercentileMicros = waitMicros;
+
+    if ((waitMicros > targetWaitMicros || waiters > 0) && current < maxTotal) {
+      int grown = Math.min(maxTotal, Math.max(current + 1, current + current / 2));
+      resize(grown);
+      lowUtilizationRuns = 0;
+      decided(Decision.GROW, current, grown);
+      growCount.incrementAndGet();
+      // blocked borrowers are not woken up by a larger limit, feed them directly
+      pool.addObjects(Math.min(waiters, grown - current));
+      return;
+    }
+
+    if (waitMicros <= targetWaitMicros / 2 && waiters == 0 && utilization < LOW_UTILIZATION) {
+      lowUtilizationRuns++;
+    } else {
+      lowUtilizationRuns = 0;
+    }
+    if (lowUtilizationRuns >= SHRINK_AFTER_RUNS && current > minTotal) {
+      int shrunk = Math.max(minTotal, Math.max(active + 1, current - Math.max(1, current / 4)));
+      if (shrunk < current) {
+        resize(shrunk);
+        lowUtilizationRuns = 0;
+        decided(Decision.SHRINK, current, shrunk);
+        shrinkCount.incrementAndGet();
+        return;
+      }
+    }
+    lastDecision = Decision.NONE;
+  }
+
+  /**
+   * Applies a new maxTotal, keeping the configured maxIdle and minIdle unless they exceed it.
+   */
+  private void resize(final int total) {
+    pool.setMaxTotal(total);
+    // a negative maxIdle means no limit
+    pool.setMaxIdle(configuredMaxIdle < 0 ? -1 : Math.min(configuredMaxIdle, total));
+    pool.setMinIdle(Math.min(configuredMinIdle, total));
+  }
+
+  private void decided(final Decision decision, final int from, final int to) {
+    lastDecision = decision;
+    log.debug("{} pool from {} to {} (p90 wait {}us, utilization {}).", decision, from, to,
+      lastWaitPercentileMicros, utilization);
+  }
+
+  private long drainWaitPercentile() {
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = waitHistogram.getAndSet(i, 0);
+      total += counts[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long threshold = (long) Math.ceil(total * WAIT_PERCENTILE);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= threshold) {
+        return i == 0 ? 0 : 1L << i;
+      }
+    }
+    return 1L << (BUCKETS - 1);
+  }
+}
@@ -23,16 +23,35 @@ import redis.clients.jedis.exceptions.JedisConnectionException;
  */
 public class RedisInputStream extends FilterInputStream {
 
-  protected final byte[] buf;
+  private static final byte[] EMPTY = new byte[0];
+
+  protected byte[] buf;
 
   protected int count, limit;
 
+  private final IoBufferPool bufferPool;
+  private int bufferSize;
+  private int peakFill;
+
   public RedisInputStream(InputStream in, int size) {
     super(in);
     if (size <= 0) {
       throw new IllegalArgumentException("Buffer size <= 0");
     }
     buf = new byte[size];
+    bufferPool = null;
+  }
+
+  /**
+   * Creates a stream which takes its buffer from the given pool when it starts reading, and gives
+   * it back on {@link #releaseBuffer()}. The size of the next buffer follows the largest read seen
+   * with the current one.
+   */
+  public RedisInputStream(InputStream in, IoBufferPool bufferPool) {
+    super(in);
+    this.buf = EMPTY;
+    this.bufferPool = bufferPool;
+    this.bufferSize = bufferPool.getInitialBufferSize();
   }
 
   public RedisInputStream(InputStream in) {
@@ -149,10 +168,10 @@ public class RedisInputStream extends FilterInputStream {
   }
 
   public long readLongCrLf() {
-    final byte[] buf = this.buf;
-
     ensureFill();
 
+    final byte[] buf = this.buf;
+
     final boolean isNeg = buf[count] == '-';
     if (isNeg) {
       ++count;
@@ -189,18 +208,40 @@ public class RedisInputStream extends FilterInputStream {
     return length;
   }
 
+  /**
+   * Gives the buffer back to the pool it was taken from, if any and if everything read has been
+   * consumed. The next read takes a new one.
+   */
+  public void releaseBuffer() {
+    if (bufferPool == null || buf == EMPTY || count < limit) {
+      return;
+    }
+    bufferSize = bufferPool.adapt(buf.length, peakFill);
+    peakFill = 0;
+    bufferPool.release(buf);
+    buf = EMPTY;
+    count = 0;
+    limit = 0;
+  }
+
   /**
    * This methods assumes there are required bytes to be read. If we cannot read anymore bytes an
    * exception is thrown to quickly ascertain that the stream was smaller than expected.
    */
   private void ensureFill() throws JedisConnectionException {
     if (count >= limit) {
+      if (buf == EMPTY) {
+        buf = bufferPool.acquire(bufferSize);
+      }
       try {
         limit = in.read(buf);
         count = 0;
         if (limit == -1) {
           throw new JedisConnectionException("Unexpected end of stream.");
         }
+        if (limit > peakFill) {
+          peakFill = limit;
+        }
       } catch (IOException e) {
         throw new JedisConnectionException(e);
       }
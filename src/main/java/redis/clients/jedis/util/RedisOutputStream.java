@@ -10,10 +10,17 @@ import java.io.OutputStream;
  * used outside Jedis
  */
 public final class RedisOutputStream extends FilterOutputStream {
-  protected final byte[] buf;
+  private static final byte[] EMPTY = new byte[0];
+
+  protected byte[] buf;
 
   protected int count;
 
+  private final IoBufferPool bufferPool;
+  private int bufferSize;
+  private int peakUsage;
+  private long writtenBytes;
+
   private final static int[] sizeTable = { 9, 99, 999, 9999, 99999, 999999, 9999999, 99999999,
           999999999, Integer.MAX_VALUE };
 
@@ -45,16 +52,61 @@ public final class RedisOutputStream extends FilterOutputStream {
       throw new IllegalArgumentException("Buffer size <= 0");
     }
     buf = new byte[size];
+    bufferPool = null;
+  }
+
+  /**
+   * Creates a stream which takes its buffer from the given pool when it starts writing, and gives
+   * it back on {@link #releaseBuffer()}. The size of the next buffer follows the largest flush seen
+   * with the current one.
+   */
+  public RedisOutputStream(final OutputStream out, final IoBufferPool bufferPool) {
+    super(out);
+    this.buf = EMPTY;
+    this.bufferPool = bufferPool;
+    this.bufferSize = bufferPool.getInitialBufferSize();
+  }
+
+  /**
+   * Gives the buffer back to the pool it was taken from, if any and if it has been flushed. The
+   * next write takes a new one.
+   */
+  public void releaseBuffer() {
+    if (bufferPool == null || buf == EMPTY || count > 0) {
+      return;
+    }
+    bufferSize = bufferPool.adapt(buf.length, peakUsage);
+    peakUsage = 0;
+    bufferPool.release(buf);
+    buf = EMPTY;
+  }
+
+  /**
+   * @return the number of bytes written to this stream so far, including the buffered ones
+   */
+  public long getWrittenBytes() {
+    return writtenBytes + count;
+  }
+
+  private void ensureBuffer() {
+    if (buf == EMPTY) {
+      buf = bufferPool.acquire(bufferSize);
+    }
   }
 
   private void flushBuffer() throws IOException {
     if (count > 0) {
+      if (count > peakUsage) {
+        peakUsage = count;
+      }
       out.write(buf, 0, count);
+      writtenBytes += count;
       count = 0;
     }
   }
 
   public void write(final byte b) throws IOException {
+    ensureBuffer();
     if (count == buf.length) {
       flushBuffer();
     }
@@ -68,9 +120,12 @@ public final class RedisOutputStream extends FilterOutputStream {
 
   @Override
   public void write(final byte[] b, final int off, final int len) throws IOException {
+    ensureBuffer();
     if (len >= buf.length) {
+      peakUsage = buf.length;
       flushBuffer();
       out.write(b, off, len);
+      writtenBytes += len;
     } else {
       if (len >= buf.length - count) {
         flushBuffer();
@@ -82,6 +137,7 @@ public final class RedisOutputStream extends FilterOutputStream {
   }
 
   public void writeCrLf() throws IOException {
+    ensureBuffer();
     if (2 >= buf.length - count) {
       flushBuffer();
     }
@@ -91,6 +147,7 @@ public final class RedisOutputStream extends FilterOutputStream {
   }
 
   public void writeIntCrLf(int value) throws IOException {
+    ensureBuffer();
     if (value < 0) {
       write((byte) '-');
       value = -value;
@@ -0,0 +1,206 @@
+package redis.clients.jedis.util;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the resource a thread returned last in a slot of its own, so that the next borrow of the
+ * same thread gets it back without going through the shared pool.
+ * <p>
+ * A parked resource still counts as borrowed for the underlying pool. It is handed back to the
+ * pool when it stays parked for longer than the idle timeout (e.g. the thread went idle or died),
+ * and other threads may steal it when the pool is exhausted.
+ */
+public class ThreadAffinitySlots<T> {
+  private static final int EMPTY = 0;
+  private static final int PARKED = 1;
+  private static final int BUSY = 2;
+
+  private static final Logger log = LoggerFactory.getLogger(ThreadAffinitySlots.class);
+
+  private static final ScheduledThreadPoolExecutor REAPER;
+
+  static {
+    REAPER = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("jedis-affinity-reaper"));
+    REAPER.setRemoveOnCancelPolicy(true);
+  }
+
+  private final Pool<T> pool;
+  private final long idleTimeoutMillis;
+  private final ThreadLocal<Slot<T>> localSlot = new ThreadLocal<Slot<T>>();
+  private final ConcurrentLinkedQueue<Slot<T>> slots = new ConcurrentLinkedQueue<Slot<T>>();
+  private final AtomicInteger parkedCount = new AtomicInteger();
+  private final ScheduledFuture<?> reaperTask;
+  private volatile boolean closed;
+
+  ThreadAffinitySlots(final Pool<T> pool, final long idleTimeoutMillis) {
+    if (idleTimeoutMillis <= 0) {
+      throw new IllegalArgumentException("Idle timeout must be positive");
+    }
+    this.pool = pool;
+    this.idleTimeoutMillis = idleTimeoutMillis;
+
+    long period = Math.max(1, idleTimeoutMillis / 2);
+    this.reaperTask = REAPER.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        reap();
+      }
+    }, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Takes back the resource parked by the calling thread.
+   * @return the resource, or null if the thread has none parked
+   */
+  public T claim() {
+    Slot<T> slot = localSlot.get();
+    return slot == null ? null : take(slot);
+  }
+
+  /**
+   * Parks a resource in the slot of the calling thread.
+   * @return false if the slot is already taken or the slots are closed, in which case the caller
+   *         has to return the resource to the pool itself
+   */
+  public boolean park(final T resource) {
+    if (closed) {
+      return false;
+    }
+    Slot<T> slot = localSlot.get();
+    if (slot == null) {
+      slot = new Slot<T>(Thread.currentThread());
+      localSlot.set(slot);
+      slots.add(slot);
+    }
+    if (!slot.state.compareAndSet(EMPTY, BUSY)) {
+      return false;
+    }
+    slot.resource = resource;
+    slot.parkedAt = System.currentTimeMillis();
+    parkedCount.incrementAndGet();
+    slot.state.set(PARKED);
+
+    // close() may have drained the slots in the meantime
+    if (closed && take(slot) != null) {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Takes a resource parked by any thread, used when the pool has nothing left to lend.
+   * @return the resource, or null if none is parked
+   */
+  public T steal() {
+    if (parkedCount.get() == 0) {
+      return null;
+    }
+    for (Slot<T> slot : slots) {
+      T resource = take(slot);
+      if (resource != null) {
+        return resource;
+      }
+    }
+    return null;
+  }
+
+  public int getParkedCount() {
+    return parkedCount.get();
+  }
+
+  public long getIdleTimeoutMillis() {
+    return idleTimeoutMillis;
+  }
+
+  /**
+   * Stops parking resources and destroys all parked ones.
+   */
+  public void close() {
+    closed = true;
+    reaperTask.cancel(false);
+    clear();
+  }
+
+  /**
+   * Destroys all parked resources, e.g. when the pool is cleared because its server changed.
+   */
+  public void clear() {
+    for (T resource : drain()) {
+      try {
+        pool.invalidateInBackend(resource);
+      } catch (Exception e) {
+        log.warn("Could not destroy a parked resource.", e);
+      }
+    }
+  }
+
+  private List<T> drain() {
+    List<T> drained = new ArrayList<T>();
+    for (Slot<T> slot : slots) {
+      T resource = take(slot);
+      if (resource != null) {
+        drained.add(resource);
+      }
+    }
+    return drained;
+  }
+
+  private void reap() {
+    final long now = System.currentTimeMillis();
+    Iterator<Slot<T>> it = slots.iterator();
+    while (it.hasNext()) {
+      Slot<T> slot = it.next();
+      boolean ownerGone = slot.owner.get() == null;
+      if (ownerGone || (slot.state.get() == PARKED && now - slot.parkedAt > idleTimeoutMillis)) {
+        T resource = take(slot);
+        if (resource != null) {
+          release(resource);
+        }
+      }
+      if (ownerGone && slot.state.get() == EMPTY) {
+        it.remove();
+      }
+    }
+  }
+
+  private T take(final Slot<T> slot) {
+    if (!slot.state.compareAndSet(PARKED, BUSY)) {
+      return null;
+    }
+    T resource = slot.resource;
+    slot.resource = null;
+    parkedCount.decrementAndGet();
+    slot.state.set(EMPTY);
+    return resource;
+  }
+
+  private void release(final T resource) {
+    try {
+      pool.returnToBackend(resource);
+    } catch (Exception e) {
+      log.warn("Could not return a parked resource to the pool.", e);
+    }
+  }
+
+  private static class Slot<T> {
+    private final WeakReference<Thread> owner;
+    private final AtomicInteger state = new AtomicInteger(EMPTY);
+    private volatile T resource;
+    private volatile long parkedAt;
+
+    private Slot(final Thread owner) {
+      this.owner = new WeakReference<Thread>(owner);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package redis.clients.jedis.util;
+
+/**
+ * A named class of pool borrowers, e.g. "interactive" or "batch", configured on a
+ * {@link redis.clients.jedis.JedisPoolConfig}.
+ * <p>
+ * Waiting borrowers of a higher priority are served first. Connections reserved for a class can
+ * only be borrowed by that class, so a burst of another class cannot exhaust them. Borrowers pick
+ * their class with {@link Pool#getResource(String)} or, for pools they do not access directly
+ * such as the node pools of a JedisCluster, by binding it to the current thread with
+ * {@link #setCurrent(String)}. Borrowers without a class, or with one unknown to the
+ * pool, belong to the {@link #DEFAULT} class.
+ */
+public class TrafficClass {
+  public static final String DEFAULT = "default";
+
+  private static final ThreadLocal<String> current = new ThreadLocal<String>();
+
+  private final String name;
+  private final int priority;
+  private final int reservedCapacity;
+  private final long maxWaitMillis;
+
+  /**
+   * @param name name of the class
+   * @param priority waiting borrowers with a higher priority are served first
+   * @param reservedCapacity number of connections kept available for this class
+   * @param maxWaitMillis how long borrowers of this class wait for a connection, negative for
+   *          indefinitely
+   */
+  public TrafficClass(final String name, final int priority, final int reservedCapacity,
+      final long maxWaitMillis) {
+    if (name == null) {
+      throw new IllegalArgumentException("Traffic class name must not be null");
+    }
+    if (reservedCapacity < 0) {
+      throw new IllegalArgumentException("Reserved capacity must not be negative");
+    }
+    this.name = name;
+    this.priority = priority;
+    this.reservedCapacity = reservedCapacity;
+    this.maxWaitMillis = maxWaitMillis;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getPriority() {
+    return priority;
+  }
+
+  public int getReservedCapacity() {
+    return reservedCapacity;
+  }
+
+  public long getMaxWaitMillis() {
+    return maxWaitMillis;
+  }
+
+  /**
+   * Binds a traffic class to the current thread, used by its borrows until cleared.
+   */
+  public static void setCurrent(final String name) {
+    if (name == null) {
+      current.remove();
+    } else {
+      current.set(name);
+    }
+  }
+
+  public static String getCurrent() {
+    return current.get();
+  }
+
+  public static void clearCurrent() {
+    current.remove();
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
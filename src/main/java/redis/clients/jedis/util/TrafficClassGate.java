@@ -0,0 +1,288 @@
+package redis.clients.jedis.util;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisExhaustedPoolException;
+
+/**
+ * Admits borrowers of a {@link Pool} by {@link TrafficClass}, before they reach the underlying
+ * pool.
+ * <p>
+ * At most maxTotal borrowers are admitted at a time, and a class is only admitted if enough
+ * capacity is left for the unused reservations of the other classes. Waiting borrowers are queued
+ * by priority, then by arrival, and each waits for at most the max wait of its class.
+ */
+public class TrafficClassGate<T> {
+
+  private static final Comparator<Waiter> WAITER_ORDER = new Comparator<Waiter>() {
+    @Override
+    public int compare(Waiter w1, Waiter w2) {
+      if (w1.lane.trafficClass.getPriority() != w2.lane.trafficClass.getPriority()) {
+        return w1.lane.trafficClass.getPriority() > w2.lane.trafficClass.getPriority() ? -1 : 1;
+      }
+      return w1.sequence < w2.sequence ? -1 : (w1.sequence == w2.sequence ? 0 : 1);
+    }
+  };
+
+  private final Pool<T> pool;
+  private final boolean blockWhenExhausted;
+  private final Map<String, Lane> lanes = new HashMap<String, Lane>();
+  private final Lane defaultLane;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final TreeSet<Waiter> waiters = new TreeSet<Waiter>(WAITER_ORDER);
+  private final IdentityHashMap<T, Lane> holders = new IdentityHashMap<T, Lane>();
+  private int inUse;
+  private long sequence;
+
+  TrafficClassGate(final Pool<T> pool, final List<TrafficClass> trafficClasses,
+      final long defaultMaxWaitMillis, final boolean blockWhenExhausted) {
+    this.pool = pool;
+    this.blockWhenExhausted = blockWhenExhausted;
+    for (TrafficClass trafficClass : trafficClasses) {
+      lanes.put(trafficClass.getName(), new Lane(trafficClass));
+    }
+    Lane lane = lanes.get(TrafficClass.DEFAULT);
+    if (lane == null) {
+      lane = new Lane(new TrafficClass(TrafficClass.DEFAULT, 0, 0, defaultMaxWaitMillis));
+      lanes.put(TrafficClass.DEFAULT, lane);
+    }
+    this.defaultLane = lane;
+  }
+
+  /**
+   * Waits until a borrower of the traffic class bound to the current thread may be admitted.
+   * @return a ticket to pass to {@link #admitted(Object, Object)} or {@link #release(Object)}
+   */
+  Object acquire() {
+    final Lane lane = lane(TrafficClass.getCurrent());
+    lock.lock();
+    try {
+      if (waiters.isEmpty() && canAdmit(lane)) {
+        admit(lane);
+        return lane;
+      }
+      if (!blockWhenExhausted) {
+        lane.timeouts++;
+        throw exhausted(lane);
+      }
+
+      final Waiter waiter = new Waiter(lane, sequence++, lock.newCondition());
+      waiters.add(waiter);
+      lane.waiting++;
+      // waiters ahead may only be blocked by reservations this class is not subject to
+      dispatch();
+      final long maxWaitMillis = lane.trafficClass.getMaxWaitMillis();
+      long nanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+      boolean interrupted = false;
+      try {
+        while (!waiter.admitted) {
+          if (maxWaitMillis < 0) {
+            waiter.condition.await();
+          } else if (nanos > 0) {
+            nanos = waiter.condition.awaitNanos(nanos);
+          } else {
+            break;
+          }
+        }
+      } catch (InterruptedException e) {
+        interrupted = true;
+        Thread.currentThread().interrupt();
+      } finally {
+        lane.waiting--;
+      }
+
+      if (!waiter.admitted) {
+        waiters.remove(waiter);
+        if (interrupted) {
+          throw new JedisException("Interrupted while waiting for a resource of traffic class "
+              + lane.trafficClass);
+        }
+        lane.timeouts++;
+        throw exhausted(lane);
+      }
+      return lane;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Records the resource borrowed with a ticket, to release the ticket when it comes back.
+   */
+  void admitted(final Object ticket, final T resource) {
+    lock.lock();
+    try {
+      holders.put(resource, (Lane) ticket);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases the ticket of a resource given back to the pool.
+   */
+  void returned(final T resource) {
+    lock.lock();
+    try {
+      Lane lane = holders.remove(resource);
+      if (lane != null) {
+        releaseLocked(lane);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases a ticket for which no resource could be borrowed.
+   */
+  void release(final Object ticket) {
+    lock.lock();
+    try {
+      releaseLocked((Lane) ticket);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Admits waiting borrowers after maxTotal of the pool has changed.
+   */
+  void capacityChanged() {
+    lock.lock();
+    try {
+      dispatch();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getNumWaiters() {
+    lock.lock();
+    try {
+      return waiters.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of borrowers of the given class currently admitted
+   */
+  public int getNumActive(final String trafficClass) {
+    lock.lock();
+    try {
+      return lane(trafficClass).inUse;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of borrowers of the given class currently waiting
+   */
+  public int getNumWaiters(final String trafficClass) {
+    lock.lock();
+    try {
+      return lane(trafficClass).waiting;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of borrowers of the given class which gave up waiting so far
+   */
+  public long getTimeoutCount(final String trafficClass) {
+    lock.lock();
+    try {
+      return lane(trafficClass).timeouts;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Lane lane(final String name) {
+    Lane lane = name == null ? null : lanes.get(name);
+    return lane == null ? defaultLane : lane;
+  }
+
+  private boolean canAdmit(final Lane lane) {
+    final int capacity = pool.getMaxTotal();
+    if (capacity < 0) {
+      return true;
+    }
+    int reservedForOthers = 0;
+    for (Lane other : lanes.values()) {
+      if (other != lane) {
+        reservedForOthers += Math.max(0, other.trafficClass.getReservedCapacity() - other.inUse);
+      }
+    }
+    return capacity - inUse - 1 >= reservedForOthers;
+  }
+
+  private void admit(final Lane lane) {
+    inUse++;
+    lane.inUse++;
+  }
+
+  private void releaseLocked(final Lane lane) {
+    inUse--;
+    lane.inUse--;
+    dispatch();
+  }
+
+  private void dispatch() {
+    Iterator<Waiter> it = waiters.iterator();
+    while (it.hasNext()) {
+      Waiter waiter = it.next();
+      if (canAdmit(waiter.lane)) {
+        it.remove();
+        admit(waiter.lane);
+        waiter.admitted = true;
+        waiter.condition.signal();
+      }
+    }
+  }
+
+  private JedisExhaustedPoolException exhausted(final Lane lane) {
+    return new JedisExhaustedPoolException(
+        "Could not get a resource for traffic class " + lane.trafficClass
+            + " since the pool is exhausted");
+  }
+
+  private static class Lane {
+    private final TrafficClass trafficClass;
+    private int inUse;
+    private int waiting;
+    private long timeouts;
+
+    private Lane(final TrafficClass trafficClass) {
+      this.trafficClass = trafficClass;
+    }
+  }
+
+  private static class Waiter {
+    private final Lane lane;
+    private final long sequence;
+    private final Condition condition;
+    private boolean admitted;
+
+    private Waiter(final Lane lane, final long sequence, final Condition condition) {
+      this.lane = lane;
+      this.sequence = sequence;
+      this.condition = condition;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.BoundedPipeline;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.PipelineCallback;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.tests.utils.FakeRedisServer;
+
+public class BoundedPipelineTest {
+
+  private FakeRedisServer server;
+  private Jedis jedis;
+
+  private static class RecordingCallback implements PipelineCallback {
+    private final List<Long> indexes = new ArrayList<Long>();
+    private final List<Object> responses = new ArrayList<Object>();
+
+    @Override
+    public void onResponse(long index, Object response) {
+      indexes.add(index);
+      responses.add(response);
+    }
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    server = new FakeRedisServer(new FakeRedisServer.Handler() {
+      @Override
+      public String reply(List<String> command) {
+        if (command.get(0).equals("INCR")) {
+          return "-ERR value is not an integer or out of range\r\n";
+        }
+        return "+OK\r\n";
+      }
+    });
+    jedis = new Jedis(server.getHostAndPort());
+    jedis.connect();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jedis.close();
+    server.close();
+  }
+
+  @Test
+  public void deliversResultsInOrderWhileSending() {
+    RecordingCallback callback = new RecordingCallback();
+    BoundedPipeline p = jedis.pipelined(callback, 10, Long.MAX_VALUE);
+
+    for (int i = 0; i < 10; i++) {
+      p.set("key" + i, "value");
+    }
+    // reaching the limit drained down to half of it
+    assertEquals(5, p.getDeliveredCount());
+
+    for (int i = 10; i < 1000; i++) {
+      p.set("key" + i, "value");
+      assertTrue(i + 1 - p.getDeliveredCount() < 10);
+    }
+    p.sync();
+
+    assertEquals(1000, callback.responses.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(Long.valueOf(i), callback.indexes.get(i));
+      assertEquals("OK", callback.responses.get(i));
+    }
+  }
+
+  @Test
+  public void drainsAfterByteLimit() {
+    RecordingCallback callback = new RecordingCallback();
+    BoundedPipeline p = jedis.pipelined(callback, 1000, 100);
+
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      value.append('x');
+    }
+    p.set("key", value.toString());
+    p.set("key", value.toString());
+    assertEquals(2, p.getDeliveredCount());
+  }
+
+  @Test
+  public void deliversErrors() {
+    RecordingCallback callback = new RecordingCallback();
+    BoundedPipeline p = jedis.pipelined(callback, 10, Long.MAX_VALUE);
+    p.set("foo", "bar");
+    p.incr("foo");
+    p.sync();
+
+    assertEquals("OK", callback.responses.get(0));
+    assertTrue(callback.responses.get(1) instanceof JedisDataException);
+  }
+
+  @Test(expected = JedisDataException.class)
+  public void refusesMulti() {
+    jedis.pipelined(new RecordingCallback(), 10, 1000).multi();
+  }
+}
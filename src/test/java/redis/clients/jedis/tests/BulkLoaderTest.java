@@ -0,0 +1,217 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import redis.clients.jedis.BulkCommand;
+import redis.clients.jedis.BulkLoadReport;
+import redis.clients.jedis.BulkLoader;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisShardInfo;
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.ShardedJedis;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.tests.utils.FakeRedisCluster;
+import redis.clients.jedis.tests.utils.FakeRedisServer;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+public class BulkLoaderTest {
+
+  private static Iterator<BulkCommand> sets(final int count) {
+    return new Iterator<BulkCommand>() {
+      private int n = 0;
+
+      @Override
+      public boolean hasNext() {
+        return n < count;
+      }
+
+      @Override
+      public BulkCommand next() {
+        int i = n++;
+        return BulkCommand.of(Command.SET, "key" + i, "value" + i);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Test
+  public void loadsIntoClusterAndCollectsErrors() throws IOException {
+    FakeRedisCluster cluster = new FakeRedisCluster(3);
+    JedisCluster jc = new JedisCluster(cluster.getNodes());
+    try {
+      List<BulkCommand> commands = new ArrayList<BulkCommand>();
+      for (int i = 0; i < 5000; i++) {
+        commands.add(BulkCommand.of(Command.SET, "key" + i, "value" + i));
+      }
+      commands.add(BulkCommand.of(Command.INCR, "key42"));
+      commands.add(BulkCommand.of(Command.SET, "counter", "1"));
+      commands.add(BulkCommand.of(Command.INCR, "counter"));
+
+      BulkLoader loader = new BulkLoader(BulkLoader.clusterRouter(jc));
+      loader.setConnectionsPerNode(2);
+      loader.setWindowSize(64);
+      BulkLoadReport report = loader.load(commands);
+
+      assertEquals(5003, report.getCommandCount());
+      assertEquals(1, report.getErrorCount());
+      assertEquals(5000, report.getFailures().get(0).getIndex());
+      assertTrue(report.getWrittenBytes() > 5000 * 20);
+      assertTrue(report.getCommandsPerSecond() > 0);
+      for (int i = 0; i < 5000; i++) {
+        assertEquals("value" + i, cluster.get("key" + i));
+      }
+      assertEquals("2", cluster.get("counter"));
+      // the connections went back to the node pools
+      for (JedisPool pool : jc.getClusterNodes().values()) {
+        assertEquals(0, pool.getNumActive());
+      }
+    } finally {
+      jc.close();
+      cluster.close();
+    }
+  }
+
+  @Test
+  public void followsRedirectsDuringResharding() throws IOException {
+    FakeRedisCluster cluster = new FakeRedisCluster(3);
+    JedisCluster jc = new JedisCluster(cluster.getNodes());
+    try {
+      final int moved = JedisClusterCRC16.getSlot("key0");
+      final int migrating = JedisClusterCRC16.getSlot("key1");
+      cluster.moveSlot(moved, (cluster.getOwner(moved) + 1) % 3);
+      cluster.migrateSlot(migrating, (cluster.getOwner(migrating) + 1) % 3);
+
+      BulkLoader loader = new BulkLoader(BulkLoader.clusterRouter(jc));
+      loader.setWindowSize(16);
+      BulkLoadReport report = loader.load(sets(1000));
+
+      assertEquals(1000, report.getCommandCount());
+      assertEquals(0, report.getErrorCount());
+      for (int i = 0; i < 1000; i++) {
+        assertEquals("value" + i, cluster.get("key" + i));
+      }
+    } finally {
+      jc.close();
+      cluster.close();
+    }
+  }
+
+  @Test
+  public void followsRedirectsBetweenDrainingConnections() throws IOException {
+    FakeRedisCluster cluster = new FakeRedisCluster(3);
+    JedisCluster jc = new JedisCluster(cluster.getNodes());
+    try {
+      final String asked = "{key0}";
+      final int askedSlot = JedisClusterCRC16.getSlot(asked);
+      final int askedOwner = cluster.getOwner(askedSlot);
+      String moved = null;
+      for (int i = 1; moved == null; i++) {
+        if (cluster.getOwner(JedisClusterCRC16.getSlot("key" + i)) != askedOwner) {
+          moved = "{key" + i + "}";
+        }
+      }
+      final int movedSlot = JedisClusterCRC16.getSlot(moved);
+      // the node of the moved keys gets the asked ones, and the other way round
+      cluster.migrateSlot(askedSlot, cluster.getOwner(movedSlot));
+      cluster.moveSlot(movedSlot, askedOwner);
+
+      // fills the window of the moved keys' connection, then reads the ASK replies of the asked
+      // keys into it while its own window is full, whose MOVED replies go back to the first
+      List<BulkCommand> commands = new ArrayList<BulkCommand>();
+      for (int i = 0; i < 4; i++) {
+        commands.add(BulkCommand.of(Command.SET, moved + i, "value" + i));
+      }
+      for (int i = 0; i < 5; i++) {
+        commands.add(BulkCommand.of(Command.SET, asked + i, "value" + i));
+      }
+      BulkLoader loader = new BulkLoader(BulkLoader.clusterRouter(jc));
+      loader.setWindowSize(4);
+      BulkLoadReport report = loader.load(commands);
+
+      assertEquals(9, report.getCommandCount());
+      assertEquals(0, report.getErrorCount());
+      for (int i = 0; i < 4; i++) {
+        assertEquals("value" + i, cluster.get(moved + i));
+      }
+      for (int i = 0; i < 5; i++) {
+        assertEquals("value" + i, cluster.get(asked + i));
+      }
+    } finally {
+      jc.close();
+      cluster.close();
+    }
+  }
+
+  @Test
+  public void loadsThroughPool() throws IOException {
+    FakeRedisServer server = new FakeRedisServer();
+    HostAndPort hnp = server.getHostAndPort();
+    JedisPool pool = new JedisPool(new JedisPoolConfig(), hnp.getHost(), hnp.getPort());
+    try {
+      BulkLoader loader = new BulkLoader(BulkLoader.nodeRouter(pool));
+      loader.setWindowSize(10);
+      BulkLoadReport report = loader.load(sets(10000));
+
+      assertEquals(10000, report.getCommandCount());
+      assertEquals(0, report.getErrorCount());
+      assertEquals(10000, server.getCommandCount());
+      assertEquals(0, pool.getNumActive());
+      assertEquals(1, pool.getNumIdle());
+    } finally {
+      pool.close();
+      server.close();
+    }
+  }
+
+  @Test
+  public void loadsIntoShards() throws IOException {
+    FakeRedisServer server1 = new FakeRedisServer();
+    FakeRedisServer server2 = new FakeRedisServer();
+    List<JedisShardInfo> shards = new ArrayList<JedisShardInfo>();
+    shards.add(new JedisShardInfo(server1.getHostAndPort().getHost(), server1.getHostAndPort()
+        .getPort()));
+    shards.add(new JedisShardInfo(server2.getHostAndPort().getHost(), server2.getHostAndPort()
+        .getPort()));
+    ShardedJedis sharded = new ShardedJedis(shards);
+    try {
+      BulkLoadReport report = new BulkLoader(BulkLoader.shardedRouter(sharded)).load(sets(2000));
+
+      assertEquals(2000, report.getCommandCount());
+      assertTrue(server1.getCommandCount() > 0);
+      assertTrue(server2.getCommandCount() > 0);
+      assertEquals(2000, server1.getCommandCount() + server2.getCommandCount());
+    } finally {
+      sharded.close();
+      server1.close();
+      server2.close();
+    }
+  }
+
+  @Test(expected = JedisConnectionException.class)
+  public void abortsWhenNodeIsUnreachable() throws IOException {
+    FakeRedisServer server = new FakeRedisServer();
+    HostAndPort hnp = server.getHostAndPort();
+    server.close();
+    JedisPool pool = new JedisPool(new JedisPoolConfig(), hnp.getHost(), hnp.getPort());
+    try {
+      new BulkLoader(BulkLoader.nodeRouter(pool)).load(sets(100));
+    } finally {
+      pool.close();
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import redis.clients.jedis.ClusterNodeHealth;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisClusterMaxAttemptsException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.tests.utils.FakeRedisCluster;
+
+public class ClusterNodeHealthTest {
+
+  private FakeRedisCluster cluster;
+  private JedisCluster jc;
+
+  @After
+  public void tearDown() throws IOException {
+    if (jc != null) {
+      jc.close();
+    }
+    if (cluster != null) {
+      cluster.close();
+    }
+  }
+
+  @Test
+  public void tracksSuccessesAndFailures() throws InterruptedException {
+    ClusterNodeHealth health = new ClusterNodeHealth();
+    health.setWindowMillis(50);
+    JedisPool pool = new JedisPool();
+    try {
+      assertTrue(health.isHealthy(pool));
+      assertFalse(health.isResponsive(pool));
+
+      health.recordSuccess(pool);
+      assertTrue(health.isResponsive(pool));
+      health.recordFailure(pool);
+      health.recordFailure(pool);
+      assertFalse(health.isHealthy(pool));
+      assertEquals(2, health.getConsecutiveFailures(pool));
+
+      Thread.sleep(100);
+      assertTrue(health.isHealthy(pool));
+      assertFalse(health.isResponsive(pool));
+      health.recordSuccess(pool);
+      assertEquals(0, health.getConsecutiveFailures(pool));
+    } finally {
+      pool.close();
+    }
+  }
+
+  private int totalCommands() {
+    int commands = 0;
+    for (int node = 0; node < 3; node++) {
+      commands += cluster.getCommandCount(node);
+    }
+    return commands;
+  }
+
+  @Test
+  public void keylessCommandsSkipPingOnAnsweringNodes() throws IOException {
+    cluster = new FakeRedisCluster(3);
+    jc = new JedisCluster(cluster.getNode(0));
+    for (int i = 0; i < 30; i++) {
+      jc.set("key" + i, "value");
+    }
+
+    final int commands = totalCommands();
+    for (int i = 0; i < 10; i++) {
+      assertEquals(Long.valueOf(0), jc.publish("channel", "message"));
+    }
+    assertEquals(commands + 10, totalCommands());
+  }
+
+  @Test
+  public void keylessCommandsSkipFormerMasters() throws IOException, InterruptedException {
+    cluster = new FakeRedisCluster(3, 1);
+    jc = new JedisCluster(cluster.getNode(0));
+    for (int i = 0; i < 30; i++) {
+      jc.set("key" + i, "value");
+    }
+
+    cluster.failover(0, 0);
+    final int slotsRequests = cluster.getSlotsRequestCount();
+    jc.setTopologyRefreshPeriod(20);
+    final long deadline = System.currentTimeMillis() + 5000;
+    // the second refresh starts once the first one is published
+    while (cluster.getSlotsRequestCount() < slotsRequests + 2
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    jc.setTopologyRefreshPeriod(0);
+    Thread.sleep(50);
+
+    final int formerMasterCommands = cluster.getCommandCount(0);
+    for (int i = 0; i < 30; i++) {
+      assertEquals(Long.valueOf(0), jc.publish("channel", "message"));
+    }
+    assertEquals(formerMasterCommands, cluster.getCommandCount(0));
+  }
+
+  @Test
+  public void forgetsNodesLeavingTheCluster() throws IOException, InterruptedException {
+    cluster = new FakeRedisCluster(3, 1);
+    jc = new JedisCluster(cluster.getNode(0));
+    for (int i = 0; i < 30; i++) {
+      jc.set("key" + i, "value");
+    }
+    final String formerMaster = cluster.getNode(0).toString();
+    final JedisPool pool = jc.getClusterNodes().get(formerMaster);
+    assertTrue(jc.getNodeHealth().isResponsive(pool));
+
+    cluster.failover(0, 0);
+    jc.setTopologyRefreshPeriod(20);
+    final long deadline = System.currentTimeMillis() + 5000;
+    while (jc.getClusterNodes().containsKey(formerMaster)
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertFalse(jc.getClusterNodes().containsKey(formerMaster));
+    assertTrue(pool.isClosed());
+    assertFalse(jc.getNodeHealth().isResponsive(pool));
+  }
+
+  @Test
+  public void probesNodesInBackground() throws IOException, InterruptedException {
+    cluster = new FakeRedisCluster(3);
+    jc = new JedisCluster(cluster.getNode(0));
+    jc.setNodeProbePeriod(20);
+
+    final long deadline = System.currentTimeMillis() + 5000;
+    for (JedisPool pool : jc.getClusterNodes().values()) {
+      while (!jc.getNodeHealth().isResponsive(pool) && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertTrue(jc.getNodeHealth().isResponsive(pool));
+    }
+
+    final int commands = totalCommands();
+    assertEquals(Long.valueOf(0), jc.publish("channel", "message"));
+    assertEquals(commands + 1, totalCommands());
+  }
+
+  @Test
+  public void renewsSlotCacheOnlyForUnresponsiveNode() throws IOException, InterruptedException {
+    cluster = new FakeRedisCluster(3);
+    jc = new JedisCluster(cluster.getNode(1), 2000, 2);
+    String key = null;
+    for (int i = 0; key == null; i++) {
+      if (cluster.getOwner(JedisClusterCRC16.getSlot("key" + i)) == 0) {
+        key = "key" + i;
+      }
+    }
+    jc.set(key, "value");
+    cluster.stopNode(0);
+
+    final int slotsRequests = cluster.getSlotsRequestCount();
+    try {
+      jc.get(key);
+      fail("The master of the key is stopped");
+    } catch (JedisClusterMaxAttemptsException e) {
+      // the master answered lately, the refresh is left to the background
+      assertEquals(slotsRequests, cluster.getSlotsRequestCount());
+    }
+
+    jc.getNodeHealth().setWindowMillis(1);
+    Thread.sleep(10);
+    try {
+      jc.get(key);
+      fail("The master of the key is stopped");
+    } catch (JedisClusterMaxAttemptsException e) {
+      assertTrue(cluster.getSlotsRequestCount() > slotsRequests);
+    }
+  }
+}
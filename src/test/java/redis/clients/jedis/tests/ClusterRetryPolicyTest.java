@@ -0,0 +1,150 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.ClusterRetryPolicy;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.exceptions.JedisClusterException;
+import redis.clients.jedis.exceptions.JedisClusterMaxAttemptsException;
+import redis.clients.jedis.tests.utils.FakeRedisCluster;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+public class ClusterRetryPolicyTest {
+
+  private static final String CLUSTERDOWN = "CLUSTERDOWN The cluster is down";
+
+  private FakeRedisCluster cluster;
+  private JedisCluster jc;
+
+  @Before
+  public void setUp() throws IOException {
+    cluster = new FakeRedisCluster(3);
+    jc = new JedisCluster(cluster.getNode(0), 2000, 5);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jc.close();
+    cluster.close();
+  }
+
+  @Test
+  public void boundsBackoff() {
+    ClusterRetryPolicy policy = new ClusterRetryPolicy(10, 40, 10, 0, 0);
+    for (int i = 0; i < 100; i++) {
+      assertTrue(policy.getBackoffMillis(1) <= 10);
+      assertTrue(policy.getBackoffMillis(3) <= 40);
+      assertTrue(policy.getBackoffMillis(40) <= 40);
+    }
+    assertEquals(0, new ClusterRetryPolicy(0, 0, 10, 0, 0).getBackoffMillis(5));
+  }
+
+  @Test
+  public void refillsBudget() throws InterruptedException {
+    ClusterRetryPolicy policy = new ClusterRetryPolicy(0, 0, 2, 100, 0);
+    assertTrue(policy.tryAcquireRetry());
+    assertTrue(policy.tryAcquireRetry());
+    assertFalse(policy.tryAcquireRetry());
+    Thread.sleep(50);
+    assertTrue(policy.tryAcquireRetry());
+    assertEquals(3, policy.getRetryCount());
+    assertEquals(1, policy.getRejectedCount());
+  }
+
+  @Test
+  public void retriesTryAgain() {
+    cluster.failCommands("TRYAGAIN Multiple keys request during rehashing of slot", 2);
+    assertEquals("OK", jc.set("foo", "bar"));
+    assertEquals("bar", cluster.get("foo"));
+    assertEquals(2, jc.getRetryPolicy().getRetryCount());
+  }
+
+  @Test
+  public void givesUpOnClusterDownAfterMaxAttempts() {
+    cluster.failCommands(CLUSTERDOWN, 100);
+    try {
+      jc.get("foo");
+      fail("The cluster is down");
+    } catch (JedisClusterMaxAttemptsException e) {
+      assertTrue(e.getCause() instanceof JedisClusterException);
+    }
+    assertEquals(4, jc.getRetryPolicy().getRetryCount());
+  }
+
+  @Test
+  public void failsFastOnceBudgetIsSpent() {
+    jc.setRetryPolicy(new ClusterRetryPolicy(0, 0, 1, 0, 0));
+    cluster.failCommands(CLUSTERDOWN, 100);
+    for (int i = 0; i < 3; i++) {
+      try {
+        jc.get("foo");
+        fail("The cluster is down");
+      } catch (JedisClusterMaxAttemptsException e) {
+        // expected
+      }
+    }
+    assertEquals(1, jc.getRetryPolicy().getRetryCount());
+    assertEquals(3, jc.getRetryPolicy().getRejectedCount());
+  }
+
+  @Test
+  public void givesUpAtDeadline() throws IOException {
+    jc.close();
+    jc = new JedisCluster(cluster.getNode(0), 2000, 1000);
+    jc.setRetryPolicy(new ClusterRetryPolicy(10, 10, Integer.MAX_VALUE, 0, 100));
+    cluster.failCommands(CLUSTERDOWN, Integer.MAX_VALUE);
+
+    final long start = System.currentTimeMillis();
+    try {
+      jc.get("foo");
+      fail("The cluster is down");
+    } catch (JedisClusterMaxAttemptsException e) {
+      // expected
+    }
+    final long elapsed = System.currentTimeMillis() - start;
+    assertTrue(elapsed >= 80);
+    assertTrue(elapsed < 2000);
+  }
+
+  @Test
+  public void renewsSlotCacheOnceBudgetIsSpent() throws IOException, InterruptedException {
+    jc.setRetryPolicy(new ClusterRetryPolicy(0, 0, 0, 0, 0));
+    jc.setMinTopologyRefreshInterval(0);
+    String key = null;
+    for (int i = 0; key == null; i++) {
+      if (cluster.getOwner(JedisClusterCRC16.getSlot("key" + i)) == 0) {
+        key = "key" + i;
+      }
+    }
+    assertEquals("OK", jc.set(key, "value"));
+    cluster.moveSlot(JedisClusterCRC16.getSlot(key), 1);
+    cluster.stopNode(0);
+
+    try {
+      jc.get(key);
+      fail("The master of the key is stopped");
+    } catch (JedisClusterMaxAttemptsException e) {
+      assertEquals(1, jc.getRetryPolicy().getRejectedCount());
+    }
+
+    final long deadline = System.currentTimeMillis() + 5000;
+    String value = null;
+    while (value == null && System.currentTimeMillis() < deadline) {
+      try {
+        value = jc.get(key);
+      } catch (JedisClusterMaxAttemptsException e) {
+        Thread.sleep(10);
+      }
+    }
+    assertEquals("value", value);
+  }
+}
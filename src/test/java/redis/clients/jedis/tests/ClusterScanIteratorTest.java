@@ -0,0 +1,111 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Test;
+
+import redis.clients.jedis.ClusterScanIterator;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.tests.utils.FakeRedisCluster;
+
+public class ClusterScanIteratorTest {
+
+  private FakeRedisCluster cluster;
+  private JedisCluster jc;
+
+  private void start(int masters, int replicasPerMaster, int keys) throws IOException {
+    cluster = new FakeRedisCluster(masters, replicasPerMaster);
+    jc = new JedisCluster(cluster.getNode(0));
+    for (int i = 0; i < keys; i++) {
+      jc.set("key" + i, "value");
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jc.close();
+    cluster.close();
+  }
+
+  private static Set<String> expectedKeys(int count) {
+    Set<String> keys = new HashSet<String>();
+    for (int i = 0; i < count; i++) {
+      keys.add("key" + i);
+    }
+    return keys;
+  }
+
+  @Test
+  public void scansEveryMaster() throws IOException {
+    start(3, 0, 1000);
+    jc.set("other", "value");
+    Set<String> scanned = new HashSet<String>();
+    ClusterScanIterator keys = jc.scanAll(new ScanParams().match("key*").count(50));
+    while (keys.hasNext()) {
+      assertTrue(scanned.add(keys.next()));
+    }
+    assertFalse(keys.hasNext());
+
+    assertEquals(expectedKeys(1000), scanned);
+    for (int node = 0; node < 3; node++) {
+      assertTrue(cluster.getScanCount(node) > 1);
+    }
+  }
+
+  @Test
+  public void prefetchIsBounded() throws Exception {
+    start(3, 0, 600);
+    ClusterScanIterator keys = jc.scanAll(new ScanParams().count(1));
+    try {
+      keys.next();
+      Thread.sleep(300);
+      int scans = cluster.getScanCount(0) + cluster.getScanCount(1) + cluster.getScanCount(2);
+      // the queue, one page in hand per task and one being consumed
+      assertTrue(scans <= ClusterScanIterator.DEFAULT_PREFETCH_PAGES + 3 + 1 + 3);
+    } finally {
+      keys.close();
+    }
+  }
+
+  @Test
+  public void resumesOnPromotedReplica() throws Exception {
+    start(3, 1, 300);
+    Set<String> scanned = new HashSet<String>();
+    ClusterScanIterator keys = jc.scanAll(new ScanParams().count(2));
+    for (int i = 0; i < 10; i++) {
+      scanned.add(keys.next());
+    }
+
+    cluster.stopNode(0);
+    cluster.failover(0, 0);
+    while (keys.hasNext()) {
+      scanned.add(keys.next());
+    }
+
+    // the replica orders its keys differently, resuming with the old cursor would skip some
+    assertEquals(expectedKeys(300), scanned);
+    assertTrue(cluster.getScanCount(cluster.getReplica(0, 0)) > 0);
+  }
+
+  @Test
+  public void resumesWhenFirstScanFails() throws Exception {
+    start(3, 1, 300);
+    cluster.stopNode(0);
+    cluster.failover(0, 0);
+    Set<String> scanned = new HashSet<String>();
+    ClusterScanIterator keys = jc.scanAll(new ScanParams().count(20));
+    while (keys.hasNext()) {
+      scanned.add(keys.next());
+    }
+
+    assertEquals(expectedKeys(300), scanned);
+  }
+}
@@ -0,0 +1,133 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.tests.utils.FakeRedisCluster;
+
+public class ClusterTopologyManagerTest {
+
+  private FakeRedisCluster cluster;
+  private JedisCluster jc;
+
+  @Before
+  public void setUp() throws IOException {
+    cluster = new FakeRedisCluster(3);
+    jc = new JedisCluster(cluster.getNode(0));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jc.close();
+    cluster.close();
+  }
+
+  private int routedNode(int slot) {
+    Jedis jedis = jc.getConnectionFromSlot(slot);
+    try {
+      for (int node = 0; node < 3; node++) {
+        if (cluster.getNode(node).getPort() == jedis.getClient().getPort()) {
+          return node;
+        }
+      }
+      return -1;
+    } finally {
+      jedis.close();
+    }
+  }
+
+  private void awaitRouting(int slot, int node) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + 5000;
+    while (routedNode(slot) != node && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(node, routedNode(slot));
+  }
+
+  @Test
+  public void refreshesInBackgroundAfterMoved() throws InterruptedException {
+    jc.setMinTopologyRefreshInterval(0);
+    final int slot = JedisClusterCRC16.getSlot("foo");
+    final int target = (cluster.getOwner(slot) + 1) % 3;
+    cluster.moveSlot(slot, target);
+
+    assertEquals("OK", jc.set("foo", "bar"));
+    assertEquals("bar", cluster.get("foo"));
+    awaitRouting(slot, target);
+  }
+
+  @Test
+  public void reroutesMovedSlotWithoutRefresh() {
+    jc.setMinTopologyRefreshInterval(60000);
+    final int slot = JedisClusterCRC16.getSlot("foo");
+    final int owner = cluster.getOwner(slot);
+    final int target = (owner + 1) % 3;
+    cluster.moveSlot(slot, target);
+    final int slotsRequests = cluster.getSlotsRequestCount();
+
+    assertEquals("OK", jc.set("foo", "bar"));
+    assertEquals(target, routedNode(slot));
+    final int ownerCommands = cluster.getCommandCount(owner);
+    assertEquals("bar", jc.get("foo"));
+    assertEquals(ownerCommands, cluster.getCommandCount(owner));
+    assertEquals(slotsRequests, cluster.getSlotsRequestCount());
+  }
+
+  @Test
+  public void rateLimitsRefreshesOnRedirect() throws InterruptedException {
+    jc.setMinTopologyRefreshInterval(60000);
+    final List<String> keys = new ArrayList<String>();
+    for (int i = 0; keys.size() < 50; i++) {
+      final String key = "key" + i;
+      final int slot = JedisClusterCRC16.getSlot(key);
+      cluster.moveSlot(slot, (cluster.getOwner(slot) + 1) % 3);
+      keys.add(key);
+    }
+    final int slotsRequests = cluster.getSlotsRequestCount();
+
+    final CountDownLatch done = new CountDownLatch(keys.size());
+    for (final String key : keys) {
+      new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            jc.set(key, "value");
+          } finally {
+            done.countDown();
+          }
+        }
+      }).start();
+    }
+    done.await();
+
+    for (String key : keys) {
+      assertEquals("value", cluster.get(key));
+    }
+    // the slot cache was discovered less than a minute ago, no refresh may run yet
+    Thread.sleep(100);
+    assertEquals(slotsRequests, cluster.getSlotsRequestCount());
+  }
+
+  @Test
+  public void refreshesPeriodically() throws InterruptedException {
+    final int slot = 42;
+    final int target = (cluster.getOwner(slot) + 1) % 3;
+    cluster.moveSlot(slot, target);
+    assertTrue(routedNode(slot) != target);
+
+    jc.setTopologyRefreshPeriod(20);
+    awaitRouting(slot, target);
+  }
+}
@@ -0,0 +1,189 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPoolAbstract;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.exceptions.JedisExhaustedPoolException;
+import redis.clients.jedis.tests.utils.StubJedisFactory;
+
+public class ConcurrentBagPoolTest {
+
+  private static class BagJedisPool extends JedisPoolAbstract {
+    BagJedisPool(JedisPoolConfig config, StubJedisFactory factory) {
+      super(config, factory);
+    }
+
+    @Override
+    public Jedis getResource() {
+      Jedis jedis = super.getResource();
+      jedis.setDataSource(this);
+      return jedis;
+    }
+
+    void returnBroken(Jedis jedis) {
+      returnBrokenResource(jedis);
+    }
+  }
+
+  private static JedisPoolConfig bagConfig(int maxTotal) {
+    JedisPoolConfig config = new JedisPoolConfig();
+    config.setConcurrentBagEnabled(true);
+    config.setMaxTotal(maxTotal);
+    config.setMaxIdle(maxTotal);
+    config.setMaxWaitMillis(2000);
+    return config;
+  }
+
+  @Test
+  public void reusesReturnedResource() {
+    StubJedisFactory factory = new StubJedisFactory();
+    BagJedisPool pool = new BagJedisPool(bagConfig(8), factory);
+    try {
+      Jedis first = pool.getResource();
+      first.close();
+      Jedis second = pool.getResource();
+      second.close();
+
+      assertSame(first, second);
+      assertEquals(1, factory.getCreated());
+      assertEquals(0, pool.getNumActive());
+      assertEquals(1, pool.getNumIdle());
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void throwsWhenExhaustedAndNotBlocking() {
+    JedisPoolConfig config = bagConfig(1);
+    config.setBlockWhenExhausted(false);
+    BagJedisPool pool = new BagJedisPool(config, new StubJedisFactory());
+    try {
+      Jedis jedis = pool.getResource();
+      try {
+        pool.getResource();
+        fail("pool should be exhausted");
+      } catch (JedisExhaustedPoolException expected) {
+      }
+      jedis.close();
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void timesOutWhenExhausted() {
+    JedisPoolConfig config = bagConfig(1);
+    config.setMaxWaitMillis(50);
+    BagJedisPool pool = new BagJedisPool(config, new StubJedisFactory());
+    try {
+      Jedis jedis = pool.getResource();
+      try {
+        pool.getResource();
+        fail("pool should be exhausted");
+      } catch (JedisExhaustedPoolException expected) {
+      }
+      jedis.close();
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void waiterReceivesReturnedResource() throws InterruptedException {
+    BagJedisPool pool = new BagJedisPool(bagConfig(1), new StubJedisFactory());
+    try {
+      final Jedis held = pool.getResource();
+      Thread returner = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            Thread.sleep(100);
+          } catch (InterruptedException e) {
+          }
+          held.close();
+        }
+      });
+      returner.start();
+
+      Jedis jedis = pool.getResource();
+      assertSame(held, jedis);
+      jedis.close();
+      returner.join();
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void destroysBrokenResource() {
+    StubJedisFactory factory = new StubJedisFactory();
+    BagJedisPool pool = new BagJedisPool(bagConfig(8), factory);
+    try {
+      Jedis broken = pool.getResource();
+      pool.returnBroken(broken);
+      assertEquals(1, factory.getDestroyed());
+      assertEquals(0, pool.getNumActive());
+
+      Jedis jedis = pool.getResource();
+      assertNotSame(broken, jedis);
+      jedis.close();
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void neverHandsOutResourceTwice() throws InterruptedException {
+    final StubJedisFactory factory = new StubJedisFactory();
+    final BagJedisPool pool = new BagJedisPool(bagConfig(4), factory);
+    final Set<Jedis> inUse = Collections.synchronizedSet(Collections
+        .newSetFromMap(new IdentityHashMap<Jedis, Boolean>()));
+    final AtomicInteger failures = new AtomicInteger();
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 16; i++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int n = 0; n < 2000; n++) {
+            Jedis jedis = pool.getResource();
+            if (!inUse.add(jedis)) {
+              failures.incrementAndGet();
+            }
+            inUse.remove(jedis);
+            jedis.close();
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    try {
+      assertEquals(0, failures.get());
+      assertTrue(factory.getCreated() <= 4);
+      assertEquals(0, pool.getNumActive());
+    } finally {
+      pool.destroy();
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.Client;
+import redis.clients.jedis.DuplexPipeline;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.PipelineCallback;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.tests.utils.FakeRedisServer;
+import redis.clients.jedis.util.IOUtils;
+
+public class DuplexPipelineTest {
+
+  private FakeRedisServer server;
+  private Jedis jedis;
+  private ExecutorService executor;
+
+  private static class RecordingCallback implements PipelineCallback {
+    private final List<Long> indexes = Collections.synchronizedList(new ArrayList<Long>());
+    private final List<Object> responses = Collections.synchronizedList(new ArrayList<Object>());
+
+    @Override
+    public void onResponse(long index, Object response) {
+      indexes.add(index);
+      responses.add(response);
+    }
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    server = new FakeRedisServer(new FakeRedisServer.Handler() {
+      @Override
+      public String reply(List<String> command) {
+        if (command.get(0).equals("INCR")) {
+          return "-ERR value is not an integer or out of range\r\n";
+        }
+        if (command.get(0).equals("GET")) {
+          return "$5\r\nvalue\r\n";
+        }
+        return "+OK\r\n";
+      }
+    });
+    jedis = new Jedis(server.getHostAndPort());
+    jedis.connect();
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    executor.shutdownNow();
+    jedis.close();
+    server.close();
+  }
+
+  @Test
+  public void deliversResultsInOrder() {
+    RecordingCallback callback = new RecordingCallback();
+    DuplexPipeline p = jedis.duplexPipelined(callback);
+
+    for (int i = 0; i < 10000; i++) {
+      if (i % 100 == 0) {
+        p.incr("key" + i);
+      } else {
+        p.set("key" + i, "value");
+      }
+    }
+    p.sync();
+
+    assertEquals(10000, p.getDeliveredCount());
+    assertEquals(10000, callback.responses.size());
+    for (int i = 0; i < 10000; i++) {
+      assertEquals(Long.valueOf(i), callback.indexes.get(i));
+      if (i % 100 == 0) {
+        assertTrue(callback.responses.get(i) instanceof JedisDataException);
+      } else {
+        assertEquals("OK", callback.responses.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void readsRepliesBeforeSync() throws InterruptedException {
+    RecordingCallback callback = new RecordingCallback();
+    DuplexPipeline p = new DuplexPipeline(callback, executor, 4, 100);
+    p.setClient(jedis.getClient());
+
+    for (int i = 0; i < 4; i++) {
+      p.set("foo", "bar");
+    }
+    // a full batch went out and its replies get read
+    long deadline = System.currentTimeMillis() + 5000;
+    while (p.getDeliveredCount() < 4 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(4, p.getDeliveredCount());
+    assertEquals("OK", callback.responses.get(0));
+    p.sync();
+  }
+
+  @Test
+  public void flushesInBatches() throws InterruptedException {
+    final AtomicInteger flushes = new AtomicInteger();
+    HostAndPort hnp = server.getHostAndPort();
+    Client client = new Client(hnp.getHost(), hnp.getPort()) {
+      @Override
+      protected void flush() {
+        flushes.incrementAndGet();
+        super.flush();
+      }
+    };
+    client.connect();
+    try {
+      DuplexPipeline p = new DuplexPipeline(null, executor, 64, 100000);
+      p.setClient(client);
+      for (int i = 0; i < 6400; i++) {
+        p.set("key" + i, "value");
+        if (i % 64 == 63) {
+          // let the reader catch up and go idle, which must not cause extra flushes
+          long deadline = System.currentTimeMillis() + 5000;
+          while (p.getDeliveredCount() < i + 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+          }
+        }
+      }
+      p.sync();
+      // one flush per batch, and no extra flush on sync as the last batch is complete
+      assertEquals(100, flushes.get());
+    } finally {
+      client.close();
+    }
+  }
+
+  @Test
+  public void boundsPendingCommands() {
+    RecordingCallback callback = new RecordingCallback();
+    DuplexPipeline p = new DuplexPipeline(callback, executor, 4, 8);
+    p.setClient(jedis.getClient());
+
+    for (int i = 0; i < 1000; i++) {
+      p.set("key" + i, "value");
+      assertTrue(i + 1 - p.getDeliveredCount() < 8);
+    }
+    p.sync();
+    assertEquals(1000, callback.responses.size());
+  }
+
+  @Test
+  public void completesResponsesOnSync() {
+    DuplexPipeline p = jedis.duplexPipelined(null);
+
+    List<Response<String>> responses = new ArrayList<Response<String>>();
+    for (int i = 0; i < 500; i++) {
+      responses.add(p.get("key" + i));
+    }
+    p.sync();
+
+    for (Response<String> response : responses) {
+      assertEquals("value", response.get());
+    }
+    // the connection is usable again
+    assertEquals("value", jedis.get("foo"));
+  }
+
+  @Test
+  public void largeCommandsDoNotDeadlock() {
+    RecordingCallback callback = new RecordingCallback();
+    DuplexPipeline p = jedis.duplexPipelined(callback);
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 4096; i++) {
+      value.append('x');
+    }
+
+    for (int i = 0; i < 5000; i++) {
+      p.set("key" + i, value.toString());
+    }
+    p.sync();
+    assertEquals(5000, callback.responses.size());
+  }
+
+  @Test
+  public void reportsConnectionFailure() throws IOException {
+    DuplexPipeline p = jedis.duplexPipelined(null);
+    p.set("foo", "bar");
+    p.sync();
+
+    server.close();
+    try {
+      for (int i = 0; i < 100000; i++) {
+        p.set("key" + i, "value");
+      }
+      p.sync();
+      fail("Expected a connection failure");
+    } catch (JedisConnectionException e) {
+      // unsent commands are left in the buffer of the broken connection
+      IOUtils.closeQuietly(jedis.getClient().getSocket());
+    }
+  }
+
+  @Test(expected = JedisDataException.class)
+  public void multiIsNotSupported() {
+    jedis.duplexPipelined(null).multi();
+  }
+}
@@ -0,0 +1,141 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.HostAndPortResolver;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+public class HostAndPortResolverTest {
+
+  private static final byte[] FIRST_ADDRESS = { 10, 0, 0, 1 };
+
+  private static class StubResolver extends HostAndPortResolver {
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    StubResolver(long ttlMillis) {
+      super(ttlMillis);
+    }
+
+    @Override
+    protected InetAddress lookup(String host) throws UnknownHostException {
+      lookups.incrementAndGet();
+      if (failing.get()) {
+        throw new UnknownHostException(host);
+      }
+      return InetAddress.getByAddress(host, FIRST_ADDRESS);
+    }
+  }
+
+  @Test
+  public void resolvesOnceWithinTtl() {
+    StubResolver resolver = new StubResolver(60000);
+    try {
+      InetSocketAddress first = resolver.resolve("redis.example", 6379);
+      InetSocketAddress second = resolver.resolve("redis.example", 6379);
+
+      assertFalse(first.isUnresolved());
+      assertEquals(6379, first.getPort());
+      assertEquals(first, second);
+      assertEquals(1, resolver.lookups.get());
+    } finally {
+      resolver.close();
+    }
+  }
+
+  @Test
+  public void fallsBackToLastKnownAddress() throws InterruptedException {
+    StubResolver resolver = new StubResolver(50);
+    try {
+      InetSocketAddress first = resolver.resolve("redis.example", 6379);
+      resolver.failing.set(true);
+      Thread.sleep(200);
+
+      InetSocketAddress stale = resolver.resolve("redis.example", 6379);
+      assertEquals(first, stale);
+      assertTrue(resolver.lookups.get() > 1);
+    } finally {
+      resolver.close();
+    }
+  }
+
+  @Test
+  public void doesNotCacheFailedResolution() {
+    StubResolver resolver = new StubResolver(60000);
+    try {
+      resolver.failing.set(true);
+      assertTrue(resolver.resolve("redis.example", 6379).isUnresolved());
+
+      resolver.failing.set(false);
+      assertFalse(resolver.resolve("redis.example", 6379).isUnresolved());
+      assertEquals(2, resolver.lookups.get());
+    } finally {
+      resolver.close();
+    }
+  }
+
+  @Test
+  public void refreshesRegisteredEndpointsInBackground() throws InterruptedException {
+    StubResolver resolver = new StubResolver(50);
+    try {
+      resolver.register(new HostAndPort("redis.example", 6379));
+      Thread.sleep(300);
+      assertTrue(resolver.lookups.get() > 1);
+    } finally {
+      resolver.close();
+    }
+  }
+
+  @Test
+  public void forgetsUnregisteredEndpoints() throws InterruptedException {
+    StubResolver resolver = new StubResolver(50);
+    try {
+      HostAndPort endpoint = new HostAndPort("redis.example", 6379);
+      resolver.register(endpoint);
+      resolver.register(endpoint);
+      resolver.unregister(endpoint);
+      Thread.sleep(300);
+      assertTrue(resolver.lookups.get() > 1);
+
+      resolver.unregister(endpoint);
+      Thread.sleep(20);
+      int lookups = resolver.lookups.get();
+      Thread.sleep(300);
+      assertEquals(lookups, resolver.lookups.get());
+    } finally {
+      resolver.close();
+    }
+  }
+
+  @Test
+  public void destroyedPoolsUnregisterTheirEndpoint() throws InterruptedException {
+    StubResolver resolver = new StubResolver(50);
+    try {
+      JedisPoolConfig config = new JedisPoolConfig();
+      config.setHostAndPortResolver(resolver);
+      JedisPool pool = new JedisPool(config, "redis.example", 6379);
+      Thread.sleep(300);
+      assertTrue(resolver.lookups.get() > 1);
+
+      pool.destroy();
+      Thread.sleep(20);
+      int lookups = resolver.lookups.get();
+      Thread.sleep(300);
+      assertEquals(lookups, resolver.lookups.get());
+    } finally {
+      resolver.close();
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import org.junit.Test;
+
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.util.IoBufferPool;
+import redis.clients.jedis.util.RedisInputStream;
+import redis.clients.jedis.util.RedisOutputStream;
+import redis.clients.jedis.util.SafeEncoder;
+
+public class IoBufferPoolTest {
+
+  /**
+   * Serves one reply at a time, like a server answering a command after another.
+   */
+  private static class ReplyInputStream extends InputStream {
+    private final Queue<ByteArrayInputStream> replies = new LinkedList<ByteArrayInputStream>();
+
+    ReplyInputStream(String... replies) {
+      for (String reply : replies) {
+        this.replies.add(new ByteArrayInputStream(reply.getBytes()));
+      }
+    }
+
+    @Override
+    public int read() {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == -1 ? -1 : b[0];
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      while (!replies.isEmpty()) {
+        int read = replies.peek().read(b, off, len);
+        if (read > 0) {
+          return read;
+        }
+        replies.remove();
+      }
+      return -1;
+    }
+  }
+
+  @Test
+  public void roundsToSizeClasses() {
+    IoBufferPool pool = new IoBufferPool(1000, 3000, 60000, 4);
+    assertEquals(1024, pool.getMinBufferSize());
+    assertEquals(4096, pool.getInitialBufferSize());
+    assertEquals(65536, pool.getMaxBufferSize());
+    assertEquals(1024, pool.acquire(1).length);
+    assertEquals(2048, pool.acquire(1025).length);
+    assertEquals(65536, pool.acquire(1 << 20).length);
+  }
+
+  @Test
+  public void reusesReleasedBuffers() {
+    IoBufferPool pool = new IoBufferPool(16, 16, 64, 1);
+    byte[] buf = pool.acquire(16);
+    pool.release(buf);
+    assertEquals(1, pool.getNumPooled());
+
+    // only one buffer is kept per class
+    pool.release(new byte[16]);
+    assertEquals(1, pool.getNumPooled());
+
+    assertEquals(buf, pool.acquire(16));
+    assertEquals(1, pool.getReusedCount());
+  }
+
+  @Test
+  public void inputStreamHoldsBufferOnlyWhileReading() {
+    IoBufferPool pool = new IoBufferPool(16, 16, 64, 4);
+    RedisInputStream in = new RedisInputStream(new ReplyInputStream("+OK\r\n", "+OK\r\n"), pool);
+    assertEquals(0, pool.getAllocatedCount());
+
+    assertEquals("OK", SafeEncoder.encode((byte[]) Protocol.read(in)));
+    assertEquals(1, pool.getAllocatedCount());
+    in.releaseBuffer();
+    assertEquals(1, pool.getNumPooled());
+
+    assertEquals("OK", SafeEncoder.encode((byte[]) Protocol.read(in)));
+    assertEquals(1, pool.getReusedCount());
+  }
+
+  @Test
+  public void keepsBufferWithUnreadData() {
+    IoBufferPool pool = new IoBufferPool(16, 16, 64, 4);
+    RedisInputStream in = new RedisInputStream(new ByteArrayInputStream(
+        "+OK\r\n+OK\r\n".getBytes()), pool);
+    Protocol.read(in);
+    in.releaseBuffer();
+    assertEquals(0, pool.getNumPooled());
+    assertEquals("OK", SafeEncoder.encode((byte[]) Protocol.read(in)));
+  }
+
+  @Test
+  public void growsBufferAfterLargeReplies() {
+    IoBufferPool pool = new IoBufferPool(16, 16, 64, 4);
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 40; i++) {
+      value.append('x');
+    }
+    String reply = "$40\r\n" + value + "\r\n";
+    RedisInputStream in = new RedisInputStream(new ReplyInputStream(reply, reply), pool);
+
+    assertEquals(value.toString(), SafeEncoder.encode((byte[]) Protocol.read(in)));
+    in.releaseBuffer();
+    assertEquals(value.toString(), SafeEncoder.encode((byte[]) Protocol.read(in)));
+
+    // the second reply needed a buffer of the next size class
+    assertEquals(2, pool.getAllocatedCount());
+    assertEquals(0, pool.getReusedCount());
+  }
+
+  @Test
+  public void outputStreamReleasesBufferAfterFlush() throws IOException {
+    IoBufferPool pool = new IoBufferPool(16, 16, 64, 4);
+    ByteArrayOutputStream sink = new ByteArrayOutputStream();
+    RedisOutputStream out = new RedisOutputStream(sink, pool);
+
+    Protocol.sendCommand(out, Protocol.Command.GET, "SOMEKEY".getBytes(Protocol.CHARSET));
+    out.releaseBuffer();
+    assertEquals(0, pool.getNumPooled());
+
+    out.flush();
+    out.releaseBuffer();
+    assertEquals(1, pool.getNumPooled());
+    assertArrayEquals("*2\r\n$3\r\nGET\r\n$7\r\nSOMEKEY\r\n".getBytes(), sink.toByteArray());
+  }
+}
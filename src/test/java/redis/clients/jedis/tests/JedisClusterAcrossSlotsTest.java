@@ -0,0 +1,101 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.tests.utils.FakeRedisCluster;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+public class JedisClusterAcrossSlotsTest {
+
+  private FakeRedisCluster cluster;
+  private JedisCluster jc;
+
+  @Before
+  public void setUp() throws IOException {
+    cluster = new FakeRedisCluster(3);
+    jc = new JedisCluster(cluster.getNodes());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jc.close();
+    cluster.close();
+  }
+
+  private static String[] keys(int count) {
+    String[] keys = new String[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = "key" + i;
+    }
+    return keys;
+  }
+
+  @Test
+  public void setsAndGetsInKeyOrder() {
+    String[] keysvalues = new String[400];
+    for (int i = 0; i < 200; i++) {
+      keysvalues[2 * i] = "key" + i;
+      keysvalues[2 * i + 1] = "value" + i;
+    }
+    assertEquals("OK", jc.msetAcrossSlots(keysvalues));
+
+    List<String> values = jc.mgetAcrossSlots("key7", "missing", "key3", "{key3}other", "key7");
+    assertEquals(Arrays.asList("value7", null, "value3", null, "value7"), values);
+
+    values = jc.mgetAcrossSlots(keys(200));
+    for (int i = 0; i < 200; i++) {
+      assertEquals("value" + i, values.get(i));
+    }
+  }
+
+  @Test(expected = JedisClusterOperationException.class)
+  public void plainMgetStillRejectsSeveralSlots() {
+    jc.mget(keys(10));
+  }
+
+  @Test
+  public void countsKeys() {
+    for (int i = 0; i < 50; i++) {
+      jc.set("key" + i, "value");
+    }
+    assertEquals(50L, (long) jc.existsAcrossSlots(keys(100)));
+    assertEquals(50L, (long) jc.touchAcrossSlots(keys(100)));
+    assertEquals(20L, (long) jc.delAcrossSlots(keys(20)));
+    assertEquals(30L, (long) jc.unlinkAcrossSlots(keys(100)));
+    assertEquals(0L, (long) jc.existsAcrossSlots(keys(100)));
+  }
+
+  @Test
+  public void followsRedirectionsOfSomeSlots() {
+    jc.msetAcrossSlots("key1", "a", "key2", "b", "key3", "c");
+    int movedSlot = JedisClusterCRC16.getSlot("key1");
+    cluster.moveSlot(movedSlot, (cluster.getOwner(movedSlot) + 1) % 3);
+    int migratingSlot = JedisClusterCRC16.getSlot("key2");
+    cluster.migrateSlot(migratingSlot, (cluster.getOwner(migratingSlot) + 1) % 3);
+
+    assertEquals(Arrays.asList("a", "b", "c"), jc.mgetAcrossSlots("key1", "key2", "key3"));
+    assertEquals(3L, (long) jc.delAcrossSlots("key1", "key2", "key3"));
+    assertNull(cluster.get("key1"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsUnpairedValues() {
+    jc.msetAcrossSlots("key1", "a", "key2");
+  }
+
+  @Test(expected = JedisClusterOperationException.class)
+  public void rejectsNoKeys() {
+    jc.delAcrossSlots(new String[0]);
+  }
+}
@@ -0,0 +1,121 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.BinaryJedisCluster;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClusterInfoCache;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.tests.utils.FakeRedisCluster;
+
+public class JedisClusterInfoCacheTest {
+
+  private FakeRedisCluster cluster;
+  private JedisClusterInfoCache cache;
+  private Jedis jedis;
+
+  @Before
+  public void setUp() throws IOException {
+    cluster = new FakeRedisCluster(3);
+    cache = new JedisClusterInfoCache(new GenericObjectPoolConfig(), 2000);
+    jedis = new Jedis(cluster.getNode(0));
+    cache.discoverClusterNodesAndSlots(jedis);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jedis.close();
+    cache.reset();
+    cluster.close();
+  }
+
+  private JedisPool nodePool(int node) {
+    return cache.getNode(JedisClusterInfoCache.getNodeKey(cluster.getNode(node)));
+  }
+
+  @Test
+  public void routesEverySlotToItsMaster() {
+    assertEquals(3, cache.getNodes().size());
+    for (int slot = 0; slot < BinaryJedisCluster.HASHSLOTS; slot++) {
+      assertSame(nodePool(cluster.getOwner(slot)), cache.getSlotPool(slot));
+    }
+  }
+
+  @Test
+  public void renewalPublishesNewTable() {
+    cluster.moveSlot(0, 2);
+    cluster.moveSlot(16383, 0);
+    cache.renewClusterSlots(jedis);
+
+    assertSame(nodePool(2), cache.getSlotPool(0));
+    assertSame(nodePool(0), cache.getSlotPool(16383));
+    assertSame(nodePool(0), cache.getSlotPool(1));
+  }
+
+  @Test
+  public void assignsSingleSlot() {
+    JedisPool before = cache.getSlotPool(1);
+    cache.assignSlotToNode(0, cluster.getNode(2));
+
+    assertSame(nodePool(2), cache.getSlotPool(0));
+    assertSame(before, cache.getSlotPool(1));
+  }
+
+  @Test
+  public void appliesMovedSlotOnce() {
+    JedisPool before = cache.getSlotPool(1);
+    assertTrue(cache.applyMovedSlot(0, cluster.getNode(2)));
+    assertFalse(cache.applyMovedSlot(0, cluster.getNode(2)));
+
+    assertSame(nodePool(2), cache.getSlotPool(0));
+    assertSame(before, cache.getSlotPool(1));
+  }
+
+  @Test
+  public void readersNeverSeeAPartialTable() throws InterruptedException {
+    final AtomicBoolean running = new AtomicBoolean(true);
+    final AtomicInteger missing = new AtomicInteger();
+    Thread reader = new Thread() {
+      @Override
+      public void run() {
+        while (running.get()) {
+          for (int slot = 0; slot < BinaryJedisCluster.HASHSLOTS; slot++) {
+            if (cache.getSlotPool(slot) == null) {
+              missing.incrementAndGet();
+            }
+          }
+        }
+      }
+    };
+    reader.start();
+    for (int i = 0; i < 50; i++) {
+      cache.renewClusterSlots(jedis);
+    }
+    running.set(false);
+    reader.join();
+
+    assertEquals(0, missing.get());
+  }
+
+  @Test
+  public void resetClearsRouting() {
+    cache.reset();
+    assertNull(cache.getSlotPool(0));
+    cache.discoverClusterNodesAndSlots(jedis);
+    assertNotNull(cache.getSlotPool(0));
+  }
+}
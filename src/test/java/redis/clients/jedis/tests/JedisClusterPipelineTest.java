@@ -0,0 +1,140 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.JedisClusterPipeline;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisClusterMaxAttemptsException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.tests.utils.FakeRedisCluster;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+public class JedisClusterPipelineTest {
+
+  private FakeRedisCluster cluster;
+  private JedisCluster jc;
+
+  @Before
+  public void setUp() throws IOException {
+    cluster = new FakeRedisCluster(3);
+    jc = new JedisCluster(cluster.getNodes());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jc.close();
+    cluster.close();
+  }
+
+  @Test
+  public void returnsRepliesInSubmissionOrder() {
+    JedisClusterPipeline p = jc.pipelined();
+    for (int i = 0; i < 300; i++) {
+      p.set("key" + i, "value" + i);
+    }
+    for (int i = 0; i < 300; i++) {
+      p.get("key" + i);
+    }
+    p.incr("key0");
+    assertEquals(601, p.getQueuedCount());
+
+    List<Object> results = p.syncAndReturnAll();
+    assertEquals(601, results.size());
+    for (int i = 0; i < 300; i++) {
+      assertEquals("OK", results.get(i));
+      assertEquals("value" + i, results.get(300 + i));
+    }
+    assertTrue(results.get(600) instanceof JedisDataException);
+    assertEquals(0, p.getQueuedCount());
+
+    for (int node = 0; node < 3; node++) {
+      assertTrue(cluster.getCommandCount(node) > 100);
+    }
+  }
+
+  @Test
+  public void completesResponses() {
+    JedisClusterPipeline p = jc.pipelined();
+    List<Response<Long>> responses = new ArrayList<Response<Long>>();
+    for (int i = 0; i < 100; i++) {
+      responses.add(p.incr("counter" + (i % 10)));
+    }
+    p.sync();
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(Long.valueOf(i / 10 + 1), responses.get(i).get());
+    }
+  }
+
+  @Test
+  public void followsMovedAndRefreshesSlotCache() {
+    final int slot = JedisClusterCRC16.getSlot("foo");
+    final int owner = cluster.getOwner(slot);
+    final int target = (owner + 1) % 3;
+    cluster.moveSlot(slot, target);
+
+    JedisClusterPipeline p = jc.pipelined();
+    Response<String> set = p.set("foo", "bar");
+    Response<String> get = p.get("foo");
+    p.sync();
+    assertEquals("OK", set.get());
+    assertEquals("bar", get.get());
+
+    final int ownerCommands = cluster.getCommandCount(owner);
+    p.get("foo");
+    assertEquals("bar", p.syncAndReturnAll().get(0));
+    assertEquals(ownerCommands, cluster.getCommandCount(owner));
+  }
+
+  @Test
+  public void followsAsk() {
+    final int slot = JedisClusterCRC16.getSlot("foo");
+    final int owner = cluster.getOwner(slot);
+    cluster.migrateSlot(slot, (owner + 1) % 3);
+
+    JedisClusterPipeline p = jc.pipelined();
+    p.set("foo", "bar");
+    p.get("foo");
+    List<Object> results = p.syncAndReturnAll();
+    assertEquals("OK", results.get(0));
+    assertEquals("bar", results.get(1));
+    assertEquals("bar", cluster.get("foo"));
+  }
+
+  @Test
+  public void reportsUnreachableNodeAfterMaxAttempts() throws IOException {
+    String reachable = null;
+    String unreachable = null;
+    for (int i = 0; reachable == null || unreachable == null; i++) {
+      String key = "key" + i;
+      if (cluster.getOwner(JedisClusterCRC16.getSlot(key)) == 0) {
+        unreachable = key;
+      } else {
+        reachable = key;
+      }
+    }
+    cluster.stopNode(0);
+
+    JedisClusterPipeline p = jc.pipelined();
+    Response<String> ok = p.set(reachable, "value");
+    p.set(unreachable, "value");
+    try {
+      p.sync();
+      fail("Expected the unreachable node to fail the pipeline");
+    } catch (JedisClusterMaxAttemptsException e) {
+      // expected
+    }
+    assertEquals("OK", ok.get());
+  }
+}
@@ -0,0 +1,57 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.tests.utils.FakeRedisCluster;
+
+public class JedisClusterRedirectTest {
+
+  private FakeRedisCluster cluster;
+  private JedisCluster jc;
+
+  @Before
+  public void setUp() throws IOException {
+    cluster = new FakeRedisCluster(3);
+    jc = new JedisCluster(cluster.getNode(0));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jc.close();
+    cluster.close();
+  }
+
+  private String keyOwnedBy(int node) {
+    for (int i = 0;; i++) {
+      if (cluster.getOwner(JedisClusterCRC16.getSlot("key" + i)) == node) {
+        return "key" + i;
+      }
+    }
+  }
+
+  @Test
+  public void sendsAskingWithRedirectedCommand() {
+    final int slot = JedisClusterCRC16.getSlot("foo");
+    final int target = (cluster.getOwner(slot) + 1) % 3;
+    final String other = keyOwnedBy(target);
+    jc.set(other, "other");
+    cluster.migrateSlot(slot, target);
+
+    final int targetCommands = cluster.getCommandCount(target);
+    assertEquals("OK", jc.set("foo", "bar"));
+    assertEquals("bar", cluster.get("foo"));
+    assertEquals(targetCommands + 2, cluster.getCommandCount(target));
+
+    // the connection reads the replies of the commands sent after it in order
+    assertEquals("other", jc.get(other));
+    assertEquals(Long.valueOf(1), jc.incr("{" + other + "}counter"));
+  }
+}
@@ -0,0 +1,164 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.OptimisticTransactionExecutor;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.exceptions.JedisTransactionConflictException;
+import redis.clients.jedis.tests.utils.FakeRedisServer;
+
+public class OptimisticTransactionExecutorTest {
+
+  /**
+   * Holds one counter and fails EXEC as if the watched key changed as long as conflicts remain.
+   */
+  private static class TransactionHandler implements FakeRedisServer.Handler {
+    private final AtomicInteger conflicts = new AtomicInteger();
+    private final List<String> commands = Collections.synchronizedList(new ArrayList<String>());
+    private volatile int counter = 0;
+    private boolean inMulti = false;
+    private int queuedIncrements = 0;
+
+    @Override
+    public synchronized String reply(List<String> command) {
+      final String name = command.get(0).toUpperCase();
+      commands.add(name);
+      if ("MULTI".equals(name)) {
+        inMulti = true;
+        queuedIncrements = 0;
+        return "+OK\r\n";
+      }
+      if ("DISCARD".equals(name)) {
+        inMulti = false;
+        return "+OK\r\n";
+      }
+      if ("EXEC".equals(name)) {
+        inMulti = false;
+        if (conflicts.getAndDecrement() > 0) {
+          return "*-1\r\n";
+        }
+        StringBuilder reply = new StringBuilder("*" + queuedIncrements + "\r\n");
+        for (int i = 0; i < queuedIncrements; i++) {
+          reply.append(':').append(++counter).append("\r\n");
+        }
+        return reply.toString();
+      }
+      if (inMulti) {
+        if ("INCR".equals(name)) {
+          queuedIncrements++;
+        }
+        return "+QUEUED\r\n";
+      }
+      if ("GET".equals(name)) {
+        String value = String.valueOf(counter);
+        return "$" + value.length() + "\r\n" + value + "\r\n";
+      }
+      return "PING".equals(name) ? "+PONG\r\n" : "+OK\r\n";
+    }
+  }
+
+  private static class Increment implements OptimisticTransactionExecutor.Operation {
+    private final long limit;
+    private Response<String> value;
+
+    private Increment(long limit) {
+      this.limit = limit;
+    }
+
+    @Override
+    public void read(Pipeline pipeline) {
+      value = pipeline.get("counter");
+    }
+
+    @Override
+    public boolean write(Transaction transaction) {
+      if (Long.parseLong(value.get()) >= limit) {
+        return false;
+      }
+      transaction.incr("counter");
+      return true;
+    }
+  }
+
+  private TransactionHandler handler;
+  private FakeRedisServer server;
+  private Jedis jedis;
+
+  @Before
+  public void setUp() throws IOException {
+    handler = new TransactionHandler();
+    server = new FakeRedisServer(handler);
+    HostAndPort hnp = server.getHostAndPort();
+    jedis = new Jedis(hnp.getHost(), hnp.getPort());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jedis.close();
+    server.close();
+  }
+
+  @Test
+  public void commitsAfterConflicts() {
+    handler.conflicts.set(3);
+    OptimisticTransactionExecutor executor = new OptimisticTransactionExecutor(5, 1, 4);
+
+    List<Object> results = executor.execute(jedis, new Increment(10), "counter");
+
+    assertEquals(Collections.<Object> singletonList(1L), results);
+    assertEquals(1, executor.getExecutionCount());
+    assertEquals(1, executor.getCommitCount());
+    assertEquals(3, executor.getConflictCount());
+    assertEquals(0.75, executor.getConflictRate(), 0.0001);
+    // bounds of 1, 2 and 4 ms
+    assertTrue(executor.getBackoffMillis() <= 7);
+    // WATCH with the read, then MULTI, the write and EXEC, for every attempt
+    assertEquals(20, handler.commands.size());
+    assertEquals("PONG", jedis.ping());
+  }
+
+  @Test
+  public void abortsWhenWriteGivesUp() {
+    handler.counter = 10;
+    OptimisticTransactionExecutor executor = new OptimisticTransactionExecutor();
+
+    assertNull(executor.execute(jedis, new Increment(10), "counter"));
+    assertEquals(1, executor.getAbortCount());
+    assertEquals(0, executor.getCommitCount());
+    assertEquals("DISCARD", handler.commands.get(handler.commands.size() - 1));
+    assertEquals("10", jedis.get("counter"));
+  }
+
+  @Test
+  public void failsWhenConflictsPersist() {
+    handler.conflicts.set(Integer.MAX_VALUE);
+    OptimisticTransactionExecutor executor = new OptimisticTransactionExecutor(3, 0, 0);
+
+    try {
+      executor.execute(jedis, new Increment(10), "counter");
+      fail("Expected a conflict");
+    } catch (JedisTransactionConflictException e) {
+      assertEquals(3, executor.getConflictCount());
+      assertEquals(1, executor.getExhaustedCount());
+      assertEquals(0, executor.getBackoffMillis());
+    }
+    assertEquals("0", jedis.get("counter"));
+  }
+}
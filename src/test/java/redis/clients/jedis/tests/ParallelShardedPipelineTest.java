@@ -0,0 +1,138 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.JedisShardInfo;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ShardedJedis;
+import redis.clients.jedis.ShardedJedisPipeline;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.tests.utils.FakeRedisServer;
+
+public class ParallelShardedPipelineTest {
+
+  private final List<FakeRedisServer> servers = new ArrayList<FakeRedisServer>();
+  private ShardedJedis jedis;
+
+  @Before
+  public void setUp() throws IOException {
+    List<JedisShardInfo> shards = new ArrayList<JedisShardInfo>();
+    for (int i = 0; i < 3; i++) {
+      final String name = "shard" + i;
+      FakeRedisServer server = new FakeRedisServer(new FakeRedisServer.Handler() {
+        @Override
+        public String reply(List<String> command) {
+          if (command.get(0).equals("INCR")) {
+            return "-ERR value is not an integer or out of range\r\n";
+          }
+          // GET replies with the key and the shard which owns it
+          String value = command.get(1) + "@" + name;
+          return "$" + value.length() + "\r\n" + value + "\r\n";
+        }
+      });
+      servers.add(server);
+      shards.add(new JedisShardInfo(server.getHostAndPort().getHost(), server
+          .getHostAndPort().getPort(), name));
+    }
+    jedis = new ShardedJedis(shards);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jedis.close();
+    for (FakeRedisServer server : servers) {
+      server.close();
+    }
+  }
+
+  @Test
+  public void reassemblesRepliesInOrder() {
+    ShardedJedisPipeline p = jedis.pipelined();
+    List<Response<String>> responses = new ArrayList<Response<String>>();
+    for (int i = 0; i < 1000; i++) {
+      responses.add(p.get("key" + i));
+    }
+    List<Object> results = p.syncAndReturnAll();
+
+    assertEquals(1000, results.size());
+    for (int i = 0; i < 1000; i++) {
+      String expected = "key" + i + "@" + jedis.getShardInfo("key" + i).getName();
+      assertEquals(expected, results.get(i));
+      assertEquals(expected, responses.get(i).get());
+    }
+    for (FakeRedisServer server : servers) {
+      assertEquals(true, server.getCommandCount() > 100);
+    }
+  }
+
+  @Test
+  public void isReusableAfterSync() {
+    ShardedJedisPipeline p = jedis.pipelined();
+    p.get("a");
+    p.sync();
+
+    Response<String> b = p.get("b");
+    Response<String> c = p.get("c");
+    p.sync();
+    assertEquals("b@" + jedis.getShardInfo("b").getName(), b.get());
+    assertEquals("c@" + jedis.getShardInfo("c").getName(), c.get());
+  }
+
+  @Test
+  public void readsAllRepliesBeforeReportingErrors() {
+    ShardedJedisPipeline p = jedis.pipelined();
+    p.get("a");
+    p.incr("b");
+    Response<String> c = p.get("c");
+    try {
+      p.getResults();
+      fail("Expected the error reply to be thrown");
+    } catch (JedisDataException e) {
+      // expected
+    }
+    assertEquals("c@" + jedis.getShardInfo("c").getName(), c.get());
+
+    Response<String> d = p.get("d");
+    p.sync();
+    assertEquals("d@" + jedis.getShardInfo("d").getName(), d.get());
+  }
+
+  @Test
+  public void syncThrowsErrorReply() {
+    ShardedJedisPipeline p = jedis.pipelined();
+    p.incr("a");
+    Response<String> b = p.get("b");
+    try {
+      p.sync();
+      fail("Expected the error reply to be thrown");
+    } catch (JedisDataException e) {
+      // expected
+    }
+    assertEquals("b@" + jedis.getShardInfo("b").getName(), b.get());
+  }
+
+  @Test(expected = JedisConnectionException.class)
+  public void reportsBrokenShard() throws IOException {
+    ShardedJedisPipeline p = jedis.pipelined();
+    for (int i = 0; i < 100; i++) {
+      p.get("key" + i);
+    }
+    p.sync();
+
+    servers.get(1).close();
+    for (int i = 0; i < 100; i++) {
+      p.get("key" + i);
+    }
+    p.sync();
+  }
+}
@@ -99,6 +99,26 @@ public class PipeliningTest extends JedisCommandTestBase {
     assertArrayEquals(expectedGetRangeBytes, getrangeBytes.get());
   }
 
+  @Test
+  public void pipelineReusedAfterClear() {
+    Pipeline p = jedis.pipelined();
+    Response<String> unsynced = p.set("foo", "bar");
+    p.clear();
+    assertEquals("OK", unsynced.get());
+
+    List<Response<Long>> counters = new ArrayList<Response<Long>>();
+    for (int i = 0; i < 100; i++) {
+      counters.add(p.incr("counter"));
+    }
+    Response<String> foo = p.get("foo");
+    p.sync();
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(Long.valueOf(i + 1), counters.get(i).get());
+    }
+    assertEquals("bar", foo.get());
+  }
+
   @Test
   public void pipelineResponseWithData() {
     jedis.zadd("zset", 1, "foo");
@@ -0,0 +1,186 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPoolAbstract;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.PoolHealthChecker;
+import redis.clients.jedis.tests.utils.StubJedisFactory;
+
+public class PoolHealthCheckerTest {
+
+  private ServerSocket server;
+  private final AtomicInteger pings = new AtomicInteger();
+  private PoolHealthChecker checker;
+
+  @Before
+  public void setUp() throws IOException {
+    // answers PONG to anything, enough for the checker
+    server = new ServerSocket(0);
+    Thread acceptor = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        while (!server.isClosed()) {
+          try {
+            serve(server.accept());
+          } catch (IOException e) {
+            return;
+          }
+        }
+      }
+    });
+    acceptor.setDaemon(true);
+    acceptor.start();
+    checker = new PoolHealthChecker(60000);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    checker.close();
+    server.close();
+  }
+
+  @Test
+  public void keepsHealthyConnections() {
+    JedisPoolConfig config = new JedisPoolConfig();
+    config.setHealthChecker(checker);
+    StubJedisFactory factory = new StubJedisFactory(new HostAndPort("localhost",
+        server.getLocalPort()));
+    JedisPoolAbstract pool = new JedisPoolAbstract(config, factory);
+    try {
+      pool.addObjects(3);
+      checker.checkNow();
+
+      // one idle connection is left to borrowers
+      assertEquals(2, pings.get());
+      assertEquals(3, pool.getNumIdle());
+      assertEquals(0, pool.getNumActive());
+      assertEquals(0, checker.getEvictedCount());
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void evictsDeadConnectionsAndRefillsMinIdle() {
+    JedisPoolConfig config = new JedisPoolConfig();
+    config.setHealthChecker(checker);
+    config.setMinIdle(2);
+    // never connected, so the PING fails
+    StubJedisFactory factory = new StubJedisFactory();
+    JedisPoolAbstract pool = new JedisPoolAbstract(config, factory);
+    try {
+      pool.addObjects(3);
+      checker.checkNow();
+
+      assertEquals(2, checker.getEvictedCount());
+      assertEquals(2, factory.getDestroyed());
+      assertEquals(2, pool.getNumIdle());
+      assertEquals(4, factory.getCreated());
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void boundsChecksPerPool() {
+    checker.close();
+    checker = new PoolHealthChecker(60000, 4, 1000);
+    JedisPoolConfig config = new JedisPoolConfig();
+    config.setHealthChecker(checker);
+    StubJedisFactory factory = new StubJedisFactory(new HostAndPort("localhost",
+        server.getLocalPort()));
+    JedisPoolAbstract pool = new JedisPoolAbstract(config, factory);
+    try {
+      pool.addObjects(6);
+      checker.checkNow();
+
+      assertEquals(4, pings.get());
+      assertEquals(6, pool.getNumIdle());
+      assertEquals(6, factory.getCreated());
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void boundsRunByTimeout() throws IOException {
+    checker.close();
+    checker = new PoolHealthChecker(60000, 8, 200);
+    // accepts connections but never replies
+    ServerSocket hung = new ServerSocket(0, 50);
+    JedisPoolConfig config = new JedisPoolConfig();
+    config.setHealthChecker(checker);
+    JedisPoolAbstract hungPool = new JedisPoolAbstract(config, new StubJedisFactory(
+        new HostAndPort("localhost", hung.getLocalPort())));
+    JedisPoolAbstract pool = new JedisPoolAbstract(config, new StubJedisFactory(new HostAndPort(
+        "localhost", server.getLocalPort())));
+    try {
+      hungPool.addObjects(4);
+      pool.addObjects(4);
+
+      final long start = System.currentTimeMillis();
+      checker.checkNow();
+      // the hung connections would cost a socket timeout of 2 s each
+      assertTrue(System.currentTimeMillis() - start < 1500);
+      assertEquals(3, pings.get());
+      assertEquals(4, pool.getNumIdle());
+    } finally {
+      hungPool.destroy();
+      pool.destroy();
+      hung.close();
+    }
+  }
+
+  @Test
+  public void skipsClosedPools() {
+    JedisPoolConfig config = new JedisPoolConfig();
+    config.setHealthChecker(checker);
+    JedisPoolAbstract pool = new JedisPoolAbstract(config, new StubJedisFactory());
+    pool.addObjects(1);
+    pool.destroy();
+
+    checker.checkNow();
+    assertEquals(0, checker.getCheckedCount());
+  }
+
+  private void serve(final Socket socket) {
+    Thread handler = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+              "UTF-8"));
+          OutputStream out = socket.getOutputStream();
+          String line;
+          while ((line = in.readLine()) != null) {
+            if (line.equalsIgnoreCase("PING")) {
+              pings.incrementAndGet();
+              out.write("+PONG\r\n".getBytes("UTF-8"));
+              out.flush();
+            }
+          }
+        } catch (IOException e) {
+          // client went away
+        }
+      }
+    });
+    handler.setDaemon(true);
+    handler.start();
+  }
+}
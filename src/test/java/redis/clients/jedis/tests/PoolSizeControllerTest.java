@@ -0,0 +1,111 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPoolAbstract;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.tests.utils.StubJedisFactory;
+import redis.clients.jedis.util.PoolSizeController;
+
+public class PoolSizeControllerTest {
+
+  private static JedisPoolConfig adaptiveConfig(int maxTotal, int minBound, int maxBound) {
+    JedisPoolConfig config = new JedisPoolConfig();
+    config.setMaxTotal(maxTotal);
+    config.setMaxIdle(maxTotal);
+    config.setMaxWaitMillis(5000);
+    config.setAdaptiveSizingEnabled(true);
+    config.setAdaptiveSizingMinTotal(minBound);
+    config.setAdaptiveSizingMaxTotal(maxBound);
+    config.setAdaptiveSizingPeriodMillis(20);
+    return config;
+  }
+
+  @Test
+  public void appliesHardBounds() {
+    JedisPoolAbstract pool = new JedisPoolAbstract(adaptiveConfig(100, 2, 16),
+        new StubJedisFactory());
+    try {
+      assertEquals(16, pool.getMaxTotal());
+      assertEquals(16, pool.getMaxIdle());
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void growsWhenThreadsWait() throws InterruptedException {
+    final JedisPoolAbstract pool = new JedisPoolAbstract(adaptiveConfig(2, 1, 8),
+        new StubJedisFactory());
+    try {
+      Jedis first = pool.getResource();
+      Jedis second = pool.getResource();
+
+      final AtomicReference<Jedis> borrowed = new AtomicReference<Jedis>();
+      Thread waiter = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          borrowed.set(pool.getResource());
+        }
+      });
+      waiter.start();
+      waiter.join(3000);
+
+      assertNotNull(borrowed.get());
+      PoolSizeController controller = pool.getSizeController();
+      assertTrue(pool.getMaxTotal() > 2);
+      assertTrue(pool.getMaxTotal() <= 8);
+      assertTrue(controller.getGrowCount() > 0);
+      assertEquals(3, pool.getNumActive());
+      first.close();
+      second.close();
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void shrinksWhenUnused() throws InterruptedException {
+    JedisPoolAbstract pool = new JedisPoolAbstract(adaptiveConfig(8, 2, 8),
+        new StubJedisFactory());
+    try {
+      Thread.sleep(1000);
+
+      assertEquals(2, pool.getMaxTotal());
+      assertTrue(pool.getSizeController().getShrinkCount() > 0);
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void keepsConfiguredMaxIdle() throws InterruptedException {
+    JedisPoolConfig config = adaptiveConfig(1, 1, 8);
+    config.setMaxIdle(1);
+    final JedisPoolAbstract pool = new JedisPoolAbstract(config, new StubJedisFactory());
+    try {
+      Jedis first = pool.getResource();
+      Thread waiter = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          pool.getResource().close();
+        }
+      });
+      waiter.start();
+      waiter.join(3000);
+
+      assertTrue(pool.getMaxTotal() > 1);
+      assertEquals(1, pool.getMaxIdle());
+      first.close();
+    } finally {
+      pool.destroy();
+    }
+  }
+}
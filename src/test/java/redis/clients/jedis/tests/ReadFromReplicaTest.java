@@ -0,0 +1,129 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.ReadFrom;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.tests.utils.FakeRedisCluster;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+public class ReadFromReplicaTest {
+
+  private FakeRedisCluster cluster;
+  private JedisCluster jc;
+  // a key served by master 0
+  private String key;
+
+  @Before
+  public void setUp() throws IOException {
+    cluster = new FakeRedisCluster(3, 2);
+    jc = new JedisCluster(Collections.singleton(cluster.getNode(0)));
+    for (int i = 0; key == null; i++) {
+      if (cluster.getOwner(JedisClusterCRC16.getSlot("key" + i)) == 0) {
+        key = "key" + i;
+      }
+    }
+    jc.set(key, "value");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jc.close();
+    cluster.close();
+  }
+
+  private int replicaCommands() {
+    return cluster.getCommandCount(cluster.getReplica(0, 0))
+        + cluster.getCommandCount(cluster.getReplica(0, 1));
+  }
+
+  @Test
+  public void keepsOnePoolPerReplica() {
+    Map<String, JedisPool> nodes = jc.getClusterNodes();
+    assertEquals(9, nodes.size());
+
+    HostAndPort replica = cluster.getNode(cluster.getReplica(0, 0));
+    Jedis jedis = nodes.get(replica.toString()).getResource();
+    try {
+      jedis.ping();
+    } finally {
+      jedis.close();
+    }
+    // the pool listed for the replica is the READONLY one reads use
+    assertTrue(cluster.isReadOnly(cluster.getReplica(0, 0)));
+  }
+
+  @Test
+  public void readsFromMasterByDefault() {
+    int masterCommands = cluster.getCommandCount(0);
+    for (int i = 0; i < 10; i++) {
+      assertEquals("value", jc.get(key));
+    }
+    assertEquals(masterCommands + 10, cluster.getCommandCount(0));
+    assertEquals(0, replicaCommands());
+  }
+
+  @Test
+  public void spreadsReadsOverReplicas() {
+    jc.setReadFrom(ReadFrom.REPLICA_PREFERRED);
+    int masterCommands = cluster.getCommandCount(0);
+    for (int i = 0; i < 100; i++) {
+      assertEquals("value", jc.get(key));
+    }
+    assertTrue(cluster.isReadOnly(cluster.getReplica(0, 0)));
+    assertTrue(cluster.isReadOnly(cluster.getReplica(0, 1)));
+    // one READONLY per replica connection, then round-robin
+    assertEquals(51, cluster.getCommandCount(cluster.getReplica(0, 0)));
+    assertEquals(51, cluster.getCommandCount(cluster.getReplica(0, 1)));
+    assertEquals(masterCommands, cluster.getCommandCount(0));
+
+    // writes still go to the master
+    jc.set(key, "other");
+    assertEquals(masterCommands + 1, cluster.getCommandCount(0));
+    assertEquals(102, replicaCommands());
+  }
+
+  @Test
+  public void fallsBackToMasterWithoutReplicas() throws IOException {
+    cluster.stopNode(cluster.getReplica(0, 0));
+    cluster.stopNode(cluster.getReplica(0, 1));
+
+    jc.setReadFrom(ReadFrom.REPLICA_PREFERRED);
+    assertEquals("value", jc.get(key));
+
+    jc.setReadFrom(ReadFrom.REPLICA_ONLY);
+    try {
+      jc.get(key);
+      fail("Expected no reachable replica");
+    } catch (JedisException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void nearestSamplesAllNodes() {
+    jc.setReadFrom(ReadFrom.NEAREST);
+    int masterCommands = cluster.getCommandCount(0);
+    for (int i = 0; i < 200; i++) {
+      assertEquals("value", jc.get(key));
+    }
+    assertTrue(cluster.getCommandCount(0) > masterCommands);
+    assertTrue(cluster.getCommandCount(cluster.getReplica(0, 0)) > 1);
+    assertTrue(cluster.getCommandCount(cluster.getReplica(0, 1)) > 1);
+    assertEquals(202, cluster.getCommandCount(0) - masterCommands + replicaCommands());
+  }
+}
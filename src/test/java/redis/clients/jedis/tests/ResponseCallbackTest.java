@@ -0,0 +1,195 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.DuplexPipeline;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ResponseCallback;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.tests.utils.FakeRedisServer;
+
+public class ResponseCallbackTest {
+
+  private FakeRedisServer server;
+  private Jedis jedis;
+
+  private static class RecordingCallback implements ResponseCallback<Object> {
+    private final List<String> events;
+    private final String name;
+
+    private RecordingCallback(List<String> events, String name) {
+      this.events = events;
+      this.name = name;
+    }
+
+    @Override
+    public void onSuccess(Object result) {
+      events.add(name + "=" + result);
+    }
+
+    @Override
+    public void onFailure(JedisDataException error) {
+      events.add(name + "!" + error.getMessage());
+    }
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    server = new FakeRedisServer(new FakeRedisServer.Handler() {
+      private boolean inMulti = false;
+
+      @Override
+      public synchronized String reply(List<String> command) {
+        final String name = command.get(0);
+        if (name.equals("MULTI")) {
+          inMulti = true;
+          return "+OK\r\n";
+        }
+        if (name.equals("EXEC")) {
+          inMulti = false;
+          return "*2\r\n$5\r\nvalue\r\n-ERR not an integer\r\n";
+        }
+        if (inMulti) {
+          return "+QUEUED\r\n";
+        }
+        if (name.equals("INCR")) {
+          return "-ERR not an integer\r\n";
+        }
+        if (name.equals("GET")) {
+          return "$5\r\nvalue\r\n";
+        }
+        return "+OK\r\n";
+      }
+    });
+    jedis = new Jedis(server.getHostAndPort());
+    jedis.connect();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    jedis.close();
+    server.close();
+  }
+
+  @Test
+  public void callbacksRunInReplyOrderDuringSync() {
+    final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+    Pipeline p = jedis.pipelined();
+    p.get("a").addCallback(new RecordingCallback(events, "get"));
+    p.incr("a").addCallback(new RecordingCallback(events, "incr"));
+    Response<String> set = p.set("a", "b");
+    set.addCallback(new ResponseCallback<String>() {
+      @Override
+      public void onSuccess(String result) {
+        events.add("set=" + result);
+        throw new IllegalStateException("ignored");
+      }
+
+      @Override
+      public void onFailure(JedisDataException error) {
+        fail();
+      }
+    });
+    Response<String> last = p.get("b");
+    assertTrue(events.isEmpty());
+
+    p.sync();
+    assertEquals(Arrays.asList("get=value", "incr!ERR not an integer", "set=OK"), events);
+    assertEquals("value", last.get());
+
+    // registered after the reply was read, runs immediately
+    last.addCallback(new RecordingCallback(events, "late"));
+    assertEquals("late=value", events.get(3));
+  }
+
+  @Test
+  public void callbacksOfPipelinedMultiRunDuringSync() {
+    final List<String> events = new ArrayList<String>();
+    Pipeline p = jedis.pipelined();
+    p.multi();
+    p.get("a").addCallback(new RecordingCallback(events, "get"));
+    Response<Long> incr = p.incr("a");
+    p.exec();
+    incr.addCallback(new RecordingCallback(events, "incr"));
+
+    p.sync();
+    assertEquals(Arrays.asList("get=value", "incr!ERR not an integer"), events);
+  }
+
+  @Test
+  public void callbacksOfTransactionRunDuringExec() {
+    final List<String> events = new ArrayList<String>();
+    Transaction t = jedis.multi();
+    t.get("a").addCallback(new RecordingCallback(events, "get"));
+    t.incr("a").addCallback(new RecordingCallback(events, "incr"));
+    assertTrue(events.isEmpty());
+
+    t.exec();
+    assertEquals(Arrays.asList("get=value", "incr!ERR not an integer"), events);
+  }
+
+  @Test
+  public void timedGetWaitsForTheReader() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    // flushes every command, so that replies arrive before sync
+    DuplexPipeline p = new DuplexPipeline(null, executor, 1, 100);
+    p.setClient(jedis.getClient());
+    Response<String> get = p.get("a");
+    Future<Long> incr = p.incr("a").toFuture();
+
+    assertEquals("value", get.get(5, TimeUnit.SECONDS));
+    try {
+      incr.get(5, TimeUnit.SECONDS);
+      fail("Expected the error reply");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof JedisDataException);
+    }
+    assertTrue(incr.isDone());
+    p.sync();
+    executor.shutdown();
+  }
+
+  @Test
+  public void timedGetTimesOutWithoutReply() throws Exception {
+    Pipeline p = jedis.pipelined();
+    Response<String> get = p.get("a");
+    assertFalse(get.isSet());
+    try {
+      get.get(10, TimeUnit.MILLISECONDS);
+      fail("Expected a timeout");
+    } catch (JedisException e) {
+      assertFalse(get.isSet());
+    }
+    try {
+      get.toFuture().get(10, TimeUnit.MILLISECONDS);
+      fail("Expected a timeout");
+    } catch (TimeoutException e) {
+      // expected
+    }
+    p.sync();
+    assertEquals("value", get.get(0, TimeUnit.MILLISECONDS));
+  }
+}
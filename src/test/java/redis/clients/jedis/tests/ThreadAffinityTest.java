@@ -0,0 +1,173 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolAbstract;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.tests.utils.FakeRedisServer;
+import redis.clients.jedis.tests.utils.StubJedisFactory;
+
+public class ThreadAffinityTest {
+
+  private static class AffineJedisPool extends JedisPoolAbstract {
+    AffineJedisPool(JedisPoolConfig config, StubJedisFactory factory) {
+      super(config, factory);
+    }
+
+    @Override
+    public Jedis getResource() {
+      Jedis jedis = super.getResource();
+      jedis.setDataSource(this);
+      return jedis;
+    }
+
+    void clear() {
+      clearInternalPool();
+    }
+  }
+
+  private static JedisPoolConfig affinityConfig(int maxTotal, long idleTimeoutMillis) {
+    JedisPoolConfig config = new JedisPoolConfig();
+    config.setThreadAffinityEnabled(true);
+    config.setThreadAffinityIdleTimeoutMillis(idleTimeoutMillis);
+    config.setMaxTotal(maxTotal);
+    config.setMaxWaitMillis(2000);
+    return config;
+  }
+
+  @Test
+  public void sameThreadGetsItsResourceBack() {
+    StubJedisFactory factory = new StubJedisFactory();
+    AffineJedisPool pool = new AffineJedisPool(affinityConfig(8, 60000), factory);
+    try {
+      Jedis first = pool.getResource();
+      first.close();
+      assertEquals(1, pool.getNumParked());
+      assertEquals(1, pool.getNumIdle());
+      assertEquals(0, pool.getNumActive());
+
+      Jedis second = pool.getResource();
+      assertSame(first, second);
+      assertEquals(0, pool.getNumParked());
+      assertEquals(1, pool.getNumActive());
+      second.close();
+      assertEquals(1, factory.getCreated());
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void reclaimsResourceOfIdleThread() throws InterruptedException {
+    AffineJedisPool pool = new AffineJedisPool(affinityConfig(8, 50), new StubJedisFactory());
+    try {
+      pool.getResource().close();
+      assertEquals(1, pool.getNumParked());
+
+      Thread.sleep(300);
+      assertEquals(0, pool.getNumParked());
+      assertEquals(1, pool.getNumIdle());
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void stealsParkedResourceWhenExhausted() throws InterruptedException {
+    final AffineJedisPool pool = new AffineJedisPool(affinityConfig(1, 60000),
+        new StubJedisFactory());
+    try {
+      Jedis parked = pool.getResource();
+      parked.close();
+
+      final AtomicReference<Jedis> stolen = new AtomicReference<Jedis>();
+      Thread other = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          Jedis jedis = pool.getResource();
+          stolen.set(jedis);
+          jedis.close();
+        }
+      });
+      other.start();
+      other.join();
+
+      assertSame(parked, stolen.get());
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void destroysParkedResourcesOnClose() {
+    StubJedisFactory factory = new StubJedisFactory();
+    AffineJedisPool pool = new AffineJedisPool(affinityConfig(8, 60000), factory);
+    pool.getResource().close();
+    pool.destroy();
+
+    assertEquals(1, factory.getDestroyed());
+  }
+
+  @Test
+  public void passivatesBeforeParking() {
+    StubJedisFactory factory = new StubJedisFactory();
+    AffineJedisPool pool = new AffineJedisPool(affinityConfig(8, 60000), factory);
+    try {
+      pool.getResource().close();
+      assertEquals(1, pool.getNumParked());
+      assertEquals(1, factory.getPassivated());
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void destroysParkedResourcesOnClear() {
+    StubJedisFactory factory = new StubJedisFactory();
+    AffineJedisPool pool = new AffineJedisPool(affinityConfig(8, 60000), factory);
+    try {
+      Jedis first = pool.getResource();
+      first.close();
+      pool.clear();
+      assertEquals(0, pool.getNumParked());
+      assertEquals(1, factory.getDestroyed());
+
+      Jedis second = pool.getResource();
+      assertNotSame(first, second);
+      second.close();
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void doesNotParkConnectionsOfAnotherDatabase() throws IOException {
+    FakeRedisServer server = new FakeRedisServer();
+    HostAndPort hnp = server.getHostAndPort();
+    JedisPool pool = new JedisPool(affinityConfig(8, 60000), hnp.getHost(), hnp.getPort(), 2000,
+        null, 2);
+    try {
+      Jedis jedis = pool.getResource();
+      jedis.select(5);
+      jedis.close();
+      assertEquals(0, pool.getNumParked());
+
+      Jedis again = pool.getResource();
+      assertEquals(2, again.getDB());
+      again.close();
+    } finally {
+      pool.close();
+      server.close();
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package redis.clients.jedis.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPoolAbstract;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.exceptions.JedisExhaustedPoolException;
+import redis.clients.jedis.tests.utils.StubJedisFactory;
+import redis.clients.jedis.util.TrafficClass;
+
+public class TrafficClassTest {
+
+  private static class ClassedJedisPool extends JedisPoolAbstract {
+    ClassedJedisPool(JedisPoolConfig config) {
+      super(config, new StubJedisFactory());
+    }
+
+    @Override
+    public Jedis getResource() {
+      Jedis jedis = super.getResource();
+      jedis.setDataSource(this);
+      return jedis;
+    }
+  }
+
+  private static JedisPoolConfig classedConfig(int maxTotal) {
+    JedisPoolConfig config = new JedisPoolConfig();
+    config.setMaxTotal(maxTotal);
+    config.addTrafficClass(new TrafficClass("interactive", 10, 1, 2000));
+    config.addTrafficClass(new TrafficClass("batch", 0, 0, 2000));
+    return config;
+  }
+
+  @Test
+  public void keepsReservedCapacityForItsClass() {
+    JedisPoolConfig config = new JedisPoolConfig();
+    config.setMaxTotal(3);
+    config.addTrafficClass(new TrafficClass("interactive", 10, 1, 1000));
+    config.addTrafficClass(new TrafficClass("batch", 0, 0, 50));
+    ClassedJedisPool pool = new ClassedJedisPool(config);
+    try {
+      Jedis batch1 = pool.getResource("batch");
+      Jedis batch2 = pool.getResource("batch");
+      try {
+        pool.getResource("batch");
+        fail("the last connection is reserved");
+      } catch (JedisExhaustedPoolException expected) {
+      }
+
+      Jedis interactive = pool.getResource("interactive");
+      assertNotNull(interactive);
+      assertEquals(2, pool.getTrafficClassGate().getNumActive("batch"));
+      assertEquals(1, pool.getTrafficClassGate().getNumActive("interactive"));
+      assertEquals(1, pool.getTrafficClassGate().getTimeoutCount("batch"));
+
+      interactive.close();
+      batch1.close();
+      batch2.close();
+      assertEquals(0, pool.getTrafficClassGate().getNumActive("batch"));
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void servesHigherPriorityFirst() throws InterruptedException {
+    final ClassedJedisPool pool = new ClassedJedisPool(classedConfig(2));
+    try {
+      Jedis interactive = pool.getResource("interactive");
+      Jedis batch = pool.getResource("batch");
+
+      final List<String> served = Collections.synchronizedList(new ArrayList<String>());
+      Thread batchWaiter = borrower(pool, "batch", served);
+      batchWaiter.start();
+      waitForWaiters(pool, 1);
+      Thread interactiveWaiter = borrower(pool, "interactive", served);
+      interactiveWaiter.start();
+      waitForWaiters(pool, 2);
+
+      batch.close();
+      interactiveWaiter.join();
+      interactive.close();
+      batchWaiter.join();
+
+      assertEquals("interactive", served.get(0));
+      assertEquals("batch", served.get(1));
+    } finally {
+      pool.destroy();
+    }
+  }
+
+  @Test
+  public void usesClassBoundToThread() {
+    ClassedJedisPool pool = new ClassedJedisPool(classedConfig(4));
+    TrafficClass.setCurrent("batch");
+    try {
+      Jedis jedis = pool.getResource();
+      assertEquals(1, pool.getTrafficClassGate().getNumActive("batch"));
+      jedis.close();
+    } finally {
+      TrafficClass.clearCurrent();
+      pool.destroy();
+    }
+  }
+
+  private static Thread borrower(final ClassedJedisPool pool, final String trafficClass,
+      final List<String> served) {
+    return new Thread(new Runnable() {
+      @Override
+      public void run() {
+        Jedis jedis = pool.getResource(trafficClass);
+        served.add(trafficClass);
+        if (trafficClass.equals("batch")) {
+          jedis.close();
+        }
+      }
+    });
+  }
+
+  private static void waitForWaiters(ClassedJedisPool pool, int waiters)
+      throws InterruptedException {
+    while (pool.getTrafficClassGate().getNumWaiters() < waiters) {
+      Thread.sleep(5);
+    }
+  }
+}
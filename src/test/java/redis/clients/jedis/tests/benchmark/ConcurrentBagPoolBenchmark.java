@@ -0,0 +1,68 @@
+package redis.clients.jedis.tests.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPoolAbstract;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.tests.utils.StubJedisFactory;
+
+/**
+ * Measures borrow/return throughput of the pool backends alone, with connections that are never
+ * opened so that the network does not dominate.
+ */
+public class ConcurrentBagPoolBenchmark {
+  private static final int TOTAL_OPERATIONS = 5000000;
+  private static final int[] THREADS = { 1, 8, 32, 128 };
+  private static final int MAX_TOTAL = 16;
+
+  public static void main(String[] args) throws Exception {
+    for (int threads : THREADS) {
+      // warm up both backends before measuring
+      run(false, threads, TOTAL_OPERATIONS / 10);
+      run(true, threads, TOTAL_OPERATIONS / 10);
+
+      long generic = run(false, threads, TOTAL_OPERATIONS);
+      long bag = run(true, threads, TOTAL_OPERATIONS);
+      System.out.println(threads + " threads: GenericObjectPool " + generic
+          + " ops, ConcurrentBagPool " + bag + " ops");
+    }
+  }
+
+  private static long run(boolean concurrentBag, int threads, final int operations)
+      throws Exception {
+    JedisPoolConfig config = new JedisPoolConfig();
+    config.setConcurrentBagEnabled(concurrentBag);
+    config.setMaxTotal(MAX_TOTAL);
+    config.setMaxIdle(MAX_TOTAL);
+    config.setJmxEnabled(false);
+    final JedisPoolAbstract pool = new JedisPoolAbstract(config, new StubJedisFactory());
+    pool.addObjects(MAX_TOTAL);
+
+    final AtomicInteger ind = new AtomicInteger();
+    List<Thread> tds = new ArrayList<Thread>();
+    long t = System.currentTimeMillis();
+    for (int i = 0; i < threads; i++) {
+      Thread hj = new Thread(new Runnable() {
+        public void run() {
+          while (ind.getAndIncrement() < operations) {
+            Jedis j = pool.getResource();
+            j.setDataSource(pool);
+            j.close();
+          }
+        }
+      });
+      tds.add(hj);
+      hj.start();
+    }
+
+    for (Thread td : tds)
+      td.join();
+
+    long elapsed = Math.max(1, System.currentTimeMillis() - t);
+    pool.destroy();
+    return (1000L * operations) / elapsed;
+  }
+}
@@ -0,0 +1,94 @@
+package redis.clients.jedis.tests.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import redis.clients.jedis.BinaryShardedJedis;
+import redis.clients.jedis.Client;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisShardInfo;
+import redis.clients.jedis.PipelineBase;
+import redis.clients.jedis.ShardedJedis;
+import redis.clients.jedis.ShardedJedisPipeline;
+import redis.clients.jedis.tests.HostAndPortUtil;
+
+/**
+ * Compares ShardedJedisPipeline with the former implementation, which read the replies one by one
+ * in the order of the commands, flushing and blocking per shard.
+ */
+public class ShardedPipelineBenchmark {
+  private static final int TOTAL_OPERATIONS = 200000;
+  private static final int BATCH_SIZE = 1000;
+  private static final int ROUNDS = 5;
+
+  /**
+   * The pipeline as it was before replies were read per shard.
+   */
+  private static class SequentialShardedPipeline extends PipelineBase {
+    private final BinaryShardedJedis jedis;
+    private final List<Client> clients = new ArrayList<Client>();
+
+    private SequentialShardedPipeline(BinaryShardedJedis jedis) {
+      this.jedis = jedis;
+    }
+
+    public void sync() {
+      for (Client client : clients) {
+        generateResponse(client.getOne());
+      }
+      clients.clear();
+    }
+
+    @Override
+    protected Client getClient(String key) {
+      Client client = jedis.getShard(key).getClient();
+      clients.add(client);
+      return client;
+    }
+
+    @Override
+    protected Client getClient(byte[] key) {
+      Client client = jedis.getShard(key).getClient();
+      clients.add(client);
+      return client;
+    }
+  }
+
+  public static void main(String[] args) {
+    List<JedisShardInfo> shards = new ArrayList<JedisShardInfo>();
+    for (HostAndPort hnp : HostAndPortUtil.getRedisServers().subList(0, 2)) {
+      JedisShardInfo shard = new JedisShardInfo(hnp);
+      shard.setPassword("foobared");
+      shards.add(shard);
+    }
+    ShardedJedis jedis = new ShardedJedis(shards);
+
+    for (int round = 0; round < ROUNDS; round++) {
+      long begin = System.nanoTime();
+      SequentialShardedPipeline sequential = new SequentialShardedPipeline(jedis);
+      for (int n = 0; n < TOTAL_OPERATIONS; n++) {
+        sequential.set("foo" + n, "bar" + n);
+        if ((n + 1) % BATCH_SIZE == 0) {
+          sequential.sync();
+        }
+      }
+      sequential.sync();
+      long sequentialNanos = System.nanoTime() - begin;
+
+      begin = System.nanoTime();
+      ShardedJedisPipeline parallel = jedis.pipelined();
+      for (int n = 0; n < TOTAL_OPERATIONS; n++) {
+        parallel.set("foo" + n, "bar" + n);
+        if ((n + 1) % BATCH_SIZE == 0) {
+          parallel.sync();
+        }
+      }
+      parallel.sync();
+      long parallelNanos = System.nanoTime() - begin;
+
+      System.out.println("sequential: " + (TOTAL_OPERATIONS * 1000000000L / sequentialNanos)
+          + " ops, per shard: " + (TOTAL_OPERATIONS * 1000000000L / parallelNanos) + " ops");
+    }
+    jedis.disconnect();
+  }
+}
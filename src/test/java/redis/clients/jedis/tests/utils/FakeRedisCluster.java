@@ -0,0 +1,375 @@
+package redis.clients.jedis.tests.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+/**
+ * A set of {@link FakeRedisServer}s acting as a Redis Cluster, to test cluster clients without
+ * Redis. The slots are split evenly between the masters. The nodes share a single key space and
+ * answer PING, CLUSTER SLOTS, ASKING, READONLY, GET, SET, DEL, INCR, MGET, MSET, EXISTS, UNLINK,
+ * TOUCH, SCAN and PUBLISH, which reaches no subscriber. A node asked for a key of a slot it does not own replies MOVED, or ASK while the slot is
+ * migrating to another node; multi-key commands over several slots get CROSSSLOT. Replicas, if any,
+ * serve GET for the slots of their master once they were sent READONLY.
+ */
+public class FakeRedisCluster implements Closeable {
+  private static final int SLOTS = 16384;
+  private static final Set<String> MULTI_KEY_COMMANDS = new HashSet<String>(Arrays.asList("DEL",
+    "UNLINK", "EXISTS", "TOUCH", "MGET", "MSET"));
+
+  private final List<FakeRedisServer> servers = new ArrayList<FakeRedisServer>();
+  private final int[] owners = new int[SLOTS];
+  private final int[] importing = new int[SLOTS];
+  private final boolean[] asking;
+  private final boolean[] readOnly;
+  private final int masters;
+  private final int replicasPerMaster;
+  private final List<AtomicInteger> scans = new ArrayList<AtomicInteger>();
+  private final AtomicInteger slotsRequests = new AtomicInteger();
+  private String error;
+  private int errorCount;
+  private final Map<String, String> data = new ConcurrentHashMap<String, String>();
+
+  public FakeRedisCluster(final int nodes) throws IOException {
+    this(nodes, 0);
+  }
+
+  /**
+   * @param masters number of masters, nodes 0 to masters - 1
+   * @param replicasPerMaster number of replicas of each master, the replicas of master m are the
+   *          nodes masters + m * replicasPerMaster and following
+   */
+  public FakeRedisCluster(final int masters, final int replicasPerMaster) throws IOException {
+    final int nodes = masters * (1 + replicasPerMaster);
+    this.masters = masters;
+    this.replicasPerMaster = replicasPerMaster;
+    this.asking = new boolean[nodes];
+    this.readOnly = new boolean[nodes];
+    for (int i = 0; i < nodes; i++) {
+      servers.add(new FakeRedisServer(new NodeHandler(i)));
+      scans.add(new AtomicInteger());
+    }
+    for (int slot = 0; slot < SLOTS; slot++) {
+      owners[slot] = slot * masters / SLOTS;
+      importing[slot] = -1;
+    }
+  }
+
+  public int getReplica(final int master, final int replica) {
+    return masters + master * replicasPerMaster + replica;
+  }
+
+  public synchronized boolean isReadOnly(final int node) {
+    return readOnly[node];
+  }
+
+  public HostAndPort getNode(final int node) {
+    return servers.get(node).getHostAndPort();
+  }
+
+  public Set<HostAndPort> getNodes() {
+    Set<HostAndPort> nodes = new HashSet<HostAndPort>();
+    for (FakeRedisServer server : servers) {
+      nodes.add(server.getHostAndPort());
+    }
+    return nodes;
+  }
+
+  public int getCommandCount(final int node) {
+    return servers.get(node).getCommandCount();
+  }
+
+  public synchronized int getOwner(final int slot) {
+    return owners[slot];
+  }
+
+  /**
+   * Assigns a slot to another node, the previous owner replies MOVED from now on.
+   */
+  public synchronized void moveSlot(final int slot, final int node) {
+    owners[slot] = node;
+    importing[slot] = -1;
+  }
+
+  /**
+   * Starts migrating a slot to another node, the owner replies ASK until the slot is moved.
+   */
+  public synchronized void migrateSlot(final int slot, final int node) {
+    importing[slot] = node;
+  }
+
+  /**
+   * Promotes a replica: it takes over all the slots of its master.
+   */
+  public synchronized void failover(final int master, final int replica) {
+    final int node = getReplica(master, replica);
+    for (int slot = 0; slot < SLOTS; slot++) {
+      if (owners[slot] == master) {
+        owners[slot] = node;
+      }
+    }
+  }
+
+  /**
+   * Makes the next key commands of all nodes fail with an error reply, e.g. TRYAGAIN or
+   * CLUSTERDOWN.
+   * @param error the error message, without the leading dash
+   */
+  public synchronized void failCommands(final String error, final int count) {
+    this.error = error;
+    this.errorCount = count;
+  }
+
+  private synchronized String nextError() {
+    if (errorCount == 0) {
+      return null;
+    }
+    errorCount--;
+    return "-" + error + "\r\n";
+  }
+
+  public int getScanCount(final int node) {
+    return scans.get(node).get();
+  }
+
+  /**
+   * @return the number of CLUSTER SLOTS answered by all nodes
+   */
+  public int getSlotsRequestCount() {
+    return slotsRequests.get();
+  }
+
+  /**
+   * Stops a node, its connections are closed.
+   */
+  public void stopNode(final int node) throws IOException {
+    servers.get(node).close();
+  }
+
+  public String get(final String key) {
+    return data.get(key);
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (FakeRedisServer server : servers) {
+      server.close();
+    }
+  }
+
+  private synchronized String slotsReply() {
+    StringBuilder ranges = new StringBuilder();
+    int count = 0;
+    int start = 0;
+    for (int slot = 1; slot <= SLOTS; slot++) {
+      if (slot == SLOTS || owners[slot] != owners[start]) {
+        // a promoted replica has no replicas
+        final int replicas = owners[start] < masters ? replicasPerMaster : 0;
+        ranges.append('*').append(3 + replicas).append("\r\n:").append(start)
+            .append("\r\n:").append(slot - 1).append("\r\n");
+        appendNode(ranges, owners[start]);
+        for (int replica = 0; replica < replicas; replica++) {
+          appendNode(ranges, getReplica(owners[start], replica));
+        }
+        count++;
+        start = slot;
+      }
+    }
+    return "*" + count + "\r\n" + ranges;
+  }
+
+  private void appendNode(final StringBuilder reply, final int node) {
+    HostAndPort hostAndPort = getNode(node);
+    reply.append("*2\r\n").append(bulk(hostAndPort.getHost())).append(':')
+        .append(hostAndPort.getPort()).append("\r\n");
+  }
+
+  private synchronized String redirect(final int node, final int slot, final boolean read) {
+    if (node >= masters && owners[slot] != node) {
+      final int master = (node - masters) / replicasPerMaster;
+      if (read && readOnly[node] && owners[slot] == master) {
+        return null;
+      }
+      return "-MOVED " + slot + " " + address(owners[slot]) + "\r\n";
+    }
+    final boolean wasAsking = asking[node];
+    asking[node] = false;
+    if (owners[slot] == node) {
+      if (importing[slot] >= 0) {
+        return "-ASK " + slot + " " + address(importing[slot]) + "\r\n";
+      }
+      return null;
+    }
+    if (importing[slot] == node && wasAsking) {
+      return null;
+    }
+    return "-MOVED " + slot + " " + address(owners[slot]) + "\r\n";
+  }
+
+  /**
+   * Scans the keys of the slots of a node in an order of its own, like a Redis process seeding its
+   * hash function at random, the cursor being the number of keys returned so far.
+   */
+  private String scan(final int node, final List<String> command) {
+    final int cursor = Integer.parseInt(command.get(1));
+    int count = 10;
+    String match = null;
+    for (int i = 2; i + 1 < command.size(); i += 2) {
+      if (command.get(i).equalsIgnoreCase("COUNT")) {
+        count = Integer.parseInt(command.get(i + 1));
+      } else if (command.get(i).equalsIgnoreCase("MATCH")) {
+        match = command.get(i + 1).replace("*", ".*");
+      }
+    }
+    final List<String> keys = new ArrayList<String>();
+    synchronized (this) {
+      for (String key : new TreeSet<String>(data.keySet())) {
+        if (owners[JedisClusterCRC16.getSlot(key)] == node) {
+          keys.add(key);
+        }
+      }
+    }
+    Collections.shuffle(keys, new Random(node));
+    final int end = Math.min(cursor + count, keys.size());
+    StringBuilder page = new StringBuilder();
+    int matched = 0;
+    for (int i = cursor; i < end; i++) {
+      if (match == null || keys.get(i).matches(match)) {
+        page.append(bulk(keys.get(i)));
+        matched++;
+      }
+    }
+    return "*2\r\n" + bulk(String.valueOf(end == keys.size() ? 0 : end)) + "*" + matched + "\r\n"
+        + page;
+  }
+
+  private String address(final int node) {
+    HostAndPort hostAndPort = getNode(node);
+    return hostAndPort.getHost() + ":" + hostAndPort.getPort();
+  }
+
+  private static String bulk(final String value) {
+    return value == null ? "$-1\r\n" : "$" + value.length() + "\r\n" + value + "\r\n";
+  }
+
+  private class NodeHandler implements FakeRedisServer.Handler {
+    private final int node;
+
+    private NodeHandler(final int node) {
+      this.node = node;
+    }
+
+    @Override
+    public String reply(final List<String> command) {
+      final String name = command.get(0).toUpperCase();
+      if (name.equals("PING")) {
+        return "+PONG\r\n";
+      }
+      if (name.equals("CLUSTER")) {
+        slotsRequests.incrementAndGet();
+        return slotsReply();
+      }
+      if (name.equals("ASKING")) {
+        synchronized (FakeRedisCluster.this) {
+          asking[node] = true;
+        }
+        return "+OK\r\n";
+      }
+      if (name.equals("READONLY")) {
+        synchronized (FakeRedisCluster.this) {
+          readOnly[node] = true;
+        }
+        return "+OK\r\n";
+      }
+      if (name.equals("PUBLISH")) {
+        return ":0\r\n";
+      }
+      if (name.equals("SCAN")) {
+        scans.get(node).incrementAndGet();
+        return scan(node, command);
+      }
+      if (command.size() < 2) {
+        return "+OK\r\n";
+      }
+
+      final String error = nextError();
+      if (error != null) {
+        return error;
+      }
+      final String key = command.get(1);
+      final int slot = JedisClusterCRC16.getSlot(key);
+      if (MULTI_KEY_COMMANDS.contains(name)) {
+        final int keyStride = name.equals("MSET") ? 2 : 1;
+        for (int i = 1; i < command.size(); i += keyStride) {
+          if (JedisClusterCRC16.getSlot(command.get(i)) != slot) {
+            return "-CROSSSLOT Keys in request don't hash to the same slot\r\n";
+          }
+        }
+      }
+      final String redirect = redirect(node, slot, name.equals("GET"));
+      if (redirect != null) {
+        return redirect;
+      }
+      if (name.equals("GET")) {
+        return bulk(data.get(key));
+      }
+      if (name.equals("SET")) {
+        data.put(key, command.get(2));
+        return "+OK\r\n";
+      }
+      if (name.equals("DEL") || name.equals("UNLINK")) {
+        int removed = 0;
+        for (String k : command.subList(1, command.size())) {
+          removed += data.remove(k) == null ? 0 : 1;
+        }
+        return ":" + removed + "\r\n";
+      }
+      if (name.equals("EXISTS") || name.equals("TOUCH")) {
+        int existing = 0;
+        for (String k : command.subList(1, command.size())) {
+          existing += data.containsKey(k) ? 1 : 0;
+        }
+        return ":" + existing + "\r\n";
+      }
+      if (name.equals("MGET")) {
+        StringBuilder reply = new StringBuilder("*").append(command.size() - 1).append("\r\n");
+        for (String k : command.subList(1, command.size())) {
+          reply.append(bulk(data.get(k)));
+        }
+        return reply.toString();
+      }
+      if (name.equals("MSET")) {
+        for (int i = 1; i + 1 < command.size(); i += 2) {
+          data.put(command.get(i), command.get(i + 1));
+        }
+        return "+OK\r\n";
+      }
+      if (name.equals("INCR")) {
+        synchronized (data) {
+          String value = data.get(key);
+          try {
+            long incremented = (value == null ? 0 : Long.parseLong(value)) + 1;
+            data.put(key, String.valueOf(incremented));
+            return ":" + incremented + "\r\n";
+          } catch (NumberFormatException e) {
+            return "-ERR value is not an integer or out of range\r\n";
+          }
+        }
+      }
+      return "+OK\r\n";
+    }
+  }
+}
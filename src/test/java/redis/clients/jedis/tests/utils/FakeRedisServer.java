@@ -0,0 +1,160 @@
+package redis.clients.jedis.tests.utils;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import redis.clients.jedis.HostAndPort;
+
+/**
+ * A minimal server speaking enough of the Redis protocol to test clients without Redis. It answers
+ * every command with the reply of its {@link Handler}, by default +PONG to PING and +OK otherwise.
+ */
+public class FakeRedisServer implements Closeable {
+
+  public interface Handler {
+    /**
+     * @return the raw reply to the command, including the trailing CRLF
+     */
+    String reply(List<String> command);
+  }
+
+  public static final Handler OK_HANDLER = new Handler() {
+    @Override
+    public String reply(List<String> command) {
+      return "PING".equalsIgnoreCase(command.get(0)) ? "+PONG\r\n" : "+OK\r\n";
+    }
+  };
+
+  private final ServerSocket server;
+  private final Handler handler;
+  private final AtomicInteger commands = new AtomicInteger();
+  private final List<Socket> sockets = new ArrayList<Socket>();
+
+  public FakeRedisServer() throws IOException {
+    this(OK_HANDLER);
+  }
+
+  public FakeRedisServer(Handler handler) throws IOException {
+    this.server = new ServerSocket(0);
+    this.handler = handler;
+    Thread acceptor = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        while (!server.isClosed()) {
+          try {
+            serve(server.accept());
+          } catch (IOException e) {
+            return;
+          }
+        }
+      }
+    }, "fake-redis-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  public HostAndPort getHostAndPort() {
+    return new HostAndPort("localhost", server.getLocalPort());
+  }
+
+  public int getCommandCount() {
+    return commands.get();
+  }
+
+  @Override
+  public void close() throws IOException {
+    server.close();
+    synchronized (sockets) {
+      for (Socket socket : sockets) {
+        socket.close();
+      }
+    }
+  }
+
+  private void serve(final Socket socket) throws IOException {
+    synchronized (sockets) {
+      if (server.isClosed()) {
+        // accepted while closing
+        socket.close();
+        return;
+      }
+      sockets.add(socket);
+    }
+    try {
+      socket.setTcpNoDelay(true);
+    } catch (IOException e) {
+      // replies are only slower
+    }
+    Thread connection = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          InputStream in = new BufferedInputStream(socket.getInputStream());
+          OutputStream out = socket.getOutputStream();
+          List<String> command;
+          while ((command = readCommand(in)) != null) {
+            commands.incrementAndGet();
+            final String reply = handler.reply(command);
+            if (server.isClosed()) {
+              // a stopped server does not answer commands still in flight
+              return;
+            }
+            out.write(reply.getBytes("UTF-8"));
+            if (in.available() == 0) {
+              out.flush();
+            }
+          }
+        } catch (IOException e) {
+          // client went away
+        }
+      }
+    }, "fake-redis-connection");
+    connection.setDaemon(true);
+    connection.start();
+  }
+
+  private static List<String> readCommand(InputStream in) throws IOException {
+    String header = readLine(in);
+    if (header == null) {
+      return null;
+    }
+    int args = Integer.parseInt(header.substring(1));
+    List<String> command = new ArrayList<String>(args);
+    for (int i = 0; i < args; i++) {
+      int length = Integer.parseInt(readLine(in).substring(1));
+      byte[] arg = new byte[length];
+      int read = 0;
+      while (read < length) {
+        int n = in.read(arg, read, length - read);
+        if (n < 0) {
+          return null;
+        }
+        read += n;
+      }
+      readLine(in);
+      command.add(new String(arg, "UTF-8"));
+    }
+    return command;
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    StringBuilder line = new StringBuilder();
+    int b;
+    while ((b = in.read()) != -1) {
+      if (b == '\r') {
+        in.read();
+        return line.toString();
+      }
+      line.append((char) b);
+    }
+    return null;
+  }
+}
@@ -0,0 +1,77 @@
+package redis.clients.jedis.tests.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+
+/**
+ * Creates Jedis instances which are never connected, to exercise pools without a Redis server.
+ * When given an endpoint, the instances are connected to it instead.
+ */
+public class StubJedisFactory implements PooledObjectFactory<Jedis> {
+  private final HostAndPort hostAndPort;
+  private final AtomicInteger created = new AtomicInteger();
+  private final AtomicInteger destroyed = new AtomicInteger();
+  private final AtomicInteger passivated = new AtomicInteger();
+  private volatile boolean valid = true;
+
+  public StubJedisFactory() {
+    this(null);
+  }
+
+  public StubJedisFactory(HostAndPort hostAndPort) {
+    this.hostAndPort = hostAndPort;
+  }
+
+  public int getCreated() {
+    return created.get();
+  }
+
+  public int getDestroyed() {
+    return destroyed.get();
+  }
+
+  public int getPassivated() {
+    return passivated.get();
+  }
+
+  public void setValid(boolean valid) {
+    this.valid = valid;
+  }
+
+  @Override
+  public PooledObject<Jedis> makeObject() {
+    created.incrementAndGet();
+    if (hostAndPort == null) {
+      return new DefaultPooledObject<Jedis>(new Jedis());
+    }
+    Jedis jedis = new Jedis(hostAndPort);
+    jedis.connect();
+    return new DefaultPooledObject<Jedis>(jedis);
+  }
+
+  @Override
+  public void destroyObject(PooledObject<Jedis> p) {
+    destroyed.incrementAndGet();
+    p.getObject().disconnect();
+  }
+
+  @Override
+  public boolean validateObject(PooledObject<Jedis> p) {
+    return valid;
+  }
+
+  @Override
+  public void activateObject(PooledObject<Jedis> p) {
+  }
+
+  @Override
+  public void passivateObject(PooledObject<Jedis> p) {
+    passivated.incrementAndGet();
+  }
+}